@@ -0,0 +1,62 @@
+package com.assignment.mlp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.mlp.DataLoader;
+import com.assignment.mlp.InMemoryDataSet;
+
+/**
+ * Time to parse and normalize a CSV file, both through the streaming iterator used for
+ * prediction and into the in-memory dataset used for training.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class DataLoaderBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"1024"})
+    public int batchSize;
+
+    private String path;
+
+    @Setup
+    public void generateData() throws Exception {
+        path = SyntheticData.csv(rows).getAbsolutePath();
+    }
+
+    /**
+     * Fits the normalizer on the file, then parses and normalizes every batch.
+     */
+    @Benchmark
+    public long loadData() throws Exception {
+        DataSetIterator iterator = DataLoader.loadData(path, batchSize);
+        long examples = 0;
+        while (iterator.hasNext()) {
+            examples += iterator.next().numExamples();
+        }
+        return examples;
+    }
+
+    @Benchmark
+    public InMemoryDataSet loadInMemory() throws Exception {
+        return DataLoader.loadInMemory(path);
+    }
+}
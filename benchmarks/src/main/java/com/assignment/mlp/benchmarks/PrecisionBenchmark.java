@@ -0,0 +1,90 @@
+package com.assignment.mlp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.mlp.DataLoader;
+import com.assignment.mlp.InMemoryDataSet;
+import com.assignment.mlp.LayerSpec;
+import com.assignment.mlp.MultilayerPerceptron;
+import com.assignment.mlp.TrainedModel;
+
+/**
+ * Throughput of {@code model.output} with the parameters, activations and input stored as
+ * FLOAT, HALF or BFLOAT16. The network is built in FP32 and converted, as a saved model
+ * would be. Accuracy per precision on real data is reported by the {@code bench --precisions} command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class PrecisionBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"FLOAT", "HALF", "BFLOAT16"})
+    public DataType dataType;
+
+    @Param({"32", "1024"})
+    public int batchSize;
+
+    @Param({"64", "256"})
+    public int width;
+
+    private MultiLayerNetwork model;
+    private DataSetIterator iterator;
+
+    /**
+     * Rows scored, reported by JMH as a rate next to the batch throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        InMemoryDataSet data = DataLoader.loadInMemory(SyntheticData.csv(rows).getAbsolutePath());
+        MultiLayerNetwork network = MultilayerPerceptron.buildNetwork(527, data.numFeatures(), 0.0005,
+                LayerSpec.widths(width, width, width), Activation.TANH, WeightInit.XAVIER);
+        model = new TrainedModel(network, data.getNormalizer()).withDataType(dataType).getNetwork();
+        iterator = data.castTo(dataType).iterator(batchSize);
+    }
+
+    @Benchmark
+    public INDArray output(RowCounter counter) {
+        if (!iterator.hasNext()) {
+            iterator.reset();
+        }
+        INDArray probabilities = model.output(iterator.next().getFeatures());
+        counter.rows += probabilities.rows();
+        return probabilities;
+    }
+}
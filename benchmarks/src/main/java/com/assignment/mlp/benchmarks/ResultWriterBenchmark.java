@@ -0,0 +1,81 @@
+package com.assignment.mlp.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.mlp.GridSearchResult;
+import com.assignment.mlp.HyperparameterConfig;
+import com.assignment.mlp.LayerSpec;
+import com.assignment.mlp.ResultWriter;
+
+/**
+ * Time to push a number of results through the background CSV result writer and close it,
+ * which includes flushing everything to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class ResultWriterBenchmark {
+    private static final int DISTINCT_RESULTS = 1024;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"1024"})
+    public int queueCapacity;
+
+    private final GridSearchResult[] results = new GridSearchResult[DISTINCT_RESULTS];
+    private File outputFile;
+
+    @Setup(Level.Trial)
+    public void createResults() throws IOException {
+        HyperparameterConfig config = new HyperparameterConfig(0.0005, 64, 150, LayerSpec.widths(256, 128, 64),
+                Activation.RELU, WeightInit.XAVIER);
+        for (int i = 0; i < DISTINCT_RESULTS; i++) {
+            results[i] = new GridSearchResult(i + 1, config, 0.8 + i * 1e-4, 0.75 + i * 1e-4, i, 2.5);
+        }
+        outputFile = Files.createTempFile("result-writer-benchmark", ".csv").toFile();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncateOutput() {
+        // The writer appends, so start every iteration from an empty file
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public File writeResults() throws Exception {
+        try (ResultWriter writer = new ResultWriter(outputFile, queueCapacity)) {
+            for (int i = 0; i < rows; i++) {
+                writer.submit(results[i % DISTINCT_RESULTS]);
+            }
+        }
+        return outputFile;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteOutput() {
+        outputFile.delete();
+    }
+}
@@ -0,0 +1,94 @@
+package com.assignment.mlp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.mlp.CompactModel;
+import com.assignment.mlp.CompactModelExporter;
+import com.assignment.mlp.CompactScorer;
+import com.assignment.mlp.DataLoader;
+import com.assignment.mlp.LayerSpec;
+import com.assignment.mlp.MultilayerPerceptron;
+
+/**
+ * Latency of scoring one row: {@code model.output} on a 1-row array against the compact
+ * scorer with plain loops and with the Vector API. Each operation scores the next of 1,024
+ * rows. The fork adds the Vector API module, so {@code vector} really is vectorized.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+public class ScorerBenchmark {
+    private static final int ROWS = 1024;
+
+    @Param({"64,64,64", "256,128,64"})
+    public String layers;
+
+    @Param({"dl4j", "scalar", "vector"})
+    public String scorer;
+
+    private boolean useNetwork;
+    private MultiLayerNetwork model;
+    private INDArray[] normalizedRows;
+    private CompactScorer compactScorer;
+    private float[][] rawRows;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        DataSet raw = DataLoader.readRaw(SyntheticData.csv(ROWS).getAbsolutePath());
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(raw);
+        // Weights do not affect inference cost, so an untrained network is enough
+        model = MultilayerPerceptron.buildNetwork(527, raw.numInputs(), 0.0005,
+                LayerSpec.parseList(layers), Activation.TANH, WeightInit.XAVIER);
+
+        INDArray features = raw.getFeatures().castTo(DataType.FLOAT);
+        rawRows = features.toFloatMatrix();
+        INDArray normalized = features.dup();
+        normalizer.transform(normalized);
+        normalizedRows = new INDArray[ROWS];
+        for (int r = 0; r < ROWS; r++) {
+            normalizedRows[r] = normalized.get(NDArrayIndex.interval(r, r + 1), NDArrayIndex.all()).dup();
+        }
+
+        useNetwork = scorer.equals("dl4j");
+        CompactModel compact = CompactModelExporter.export(model, normalizer);
+        compactScorer = compact.newScorer(scorer.equals("vector"));
+        if (scorer.equals("vector") && !compactScorer.isVectorized()) {
+            throw new IllegalStateException("The Vector API is not available in this JVM");
+        }
+    }
+
+    @Benchmark
+    public float score() {
+        int row = next;
+        next = (next + 1) % ROWS;
+        if (useNetwork) {
+            return model.output(normalizedRows[row]).getFloat(0);
+        }
+        return compactScorer.score(rawRows[row]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.assignment.mlp.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates CSV files in the application's data format (five features, then a 0/1 label)
+ * for the benchmarks. Files are written once per row count into the directory named by
+ * the {@code mlp.bench.dir} system property (default: a folder in java.io.tmpdir) and
+ * reused by later runs, since the 10M-row file takes a while to write.
+ */
+public class SyntheticData {
+    private static final long SEED = 527;
+    private static final double[] CLASS_OFFSETS = {0.9, -0.6, 0.4, -0.3, 0.2};
+
+    /**
+     * Returns the synthetic CSV with the given number of rows, generating it if needed.
+     *
+     * @param rows Number of data rows (excluding the header).
+     * @return The CSV file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static synchronized File csv(int rows) throws IOException {
+        File dir = new File(System.getProperty("mlp.bench.dir",
+                new File(System.getProperty("java.io.tmpdir"), "mlp-bench").getPath()));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create benchmark data directory: " + dir.getAbsolutePath());
+        }
+
+        File file = new File(dir, "synthetic-" + rows + ".csv");
+        if (file.exists()) {
+            return file;
+        }
+
+        // Write to a temporary name first so an interrupted run never leaves a truncated file behind
+        File partial = new File(dir, file.getName() + ".partial");
+        SplittableRandom random = new SplittableRandom(SEED);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(partial), 1 << 20)) {
+            writer.write("f1,f2,f3,f4,f5,label\n");
+            StringBuilder line = new StringBuilder(64);
+            for (int row = 0; row < rows; row++) {
+                // Two overlapping Gaussian classes, so the labels are learnable but not trivially separable
+                int label = random.nextInt(2);
+                line.setLength(0);
+                for (int f = 0; f < CLASS_OFFSETS.length; f++) {
+                    double value = gaussian(random) * 2 + (label == 1 ? CLASS_OFFSETS[f] : -CLASS_OFFSETS[f]);
+                    line.append(String.format(Locale.US, "%.4f", value)).append(',');
+                }
+                line.append(label).append('\n');
+                writer.append(line);
+            }
+        }
+        if (!partial.renameTo(file)) {
+            throw new IOException("Could not move " + partial + " to " + file);
+        }
+        return file;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller transform; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,67 @@
+package com.assignment.mlp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.mlp.DataLoader;
+import com.assignment.mlp.InMemoryDataSet;
+import com.assignment.mlp.MultilayerPerceptron;
+
+/**
+ * Time for one epoch of {@code model.fit} over the in-memory training data, for several
+ * hidden layer widths and batch sizes. Every iteration starts from a freshly initialized
+ * network, so the measured epoch is always the first one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class TrainingBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"64", "256"})
+    public int width;
+
+    @Param({"32", "128", "1024"})
+    public int batchSize;
+
+    private InMemoryDataSet data;
+    private MultiLayerNetwork model;
+
+    @Setup(Level.Trial)
+    public void loadData() throws Exception {
+        data = DataLoader.loadInMemory(SyntheticData.csv(rows).getAbsolutePath());
+    }
+
+    @Setup(Level.Iteration)
+    public void buildModel() {
+        model = MultilayerPerceptron.buildNetwork(527, data.numFeatures(), 0.0005,
+                new int[]{width, width, width}, Activation.RELU, WeightInit.XAVIER);
+    }
+
+    @Benchmark
+    public MultiLayerNetwork fitOneEpoch() {
+        DataSetIterator iterator = data.iterator(batchSize);
+        model.fit(iterator);
+        return model;
+    }
+}
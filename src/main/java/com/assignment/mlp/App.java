@@ -1,22 +1,31 @@
 package com.assignment.mlp;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.Scanner;
 
 import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
 import org.deeplearning4j.nn.weights.WeightInit;
-import org.nd4j.evaluation.classification.Evaluation;
 import org.nd4j.linalg.activations.Activation;
-import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 
 public class App {
+    private static final long MODEL_CACHE_BYTES = 512L * 1024 * 1024; // Loaded models kept between prediction runs
+    private static final ModelCache MODEL_CACHE = new ModelCache(MODEL_CACHE_BYTES);
+
     public static void main(String[] args) {
+        // Data and networks are FP32 unless converted on purpose, even if -Ddtype changes ND4J's default.
+        // Set as a property rather than through Nd4j so commands that never need ND4J do not start it.
+        System.setProperty("dtype", "float");
+
+        // A leading subcommand (train, grid, predict, bench) runs headless instead of the menu
+        if (args.length > 0 && !args[0].startsWith("--")) {
+            System.exit(CommandLineRunner.run(args));
+        }
+
         final String OS_String = System.getProperty("os.name");
+        final boolean resumeGridSearch = Arrays.asList(args).contains("--resume");
 
         try (Scanner scanner = new Scanner(System.in)) {
             while (true) {
@@ -38,9 +47,10 @@ public class App {
                         UtilityFunctions.clearConsole(OS_String);
                         System.out.println("=== Training Mode ===");
                         System.out.println("1. Train a single model");
-                        System.out.println("2. Run full grid search");
-                        System.out.println("3. Back to Main Menu");
-                        System.out.print("Enter your choice (1, 2, or 3): ");
+                        System.out.println("2. Run grid, random or TPE search");
+                        System.out.println("3. Run successive halving search");
+                        System.out.println("4. Back to Main Menu");
+                        System.out.print("Enter your choice (1, 2, 3, or 4): ");
                         int trainingChoice = -1;
                         if (scanner.hasNextInt()) {
                             trainingChoice = scanner.nextInt();
@@ -49,9 +59,10 @@ public class App {
 
                         switch (trainingChoice) {
                             case 1 -> trainSingleModel(scanner, OS_String);
-                            case 2 -> runGridSearch(scanner, OS_String);
-                            case 3 -> System.out.println("Returning to main menu.");
-                            default -> System.err.println("Invalid choice. Please enter 1, 2, or 3.");
+                            case 2 -> runGridSearch(scanner, OS_String, resumeGridSearch);
+                            case 3 -> runSuccessiveHalving(scanner, OS_String);
+                            case 4 -> System.out.println("Returning to main menu.");
+                            default -> System.err.println("Invalid choice. Please enter 1, 2, 3, or 4.");
                         }
                         System.out.println("\nPress Enter to continue...");
                         scanner.nextLine(); // Wait for user to read output
@@ -87,9 +98,9 @@ public class App {
         int batchSize = input.getBatchSize();
         double learningRate = input.getLearningRate();
         int epochs = input.getEpochs();
-        int[] neuronsPerLayer = input.getNeuronsPerLayer();
         Activation activation = input.getActivation();
         WeightInit weightInit = input.getWeightInit();
+        SplitConfig splitConfig = promptSplitConfig(scanner, seed, false);
 
         System.out.println("\nStarting MLP with the following parameters:");
         System.out.println("  Data path: " + dataPath);
@@ -99,32 +110,20 @@ public class App {
         System.out.println("  Epochs: " + epochs);
         System.out.printf("  Activation Function: %s%n", activation);
         System.out.printf("  Weight Initialization: %s%n", weightInit); 
+        System.out.printf(Locale.ROOT, "  Validation / test split: %.2f / %.2f%n",
+                splitConfig.getValidationFraction(), splitConfig.getTestFraction());
 
-        System.out.print("  Hidden layer neurons: [");
-        for (int i = 0; i < neuronsPerLayer.length; i++) {
-            System.out.print(neuronsPerLayer[i]);
-            if (i < neuronsPerLayer.length - 1) {
-                System.out.print(", ");
-            }
-        }
-        System.out.println("]\n");
+        System.out.println("  Hidden layers: " + LayerSpec.format(input.getLayers()) + "\n");
 
-        DataSetIterator trainData = DataLoader.loadData(dataPath, batchSize);
-        MultiLayerNetwork model = MultilayerPerceptron.buildNetwork(seed, 5, learningRate, neuronsPerLayer, activation, weightInit);
+        TrainingRun run = ModelTrainer.train(input, splitConfig, true);
 
-        long startTime = System.currentTimeMillis();
-        for (int i = 0; i < epochs; i++) {
-            model.fit(trainData);
-            trainData.reset();
-            System.out.printf("\rEpoch %d/%d completed.%n", (i + 1), epochs);
+        System.out.println("\nTraining completed in " + run.getTrainingMillis() / 1000 + " seconds.");
+        System.out.println("\n=== Validation Evaluation ===");
+        System.out.println(run.getValidationEvaluation().stats());
+        if (run.getTestEvaluation() != null) {
+            System.out.println("\n=== Test Evaluation ===");
+            System.out.println(run.getTestEvaluation().stats());
         }
-        long trainingTime = (System.currentTimeMillis() - startTime) / 1000;
-
-        System.out.println("\nTraining completed in " + trainingTime + " seconds.");
-        trainData.reset(); // Reset iterator for evaluation
-        Evaluation eval = model.evaluate(trainData);
-        System.out.println("\n=== Model Evaluation ===");
-        System.out.println(eval.stats());
 
         System.out.print("\nDo you want to save the trained model? (y/n): ");
         String saveChoice = scanner.nextLine().trim().toLowerCase();
@@ -132,15 +131,15 @@ public class App {
             System.out.print("Enter filename to save model (e.g., myModel.zip): ");
             String modelFilename = scanner.nextLine().trim();
             File modelFile = new File(modelFilename);
-            model.save(modelFile, true);
+            // The training normalizer is stored with the model so predictions use the same scaling
+            run.getTrainedModel().save(modelFile, true);
             System.out.println("Model saved to: " + modelFile.getAbsolutePath());
         }
     }
 
-    private static void runGridSearch(Scanner scanner, String OS_String) throws Exception {
+    private static void runGridSearch(Scanner scanner, String OS_String, boolean resumeFlag) throws Exception {
         UtilityFunctions.clearConsole(OS_String);
         System.out.println("=== Grid Search Mode ===\n");
-        System.out.println("WARNING: This will test all hyperparameter combinations and may take a long time!");
         System.out.print("Enter path to training data CSV file: ");
         String dataPath = scanner.nextLine().trim();
 
@@ -148,12 +147,116 @@ public class App {
         long baseSeed = scanner.hasNextLong() ? scanner.nextLong() : 527;
         scanner.nextLine();
 
-        System.out.println("\nInitiating grid search...");
+        System.out.print("Search strategy - grid, random or tpe (default grid): ");
+        String strategyName = scanner.nextLine().trim().toLowerCase();
+        SearchStrategy strategy;
+        int maxTrials = 0;
+        long timeBudgetMillis = 0;
+        if (strategyName.equals("random") || strategyName.equals("tpe")) {
+            SearchSpace space = SearchSpace.defaults();
+            System.out.println("Search space: " + space);
+            strategy = strategyName.equals("random")
+                    ? new RandomSearchStrategy(space, baseSeed)
+                    : new TpeSearchStrategy(space, 10, baseSeed);
+
+            System.out.print("Enter the maximum number of trials (default 50, 0 for no limit): ");
+            maxTrials = scanner.hasNextInt() ? scanner.nextInt() : 50;
+            scanner.nextLine();
+
+            System.out.print("Enter a time budget in minutes (default 0 for no limit): ");
+            timeBudgetMillis = (long) ((scanner.hasNextDouble() ? scanner.nextDouble() : 0) * 60_000);
+            scanner.nextLine();
+        } else {
+            strategy = new GridSearchStrategy();
+            System.out.println("WARNING: This will test all " + strategy.size()
+                    + " hyperparameter combinations and may take a long time!");
+        }
+
+        WorkerLayout.Strategy layoutStrategy = promptWorkerLayout(scanner);
+
+        SplitConfig splitConfig = promptSplitConfig(scanner, baseSeed, true);
+
+        boolean resume = resumeFlag;
+        if (!resume) {
+            System.out.print("Resume the previous " + strategy.getName() + " search from its trial ledger? (y/n, default n): ");
+            String resumeChoice = scanner.nextLine().trim().toLowerCase();
+            resume = resumeChoice.equals("y") || resumeChoice.equals("yes");
+        }
+
+        System.out.println("\nInitiating " + strategy.getName() + " search...");
 
-        GridSearchExecutor executor = new GridSearchExecutor(dataPath, 5, baseSeed);
-        executor.executeFullGridSearch();
+        GridSearchExecutor executor = new GridSearchExecutor(dataPath, baseSeed, layoutStrategy, resume, splitConfig,
+                strategy, maxTrials, timeBudgetMillis);
+        executor.execute();
 
-        System.out.println("\nGrid search process concluded.");
+        System.out.println("\nSearch process concluded.");
+    }
+
+    private static void runSuccessiveHalving(Scanner scanner, String OS_String) throws Exception {
+        UtilityFunctions.clearConsole(OS_String);
+        System.out.println("=== Successive Halving Search ===\n");
+        System.out.print("Enter path to training data CSV file: ");
+        String dataPath = scanner.nextLine().trim();
+
+        System.out.print("Enter base random seed (default 527): ");
+        long baseSeed = scanner.hasNextLong() ? scanner.nextLong() : 527;
+        scanner.nextLine();
+
+        System.out.print("Enter epochs for the first rung (default 10): ");
+        int minEpochs = scanner.hasNextInt() ? scanner.nextInt() : 10;
+        scanner.nextLine();
+
+        System.out.print("Enter reduction factor, keeping 1/n of trials per rung (default 3): ");
+        int reductionFactor = scanner.hasNextInt() ? scanner.nextInt() : 3;
+        scanner.nextLine();
+
+        WorkerLayout.Strategy layoutStrategy = promptWorkerLayout(scanner);
+        SplitConfig splitConfig = promptSplitConfig(scanner, baseSeed, false);
+
+        System.out.println("\nInitiating successive halving search...");
+
+        SuccessiveHalvingSearch search = new SuccessiveHalvingSearch(dataPath, baseSeed, layoutStrategy,
+                minEpochs, reductionFactor, splitConfig);
+        search.execute();
+
+        System.out.println("\nSuccessive halving search concluded.");
+    }
+
+    private static SplitConfig promptSplitConfig(Scanner scanner, long seed, boolean allowFolds) {
+        int folds = 1;
+        if (allowFolds) {
+            System.out.print("Enter number of cross-validation folds (default 1, no cross-validation): ");
+            folds = scanner.hasNextInt() ? scanner.nextInt() : 1;
+            scanner.nextLine();
+        }
+
+        double validationFraction = 0;
+        if (folds <= 1) {
+            System.out.print("Enter validation fraction (default 0.2): ");
+            validationFraction = scanner.hasNextDouble() ? scanner.nextDouble() : 0.2;
+            scanner.nextLine();
+        }
+
+        System.out.print("Enter test fraction (default 0.1): ");
+        double testFraction = scanner.hasNextDouble() ? scanner.nextDouble() : 0.1;
+        scanner.nextLine();
+
+        return new SplitConfig(validationFraction, testFraction, Math.max(1, folds), true, seed);
+    }
+
+    private static WorkerLayout.Strategy promptWorkerLayout(Scanner scanner) {
+        System.out.println("Select worker layout:");
+        System.out.println("  1. Many single-threaded trials");
+        System.out.println("  2. A few multi-threaded trials");
+        System.out.println("  3. Automatic (short calibration run, default)");
+        System.out.print("Enter your choice (1, 2, or 3): ");
+        int layoutChoice = scanner.hasNextInt() ? scanner.nextInt() : 3;
+        scanner.nextLine();
+        return switch (layoutChoice) {
+            case 1 -> WorkerLayout.Strategy.SINGLE_THREADED;
+            case 2 -> WorkerLayout.Strategy.MULTI_THREADED;
+            default -> WorkerLayout.Strategy.AUTO;
+        };
     }
 
     private static void predictMode(Scanner scanner, String OS_String) throws Exception {
@@ -168,58 +271,67 @@ public class App {
         if (!modelFile.exists()) {
             throw new IllegalArgumentException("Model file not found: " + modelFile.getAbsolutePath());
         }
-        // Load the model
-        MultiLayerNetwork model = MultiLayerNetwork.load(modelFile, true);
+        if (CompactModel.isCompact(modelPath)) {
+            predictCompact(scanner, modelFile);
+            return;
+        }
+        // Load the model and the normalizer saved with it, or reuse them from an earlier run
+        TrainedModel trainedModel = MODEL_CACHE.get(modelFile);
+        MultiLayerNetwork model = trainedModel.getNetwork();
         if (model == null) {
             throw new IOException("Failed to load model from file: " + modelFile.getAbsolutePath());
         }
 
         UtilityFunctions.clearConsole(OS_String);
-        System.out.println("Model loaded successfully: " + modelFile.getName());
+        System.out.println("Model loaded successfully: " + modelFile.getName() + " (cache: " + MODEL_CACHE + ")");
 
         // Get data for prediction
         System.out.print("Enter path to CSV file for predictions: ");
         String dataPath = scanner.nextLine().trim();
-        int batchSize = 32; // Default batch size for prediction
 
-        DataSetIterator predictionDataIterator = DataLoader.loadData(dataPath, batchSize);
+        System.out.print("Enter batch size for prediction (default 1024): ");
+        int batchSize = scanner.hasNextInt() ? scanner.nextInt() : 1024;
+        scanner.nextLine();
 
         // Get output file path from user
         System.out.print("Enter the path for the output CSV file (e.g., predictions.csv): ");
         String outputCsvPath = scanner.nextLine().trim();
 
-        // Make predictions and write to CSV
-        System.out.println("\nGenerating predictions and writing to CSV...");
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputCsvPath))) {
-            // CSV header
-            writer.write("Sample_ID,Predicted_Class,Probability\n");
-
-            int sampleIndex = 0;
-            // Iterate through the DataSetIterator to process data in batches
-            while (predictionDataIterator.hasNext()) {
-                INDArray features = predictionDataIterator.next().getFeatures();
-                INDArray batchPredictions = model.output(features);
-
-                for (int i = 0; i < batchPredictions.rows(); i++) {
-                    double prob = batchPredictions.getDouble(i);
-                    int predictedClass = prob > 0.5 ? 1 : 0;
-                    sampleIndex++;
-
-                    // Write to console
-                    System.out.printf("Sample %d: Predicted Class %d (Probability: %.4f)%n",
-                            sampleIndex, predictedClass, prob);
-
-                    // Write to CSV
-                    writer.write(String.format(Locale.ROOT, "%d,%d,%.4f%n", sampleIndex, predictedClass, prob));
-                }
-            }
-            System.out.println("\nPredictions successfully written to: " + outputCsvPath);
+        System.out.print("Echo every prediction to the console? (y/n, default n): ");
+        String echoChoice = scanner.nextLine().trim().toLowerCase();
+        boolean echo = echoChoice.equals("y") || echoChoice.equals("yes");
 
-        } catch (IOException e) {
-            System.err.println("Error writing predictions to CSV file: " + e.getMessage());
-            throw e;
+        if (!trainedModel.hasNormalizer()) {
+            System.out.println("Warning: this model was saved without its normalizer; fitting one on the prediction data instead.");
         }
 
+        // Make predictions and write to CSV
+        System.out.println("\nGenerating predictions and writing to CSV...");
+        new BatchPredictor(trainedModel, batchSize, echo).predict(dataPath, outputCsvPath);
+        System.out.println("\nPredictions successfully written to: " + outputCsvPath);
+
         System.out.println("\nPrediction process complete.");
     }
+
+    /**
+     * Prediction with an exported compact model, which is scored without ND4J.
+     */
+    private static void predictCompact(Scanner scanner, File modelFile) throws Exception {
+        CompactModel model = CompactModel.load(modelFile);
+        System.out.println("Compact model loaded: " + modelFile.getName());
+
+        System.out.print("Enter path to CSV file for predictions: ");
+        String dataPath = scanner.nextLine().trim();
+
+        System.out.print("Enter the path for the output CSV file (e.g., predictions.csv): ");
+        String outputCsvPath = scanner.nextLine().trim();
+
+        System.out.print("Echo every prediction to the console? (y/n, default n): ");
+        String echoChoice = scanner.nextLine().trim().toLowerCase();
+        boolean echo = echoChoice.equals("y") || echoChoice.equals("yes");
+
+        System.out.println("\nGenerating predictions and writing to CSV...");
+        new CompactPredictor(model, echo).predict(dataPath, outputCsvPath);
+        System.out.println("\nPredictions successfully written to: " + outputCsvPath);
+    }
 }
@@ -0,0 +1,149 @@
+package com.assignment.mlp;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.dataset.AsyncDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+/**
+ * Scores a CSV file with a trained model as a three-stage pipeline:
+ * a prefetch thread parses and normalizes upcoming batches, the calling thread
+ * runs inference, and a writer thread formats and writes the predictions.
+ * Each batch's probabilities are copied out of the output array in one bulk read.
+ */
+public class BatchPredictor {
+    private static final int PREFETCH_BATCHES = 4;           // Parsed batches waiting for inference
+    private static final int OUTPUT_QUEUE_CAPACITY = 16;     // Scored batches waiting to be written
+    private static final int WRITER_BUFFER_SIZE = 1 << 20;   // 1 MiB output buffer
+    private static final double[] END_OF_STREAM = new double[0];
+
+    private final TrainedModel trainedModel;
+    private final int batchSize;
+    private final boolean echoToConsole;
+
+    public BatchPredictor(TrainedModel trainedModel, int batchSize, boolean echoToConsole) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.trainedModel = trainedModel;
+        this.batchSize = batchSize;
+        this.echoToConsole = echoToConsole;
+    }
+
+    /**
+     * Scores every row of the input CSV and writes the predictions to the output CSV.
+     *
+     * @param inputPath  Path to the CSV file to score.
+     * @param outputPath Path of the predictions CSV to create.
+     * @return The number of rows scored.
+     * @throws Exception If reading, inference or writing fails.
+     */
+    public long predict(String inputPath, String outputPath) throws Exception {
+        MultiLayerNetwork model = trainedModel.getNetwork();
+        DataSetIterator source = DataLoader.loadData(inputPath, batchSize, trainedModel.getNormalizer());
+        // Workspaces are off so each prefetched batch stays valid for as long as the pipeline holds it
+        AsyncDataSetIterator prefetched = new AsyncDataSetIterator(source, PREFETCH_BATCHES, false);
+
+        BlockingQueue<double[]> scoredBatches = new ArrayBlockingQueue<>(OUTPUT_QUEUE_CAPACITY);
+        PredictionWriter writer = new PredictionWriter(outputPath, scoredBatches);
+        Thread writerThread = new Thread(writer, "prediction-writer");
+        writerThread.start();
+
+        long startTime = System.nanoTime();
+        long rows = 0;
+        try {
+            while (prefetched.hasNext()) {
+                double[] probabilities = model.output(prefetched.next().getFeatures()).toDoubleVector();
+                rows += probabilities.length;
+                writer.checkFailure();
+                scoredBatches.put(probabilities);
+            }
+        } finally {
+            scoredBatches.put(END_OF_STREAM);
+            writerThread.join();
+            prefetched.shutdown();
+        }
+        writer.checkFailure();
+
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf(Locale.US, "Scored %d rows in %.2f s (%.0f rows/sec)%n",
+                rows, elapsedSeconds, elapsedSeconds > 0 ? rows / elapsedSeconds : 0.0);
+        return rows;
+    }
+
+    /**
+     * Writes scored batches to the predictions CSV until the end-of-stream marker arrives.
+     */
+    private class PredictionWriter implements Runnable {
+        private final String outputPath;
+        private final BlockingQueue<double[]> scoredBatches;
+        private volatile Exception failure;
+        private boolean endOfStreamSeen = false;
+
+        private PredictionWriter(String outputPath, BlockingQueue<double[]> scoredBatches) {
+            this.outputPath = outputPath;
+            this.scoredBatches = scoredBatches;
+        }
+
+        @Override
+        public void run() {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath), WRITER_BUFFER_SIZE)) {
+                writer.write("Sample_ID,Predicted_Class,Probability\n");
+                StringBuilder line = new StringBuilder(64);
+                long sampleIndex = 0;
+                while (true) {
+                    double[] batch = scoredBatches.take();
+                    if (batch == END_OF_STREAM) {
+                        endOfStreamSeen = true;
+                        break;
+                    }
+                    for (double prob : batch) {
+                        int predictedClass = prob > 0.5 ? 1 : 0;
+                        sampleIndex++;
+
+                        line.setLength(0);
+                        line.append(sampleIndex).append(',').append(predictedClass).append(',');
+                        UtilityFunctions.appendFourDecimals(line, prob);
+                        line.append('\n');
+                        writer.append(line);
+
+                        if (echoToConsole) {
+                            System.out.printf("Sample %d: Predicted Class %d (Probability: %.4f)%n",
+                                    sampleIndex, predictedClass, prob);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+                if (!endOfStreamSeen) {
+                    discardUntilEndOfStream(); // Keep the inference stage from blocking until it notices the failure
+                }
+            } catch (InterruptedException e) {
+                failure = e;
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void discardUntilEndOfStream() {
+            try {
+                while (scoredBatches.take() != END_OF_STREAM) {
+                    // Drop scored batches that can no longer be written
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void checkFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Error writing predictions to CSV file: " + failure.getMessage(), failure);
+            }
+        }
+    }
+}
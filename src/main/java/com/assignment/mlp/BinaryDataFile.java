@@ -0,0 +1,336 @@
+package com.assignment.mlp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * A columnar binary copy of a CSV dataset that is read through memory mapping.
+ *
+ * Layout (little-endian):
+ *   header, padded to 4096 bytes:
+ *     int magic "MLPB", int version, int numFeatures, int rowGroupRows, long numRows,
+ *     float[numFeatures] feature means, float[numFeatures] feature standard deviations
+ *   row groups of rowGroupRows rows (the last one may be shorter), each stored column by column:
+ *     float[rows] feature 0, ..., float[rows] feature n-1, float[rows] label
+ *
+ * Features are stored raw, as in the CSV, so a normalizer can be fitted on any subset of the
+ * row groups (for example only the training groups, see fitNormalizer); the header keeps the
+ * statistics of every row for callers that use the whole file. A row group maps directly onto
+ * a column-major ('f' order) ND4J array and every batch is a view of the mapped file: nothing
+ * is parsed, copied or allocated on the heap.
+ * The operating system pages data in and out as needed, so files larger than the heap work.
+ * The file is mapped read-only, so the views must not be written to; code that needs to
+ * modify rows works on a copy.
+ */
+public class BinaryDataFile {
+    public static final String EXTENSION = ".mlpb";
+    public static final int DEFAULT_ROW_GROUP_ROWS = 1 << 16; // Power of two, so common batch sizes never straddle groups
+
+    private static final int MAGIC = 0x4D4C5042; // "MLPB"
+    private static final int VERSION = 2; // Version 1 stored features standardized over every row
+    private static final int HEADER_BYTES = 4096;
+    private static final int CONVERT_READ_BATCH_SIZE = 4096;
+
+    private final String path;
+    private final int numFeatures;
+    private final int rowGroupRows;
+    private final long numRows;
+    private final NormalizerStandardize normalizer;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+
+    private BinaryDataFile(String path, int numFeatures, int rowGroupRows, long numRows, NormalizerStandardize normalizer) {
+        this.path = path;
+        this.numFeatures = numFeatures;
+        this.rowGroupRows = rowGroupRows;
+        this.numRows = numRows;
+        this.normalizer = normalizer;
+    }
+
+    public static boolean isBinary(String filePath) {
+        return filePath.toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Converts a CSV file in the training data format to the binary format in a single pass,
+     * accumulating the feature statistics for the header while the raw row groups are written.
+     *
+     * @param csvPath      The CSV file to convert.
+     * @param outputPath   The binary file to create.
+     * @param rowGroupRows Number of rows per row group.
+     * @return The number of rows written.
+     * @throws Exception If the CSV cannot be read or the output cannot be written.
+     */
+    public static long convert(String csvPath, String outputPath, int rowGroupRows) throws Exception {
+        if (rowGroupRows < 1) {
+            throw new IllegalArgumentException("Row group size must be at least 1: " + rowGroupRows);
+        }
+        DataSetIterator csv = DataLoader.createCsvIterator(DataLoader.resolveFile(csvPath), CONVERT_READ_BATCH_SIZE);
+        Path output = new File(outputPath).toPath();
+        Path partial = output.resolveSibling(output.getFileName() + ".partial");
+        long rowsWritten = 0;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_BYTES);
+            RunningMoments moments = null;
+            float[][] columns = null;
+            int features = 0;
+            int filled = 0;
+            while (csv.hasNext()) {
+                DataSet batch = csv.next();
+                float[][] batchFeatures = batch.getFeatures().toFloatMatrix();
+                float[] batchLabels = batch.getLabels().reshape(batch.numExamples()).toFloatVector();
+                if (moments == null) {
+                    features = batch.getFeatures().columns();
+                    moments = new RunningMoments(features);
+                    columns = new float[features + 1][rowGroupRows];
+                }
+                for (int row = 0; row < batchFeatures.length; row++) {
+                    moments.add(batchFeatures[row]);
+                    for (int f = 0; f < features; f++) {
+                        columns[f][filled] = batchFeatures[row][f];
+                    }
+                    columns[features][filled] = batchLabels[row];
+                    if (++filled == rowGroupRows) {
+                        writeRowGroup(channel, columns, filled);
+                        rowsWritten += filled;
+                        filled = 0;
+                    }
+                }
+            }
+            if (filled > 0) {
+                writeRowGroup(channel, columns, filled);
+                rowsWritten += filled;
+            }
+            if (rowsWritten == 0) {
+                throw new IllegalArgumentException("No data rows found in: " + csvPath);
+            }
+
+            // The header goes in last, so a file without a valid header was never completed
+            NormalizerStandardize fitted = moments.toNormalizer();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(features).putInt(rowGroupRows).putLong(rowsWritten);
+            for (float mean : fitted.getMean().toFloatVector()) {
+                header.putFloat(mean);
+            }
+            for (float std : fitted.getStd().toFloatVector()) {
+                header.putFloat(std);
+            }
+            header.clear();
+            channel.position(0);
+            writeFully(channel, header);
+            channel.force(true);
+        }
+        Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rowsWritten;
+    }
+
+    private static void writeRowGroup(FileChannel channel, float[][] columns, int rows) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(columns.length * rows * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] column : columns) {
+            buffer.asFloatBuffer().put(column, 0, rows);
+            buffer.position(buffer.position() + rows * Float.BYTES);
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Maps a binary dataset file. Mapping only reserves address space; pages are read
+     * from disk when a batch first touches them.
+     *
+     * @param filePath The binary file.
+     * @return The opened file.
+     * @throws IOException If the file cannot be read or is not in this format.
+     */
+    public static BinaryDataFile open(String filePath) throws IOException {
+        if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN) {
+            // Batches are used in place, so the stored byte order must match the platform's
+            throw new IOException("Binary datasets can only be mapped on little-endian platforms");
+        }
+        try (FileChannel channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < 24 || header.getInt() != MAGIC) {
+                throw new IOException("Not a binary dataset file: " + filePath);
+            }
+            int version = header.getInt();
+            if (version == 1) {
+                throw new IOException("Binary dataset " + filePath + " was written by an older version with standardized"
+                        + " features; convert the CSV file again");
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary dataset version " + version + " in " + filePath);
+            }
+            int numFeatures = header.getInt();
+            int rowGroupRows = header.getInt();
+            long numRows = header.getLong();
+            float[] mean = new float[numFeatures];
+            float[] std = new float[numFeatures];
+            for (int f = 0; f < numFeatures; f++) {
+                mean[f] = header.getFloat();
+            }
+            for (int f = 0; f < numFeatures; f++) {
+                std[f] = header.getFloat();
+            }
+            NormalizerStandardize normalizer = new NormalizerStandardize(
+                    Nd4j.create(mean, new long[]{1, numFeatures}), Nd4j.create(std, new long[]{1, numFeatures}));
+
+            BinaryDataFile file = new BinaryDataFile(filePath, numFeatures, rowGroupRows, numRows, normalizer);
+            long expectedSize = HEADER_BYTES + numRows * (numFeatures + 1) * Float.BYTES;
+            if (channel.size() != expectedSize) {
+                throw new IOException("Binary dataset " + filePath + " should be " + expectedSize + " bytes but is " + channel.size());
+            }
+            long offset = HEADER_BYTES;
+            for (long firstRow = 0; firstRow < numRows; firstRow += rowGroupRows) {
+                int rows = (int) Math.min(rowGroupRows, numRows - firstRow);
+                long bytes = (long) rows * (numFeatures + 1) * Float.BYTES;
+                // Mappings stay valid after the channel is closed
+                file.rowGroups.add(new RowGroup(channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes), rows, numFeatures));
+                offset += bytes;
+            }
+            return file;
+        }
+    }
+
+    /**
+     * @param batchSize Rows per batch. Batches never cross row groups, so the last batch of a group may be smaller.
+     * @return An iterator over every row group in file order.
+     */
+    public BinaryDataSetIterator iterator(int batchSize) {
+        int[] allGroups = new int[rowGroups.size()];
+        for (int g = 0; g < allGroups.length; g++) {
+            allGroups[g] = g;
+        }
+        return new BinaryDataSetIterator(this, allGroups, batchSize, null);
+    }
+
+    /**
+     * @param batchSize Rows per batch.
+     * @param groups    The row groups to visit.
+     * @param shuffle   If not null, the order of the row groups is reshuffled with it on every reset.
+     * @return An iterator over the given row groups.
+     */
+    public BinaryDataSetIterator iterator(int batchSize, int[] groups, Random shuffle) {
+        return new BinaryDataSetIterator(this, groups, batchSize, shuffle);
+    }
+
+    /**
+     * Copies every row onto the heap, giving the same raw features and labels as parsing the original CSV.
+     */
+    public DataSet readAllRaw() {
+        List<DataSet> groups = new ArrayList<>(rowGroups.size());
+        for (RowGroup group : rowGroups) {
+            groups.add(new DataSet(group.features.dup('c'), group.labels.dup('c')));
+        }
+        return groups.size() == 1 ? groups.get(0) : DataSet.merge(groups);
+    }
+
+    /**
+     * Fits a standardizing normalizer on the given row groups only, in one streaming pass,
+     * so statistics of held-out groups do not leak into training.
+     *
+     * @param groups The row groups to fit on.
+     * @return The fitted normalizer.
+     */
+    public NormalizerStandardize fitNormalizer(int[] groups) {
+        RunningMoments moments = new RunningMoments(numFeatures);
+        for (int group : groups) {
+            for (float[] row : groupFeatures(group).toFloatMatrix()) {
+                moments.add(row);
+            }
+        }
+        return moments.toNormalizer();
+    }
+
+    INDArray groupFeatures(int group) {
+        return rowGroups.get(group).features;
+    }
+
+    INDArray groupLabels(int group) {
+        return rowGroups.get(group).labels;
+    }
+
+    int groupRows(int group) {
+        return rowGroups.get(group).rows;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    public int getRowGroupRows() {
+        return rowGroupRows;
+    }
+
+    public int numRowGroups() {
+        return rowGroups.size();
+    }
+
+    public long numRows() {
+        return numRows;
+    }
+
+    /**
+     * @return A normalizer with the statistics of every row in the file.
+     */
+    public NormalizerStandardize getNormalizer() {
+        return normalizer;
+    }
+
+    /**
+     * One read-only mapped row group, wrapped as ND4J arrays without copying.
+     */
+    private static class RowGroup {
+        private final MappedByteBuffer mapping; // Strong reference: the arrays below point into this memory
+        private final FloatPointer pointer;
+        private final INDArray features;
+        private final INDArray labels;
+        private final int rows;
+
+        private RowGroup(MappedByteBuffer mapping, int rows, int numFeatures) {
+            this.mapping = mapping;
+            this.rows = rows;
+            mapping.order(ByteOrder.LITTLE_ENDIAN);
+            this.pointer = new FloatPointer(mapping.asFloatBuffer());
+            long length = (long) rows * (numFeatures + 1);
+            DataBuffer buffer = Nd4j.createBuffer(pointer, DataType.FLOAT, length, FloatIndexer.create(pointer));
+            // Column-major: element (row, column) sits at row + column * rows
+            this.features = Nd4j.create(buffer, new long[]{rows, numFeatures}, new long[]{1, rows}, 0, 'f', DataType.FLOAT);
+            this.labels = Nd4j.create(buffer, new long[]{rows, 1}, new long[]{1, rows}, (long) numFeatures * rows, 'f', DataType.FLOAT);
+        }
+    }
+}
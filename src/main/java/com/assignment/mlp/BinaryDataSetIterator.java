@@ -0,0 +1,143 @@
+package com.assignment.mlp;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+/**
+ * Iterates over row groups of a memory-mapped binary dataset. Each batch is a read-only
+ * view of the mapped file, so without a pre-processor nothing is copied. With a pre-processor
+ * the batch is copied first, since pre-processors modify their input in place.
+ */
+public class BinaryDataSetIterator implements DataSetIterator {
+    private final BinaryDataFile file;
+    private final int[] groups;
+    private final int batchSize;
+    private final Random shuffle;
+    private DataSetPreProcessor preProcessor;
+    private int groupIndex = 0;
+    private int cursor = 0;
+
+    BinaryDataSetIterator(BinaryDataFile file, int[] groups, int batchSize, Random shuffle) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.file = file;
+        this.groups = groups.clone();
+        this.batchSize = batchSize;
+        this.shuffle = shuffle;
+        shuffleGroups();
+    }
+
+    private void shuffleGroups() {
+        if (shuffle == null) {
+            return;
+        }
+        for (int i = groups.length - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int swap = groups[i];
+            groups[i] = groups[j];
+            groups[j] = swap;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return groupIndex < groups.length;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public DataSet next(int num) {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more batches available");
+        }
+        int group = groups[groupIndex];
+        int groupRows = file.groupRows(group);
+        int end = Math.min(cursor + num, groupRows);
+        INDArray featureView = file.groupFeatures(group).get(NDArrayIndex.interval(cursor, end), NDArrayIndex.all());
+        INDArray labelView = file.groupLabels(group).get(NDArrayIndex.interval(cursor, end), NDArrayIndex.all());
+
+        cursor = end;
+        if (cursor == groupRows) {
+            groupIndex++;
+            cursor = 0;
+        }
+
+        if (preProcessor == null) {
+            return new DataSet(featureView, labelView);
+        }
+        DataSet batch = new DataSet(featureView.dup(), labelView.dup());
+        preProcessor.preProcess(batch);
+        return batch;
+    }
+
+    /**
+     * @return The number of rows this iterator visits per pass.
+     */
+    public long numExamples() {
+        long rows = 0;
+        for (int group : groups) {
+            rows += file.groupRows(group);
+        }
+        return rows;
+    }
+
+    @Override
+    public int inputColumns() {
+        return file.numFeatures();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return 1;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        // Batches are views of the mapping; the page cache already reads ahead
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        groupIndex = 0;
+        cursor = 0;
+        shuffleGroups();
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+}
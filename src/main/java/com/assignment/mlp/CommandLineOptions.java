@@ -0,0 +1,291 @@
+package com.assignment.mlp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.shade.jackson.core.type.TypeReference;
+import org.nd4j.shade.jackson.databind.ObjectMapper;
+import org.nd4j.shade.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Options for the non-interactive command mode. Values come from an optional
+ * YAML or JSON config file (--config) and from --flags, with flags taking precedence.
+ * Flags are written in kebab case (--learning-rate) and config keys in camel case
+ * (learningRate), matching the fields of UserInput and HyperparameterConfig.
+ */
+public class CommandLineOptions {
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * @param args The arguments following the subcommand.
+     * @throws IOException If the config file cannot be read.
+     */
+    public CommandLineOptions(String[] args) throws IOException {
+        Map<String, String> flags = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = toCamelCase(args[i].substring(2));
+            // A flag followed by another flag (or nothing) is a boolean switch
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            flags.put(key, hasValue ? args[++i] : "true");
+        }
+
+        if (flags.containsKey("config")) {
+            values.putAll(readConfigFile(new File(flags.get("config"))));
+        }
+        values.putAll(flags);
+    }
+
+    private static Map<String, String> readConfigFile(File configFile) throws IOException {
+        if (!configFile.exists()) {
+            throw new IllegalArgumentException("Config file not found: " + configFile.getAbsolutePath());
+        }
+        String name = configFile.getName().toLowerCase(Locale.ROOT);
+        ObjectMapper mapper = name.endsWith(".yaml") || name.endsWith(".yml")
+                ? new ObjectMapper(new YAMLFactory())
+                : new ObjectMapper();
+        Map<String, Object> raw = mapper.readValue(configFile, new TypeReference<Map<String, Object>>() {});
+
+        Map<String, String> config = new HashMap<>();
+        for (Map.Entry<String, Object> entry : raw.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof List<?> list) {
+                // Lists such as layers: [256, 128, 64] use the same comma form as the flags
+                StringBuilder joined = new StringBuilder();
+                for (Object item : list) {
+                    if (joined.length() > 0) {
+                        joined.append(',');
+                    }
+                    joined.append(item);
+                }
+                config.put(entry.getKey(), joined.toString());
+            } else if (value != null) {
+                config.put(entry.getKey(), value.toString());
+            }
+        }
+        return config;
+    }
+
+    private static String toCamelCase(String kebab) {
+        StringBuilder camel = new StringBuilder();
+        boolean upperNext = false;
+        for (char c : kebab.toCharArray()) {
+            if (c == '-') {
+                upperNext = true;
+            } else {
+                camel.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return camel.toString();
+    }
+
+    public boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public String require(String key) {
+        String value = values.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing required option: " + key);
+        }
+        return value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return has(key) ? Integer.parseInt(values.get(key).trim()) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return has(key) ? Long.parseLong(values.get(key).trim()) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return has(key) ? Double.parseDouble(values.get(key).trim()) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return has(key) ? Boolean.parseBoolean(values.get(key).trim()) : defaultValue;
+    }
+
+    public int[] getIntArray(String key, int[] defaultValue) {
+        if (!has(key)) {
+            return defaultValue;
+        }
+        String[] parts = values.get(key).split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+
+    public double[] getDoubleArray(String key, double[] defaultValue) {
+        if (!has(key)) {
+            return defaultValue;
+        }
+        String[] parts = values.get(key).split(",");
+        double[] result = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Double.parseDouble(parts[i].trim());
+        }
+        return result;
+    }
+
+    /**
+     * Reads a shard written as {@code k/n}, such as {@code 2/4}, numbered from 1.
+     *
+     * @return The shard and the number of shards, or null if the option is absent.
+     */
+    public int[] getShard(String key) {
+        if (!has(key)) {
+            return null;
+        }
+        String[] parts = values.get(key).split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected k/n for " + key + " but got " + values.get(key));
+        }
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    /**
+     * Reads a range written as {@code min:max}, such as {@code 1e-4:1e-2}.
+     */
+    public double[] getRange(String key, double defaultMin, double defaultMax) {
+        if (!has(key)) {
+            return new double[]{defaultMin, defaultMax};
+        }
+        String[] parts = values.get(key).split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected min:max for " + key + " but got " + values.get(key));
+        }
+        return new double[]{Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())};
+    }
+
+    /**
+     * Reads a model precision, accepting ND4J's names (FLOAT, HALF or FLOAT16, BFLOAT16)
+     * and the short forms fp32, fp16 and bf16.
+     */
+    public DataType getDataType(String key, DataType defaultValue) {
+        if (!has(key)) {
+            return defaultValue;
+        }
+        return parseDataType(values.get(key));
+    }
+
+    public static DataType parseDataType(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "fp32", "float", "float32" -> DataType.FLOAT;
+            case "fp16", "half", "float16" -> DataType.FLOAT16;
+            case "bf16", "bfloat16" -> DataType.BFLOAT16;
+            default -> throw new IllegalArgumentException("Unknown data type: " + name
+                    + " (expected fp32, fp16 or bf16)");
+        };
+    }
+
+    /**
+     * Builds training parameters using the same defaults as the interactive prompts.
+     */
+    public UserInput toUserInput() {
+        return new UserInput(
+                require("data"),
+                getLong("seed", 527),
+                getInt("batchSize", 128),
+                getDouble("learningRate", 0.0005),
+                getInt("epochs", 150),
+                LayerSpec.parseList(getString("layers", "64,64,64")),
+                Activation.valueOf(getString("activation", "TANH").toUpperCase(Locale.ROOT)),
+                WeightInit.valueOf(getString("weightInit", "XAVIER").toUpperCase(Locale.ROOT)));
+    }
+
+    public SplitConfig toSplitConfig(long seed) {
+        int folds = getInt("folds", 1);
+        double validationFraction = getDouble("validationFraction", folds > 1 ? 0 : 0.2);
+        return new SplitConfig(validationFraction, getDouble("testFraction", 0.1), folds,
+                getBoolean("stratified", true), seed);
+    }
+
+    /**
+     * Builds the ranges for the random and TPE searches, defaulting to {@link SearchSpace#defaults()}.
+     */
+    public SearchSpace toSearchSpace() {
+        double[] learningRate = getRange("learningRateRange", 1e-4, 1e-2);
+        double[] width = getRange("widthRange", 16, 256);
+        double[] depth = getRange("depthRange", 1, 4);
+        List<Activation> activations = new ArrayList<>();
+        for (String name : getString("activations", "RELU,SWISH,LEAKYRELU,TANH").split(",")) {
+            activations.add(Activation.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+        List<WeightInit> weightInits = new ArrayList<>();
+        for (String name : getString("weightInits", "XAVIER").split(",")) {
+            weightInits.add(WeightInit.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+        return new SearchSpace(learningRate[0], learningRate[1], (int) width[0], (int) width[1],
+                (int) depth[0], (int) depth[1],
+                getIntArray("batchSizes", new int[]{32, 64, 128}),
+                getIntArray("epochsChoices", new int[]{50, 100, 150}),
+                activations, weightInits);
+    }
+
+    /**
+     * Builds the grid searched by the grid strategy, defaulting to {@link GridSpace#defaults()}
+     * for every list not given. Layer shapes come either from --layer-shapes, separated by
+     * semicolons, or from every sequence of --widths with a depth in --depth-range.
+     */
+    public GridSpace toGridSpace() {
+        GridSpace defaults = GridSpace.defaults();
+        List<List<LayerSpec>> layerShapes = defaults.getLayerShapes();
+        if (has("widths")) {
+            double[] depth = getRange("depthRange", 1, 3);
+            layerShapes = GridSpace.widthSequences(getIntArray("widths", null), (int) depth[0], (int) depth[1]);
+        } else if (has("layerShapes")) {
+            layerShapes = new ArrayList<>();
+            for (String shape : getString("layerShapes", null).split(";")) {
+                layerShapes.add(LayerSpec.parseList(shape.trim()));
+            }
+        }
+        List<Activation> activations = defaults.getActivations();
+        if (has("activations")) {
+            activations = new ArrayList<>();
+            for (String name : getString("activations", null).split(",")) {
+                activations.add(Activation.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        List<WeightInit> weightInits = defaults.getWeightInits();
+        if (has("weightInits")) {
+            weightInits = new ArrayList<>();
+            for (String name : getString("weightInits", null).split(",")) {
+                weightInits.add(WeightInit.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return restrictGrid(new GridSpace(getDoubleArray("learningRates", defaults.getLearningRates()),
+                getIntArray("batchSizes", defaults.getBatchSizes()), layerShapes, activations, weightInits,
+                getIntArray("epochsChoices", defaults.getEpochs())));
+    }
+
+    private GridSpace restrictGrid(GridSpace space) {
+        if (getBoolean("funnel", false)) {
+            space = space.filter(GridSpace.nonIncreasingWidths());
+        }
+        int[] shard = getShard("shard");
+        return shard != null ? space.shard(shard[0], shard[1]) : space;
+    }
+
+    public WorkerLayout.Strategy toLayoutStrategy() {
+        return WorkerLayout.Strategy.valueOf(getString("layout", "AUTO").toUpperCase(Locale.ROOT));
+    }
+}
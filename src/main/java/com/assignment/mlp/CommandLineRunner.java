@@ -0,0 +1,510 @@
+package com.assignment.mlp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.evaluation.classification.Evaluation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.shade.jackson.databind.ObjectMapper;
+
+/**
+ * Non-interactive entry point: {@code <command> [--config file.yaml|json] [--flags]}.
+ * Every command ends by printing one JSON line with its timings (and writing it to
+ * --timing-output if given), so runs can be scheduled and compared automatically.
+ */
+public class CommandLineRunner {
+    private static final String USAGE = String.join("\n",
+            "Usage: <command> [--config file.yaml|file.json] [options]",
+            "Commands:",
+            "  train    --data <csv> [--seed --learning-rate --batch-size --epochs --layers 64,64,64",
+            "           --activation --weight-init --validation-fraction --test-fraction --save <model.zip>",
+            "           --stream [--shuffle-buffer 65536 --prefetch 4] --save-dtype fp32|fp16|bf16",
+            "           --data-parallel [replicas, default all cores] --averaging-frequency 4]",
+            "           (--data may be a directory or glob with --stream)",
+            "  grid     --data <csv> [--search grid|halving|random|tpe --seed --layout auto|single_threaded|multi_threaded",
+            "           --folds --validation-fraction --test-fraction --resume --min-epochs --reduction-factor",
+            "           --trials <n> --time-budget <seconds> --startup-trials 10 --learning-rate-range 1e-4:1e-2",
+            "           --width-range 16:256 --depth-range 1:4 --batch-sizes 32,64,128 --epochs-choices 50,100,150",
+            "           --activations relu,swish,leakyrelu,tanh --weight-inits xavier",
+            "           --learning-rates 0.0005 --layer-shapes \"256,128,64;128,64\" | --widths 32,64,128 --funnel --shard k/n]",
+            "  coordinator --data <csv> [--port 7070 --bind 127.0.0.1 --lease-timeout 60 and the grid options]",
+            "  worker   --coordinator <host:port> [--data <csv on this host> --layout auto|single_threaded|multi_threaded]",
+            "  convert  --data <csv> --output <file.mlpb> [--row-group-rows 65536]",
+            "  export   --model <model.zip> --output <model.mlpc> [--quantize --compare <csv> --batch-size 1024]",
+            "  predict  --model <model.zip|model.mlpc> --input <csv> --output <csv> [--batch-size 1024 --echo --dtype fp32|fp16|bf16]",
+            "  bench    --data <csv> [training options] [--repeat 3 --inference-batch-size --precisions fp32,fp16,bf16",
+            "           --data-parallel 1,2,4 --averaging-frequency 4]",
+            "  serve    --model <model.zip> [--port 8080 --replicas <cores> --max-batch-size 64 --max-wait-micros 1000 --dtype",
+            "           --virtual-threads true --stats-interval 10 --duration <seconds, default until stopped>]",
+            "All commands accept --timing-output <file> to also write the timing JSON to a file, and --metrics-port <port>",
+            "and/or --metrics-csv <file> [--metrics-interval 10] to publish training metrics while they run.");
+
+    /**
+     * Runs one command.
+     *
+     * @param args The command followed by its options.
+     * @return The process exit code: 0 on success, 1 on failure, 2 on a usage error.
+     */
+    public static int run(String[] args) {
+        if (args.length == 0 || args[0].equals("help") || args[0].equals("--help")) {
+            System.out.println(USAGE);
+            return args.length == 0 ? 2 : 0;
+        }
+
+        String command = args[0];
+        try {
+            CommandLineOptions options = new CommandLineOptions(Arrays.copyOfRange(args, 1, args.length));
+            long startTime = System.currentTimeMillis();
+            Map<String, Object> timing = new LinkedHashMap<>();
+            timing.put("command", command);
+
+            try (MetricsExporter metrics = MetricsExporter.fromOptions(options)) {
+                switch (command) {
+                    case "train" -> train(options, timing);
+                    case "grid" -> grid(options, timing);
+                    case "coordinator" -> coordinator(options, timing);
+                    case "worker" -> worker(options, timing);
+                    case "convert" -> convert(options, timing);
+                    case "export" -> export(options, timing);
+                    case "predict" -> predict(options, timing);
+                    case "bench" -> bench(options, timing);
+                    case "serve" -> serve(options, timing);
+                    default -> {
+                        System.err.println("Unknown command: " + command);
+                        System.err.println(USAGE);
+                        return 2;
+                    }
+                }
+            }
+
+            timing.put("totalMs", System.currentTimeMillis() - startTime);
+            emitTiming(timing, options);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        } catch (Exception e) {
+            System.err.println("Command '" + command + "' failed: " + e.getMessage());
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    private static void train(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        UserInput input = options.toUserInput();
+        SplitConfig splitConfig = options.toSplitConfig(input.getSeed());
+        int replicas = options.getString("dataParallel", "1").equals("true")
+                ? Runtime.getRuntime().availableProcessors() : options.getInt("dataParallel", 1);
+        if (replicas > 1 && options.getBoolean("stream", false)) {
+            throw new IllegalArgumentException("--data-parallel does not apply to --stream");
+        }
+        TrainingRun run = options.getBoolean("stream", false)
+                ? StreamingTrainer.train(input, splitConfig, options.getInt("shuffleBuffer", 65536),
+                        options.getInt("prefetch", 4), false)
+                : ModelTrainer.train(input, splitConfig, false, replicas, options.getInt("averagingFrequency", 4));
+        timing.put("replicas", replicas);
+
+        System.out.println(run.getValidationEvaluation().stats());
+        putRunTimings(timing, run, input.getEpochs());
+        timing.put("validationAccuracy", run.getValidationEvaluation().accuracy());
+        timing.put("validationF1", run.getValidationEvaluation().f1());
+        if (run.getTestEvaluation() != null) {
+            timing.put("testAccuracy", run.getTestEvaluation().accuracy());
+            timing.put("testF1", run.getTestEvaluation().f1());
+        }
+
+        if (options.has("save")) {
+            File modelFile = new File(options.getString("save", null));
+            TrainedModel trainedModel = run.getTrainedModel();
+            TrainedModel saved = trainedModel.withDataType(options.getDataType("saveDtype", trainedModel.getDataType()));
+            saved.save(modelFile, saved == trainedModel); // A converted copy is for inference only, so has no updater state
+            System.out.println("Model saved to: " + modelFile.getAbsolutePath() + " (" + saved.getDataType() + ")");
+        }
+    }
+
+    private static void grid(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        String dataPath = options.require("data");
+        long baseSeed = options.getLong("seed", 527);
+        SplitConfig splitConfig = options.toSplitConfig(baseSeed);
+        String search = options.getString("search", "grid");
+        timing.put("search", search);
+
+        if (search.equals("halving")) {
+            if (options.has("shard")) {
+                throw new IllegalArgumentException("--shard splits a grid search; successive halving ranks every configuration together");
+            }
+            new SuccessiveHalvingSearch(dataPath, baseSeed, options.toLayoutStrategy(),
+                    options.getInt("minEpochs", 10), options.getInt("reductionFactor", 3), splitConfig,
+                    options.toGridSpace(), new File(SuccessiveHalvingSearch.RESULTS_FILE_NAME)).execute();
+            return;
+        }
+        SearchStrategy strategy = toSearchStrategy(options, search, baseSeed);
+        int maxTrials = options.getInt("trials", 0);
+        long timeBudgetMillis = (long) (options.getDouble("timeBudget", 0) * 1000);
+        timing.put("maxTrials", maxTrials);
+        timing.put("timeBudgetMs", timeBudgetMillis);
+        new GridSearchExecutor(dataPath, baseSeed, options.toLayoutStrategy(), options.getBoolean("resume", false),
+                splitConfig, strategy, maxTrials, timeBudgetMillis).execute();
+    }
+
+    private static SearchStrategy toSearchStrategy(CommandLineOptions options, String search, long baseSeed) {
+        return switch (search) {
+            case "grid" -> {
+                int[] shard = options.getShard("shard");
+                // Shards keep separate results and ledger files, so they may share a directory
+                yield new GridSearchStrategy(options.toGridSpace(),
+                        shard != null ? "grid_shard" + shard[0] + "of" + shard[1] : "grid");
+            }
+            case "random" -> new RandomSearchStrategy(options.toSearchSpace(), baseSeed);
+            case "tpe" -> new TpeSearchStrategy(options.toSearchSpace(), options.getInt("startupTrials", 10), baseSeed);
+            default -> throw new IllegalArgumentException("Unknown search: " + search
+                    + " (expected grid, halving, random or tpe)");
+        };
+    }
+
+    /**
+     * Serves the trials of a grid, random or TPE search to worker processes until all are done.
+     */
+    private static void coordinator(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        String dataPath = options.require("data");
+        long baseSeed = options.getLong("seed", 527);
+        String search = options.getString("search", "grid");
+        int maxTrials = options.getInt("trials", 0);
+        long timeBudgetMillis = (long) (options.getDouble("timeBudget", 0) * 1000);
+        timing.put("search", search);
+        try (SearchCoordinator coordinator = new SearchCoordinator(options.getString("bind", "127.0.0.1"),
+                options.getInt("port", 7070), dataPath, baseSeed, options.toSplitConfig(baseSeed),
+                toSearchStrategy(options, search, baseSeed), maxTrials, timeBudgetMillis,
+                options.getBoolean("resume", false), (long) (options.getDouble("leaseTimeout", 60) * 1000))) {
+            coordinator.run();
+        }
+    }
+
+    private static void worker(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        String address = options.require("coordinator");
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Expected --coordinator host:port but got " + address);
+        }
+        int trials = new SearchWorker(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)),
+                options.getString("data", null), options.toLayoutStrategy()).run();
+        timing.put("trials", trials);
+    }
+
+    private static void convert(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        String output = options.require("output");
+        if (!BinaryDataFile.isBinary(output)) {
+            throw new IllegalArgumentException("The output file name must end in " + BinaryDataFile.EXTENSION);
+        }
+        long rows = BinaryDataFile.convert(options.require("data"), output,
+                options.getInt("rowGroupRows", BinaryDataFile.DEFAULT_ROW_GROUP_ROWS));
+        System.out.println("Converted " + rows + " rows to " + new File(output).getAbsolutePath());
+        timing.put("rows", rows);
+    }
+
+    /**
+     * Writes the compact inference artifact of a saved model and, with --compare, scores a
+     * labelled file with both to report the accuracy change and the speedup.
+     */
+    private static void export(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        File modelFile = new File(options.require("model"));
+        if (!modelFile.exists()) {
+            throw new IllegalArgumentException("Model file not found: " + modelFile.getAbsolutePath());
+        }
+        File output = new File(options.require("output"));
+        if (!CompactModel.isCompact(output.getName())) {
+            throw new IllegalArgumentException("The output file name must end in " + CompactModel.EXTENSION);
+        }
+        boolean quantize = options.getBoolean("quantize", false);
+
+        TrainedModel trainedModel = TrainedModel.load(modelFile, false);
+        CompactModelExporter.export(trainedModel).save(output, quantize);
+        System.out.printf(Locale.ROOT, "Exported %s to %s (%s, %d bytes, was %d bytes)%n", modelFile.getName(),
+                output.getAbsolutePath(), quantize ? "int8" : "float32", output.length(), modelFile.length());
+        timing.put("weights", quantize ? "int8" : "float32");
+        timing.put("modelBytes", modelFile.length());
+        timing.put("compactBytes", output.length());
+
+        if (options.has("compare")) {
+            // Compare against the file as written, so quantization error is included
+            Map<String, Object> comparison = CompactModelExporter.compare(trainedModel, CompactModel.load(output),
+                    options.getString("compare", null), options.getInt("batchSize", 1024));
+            System.out.printf(Locale.ROOT, "Accuracy %.4f -> %.4f, agreement %.4f, single row %.1f us -> %.1f us (%.1fx)%n",
+                    comparison.get("originalAccuracy"), comparison.get("compactAccuracy"), comparison.get("agreement"),
+                    comparison.get("originalSingleRowMicros"), comparison.get("compactSingleRowMicros"),
+                    comparison.get("singleRowSpeedup"));
+            timing.put("comparison", comparison);
+        }
+    }
+
+    private static void predict(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        File modelFile = new File(options.require("model"));
+        if (!modelFile.exists()) {
+            throw new IllegalArgumentException("Model file not found: " + modelFile.getAbsolutePath());
+        }
+        if (CompactModel.isCompact(modelFile.getName())) {
+            predictCompact(modelFile, options, timing);
+            return;
+        }
+
+        long loadStart = System.currentTimeMillis();
+        TrainedModel trainedModel = TrainedModel.load(modelFile, false); // Inference only, so skip the updater
+        trainedModel = trainedModel.withDataType(options.getDataType("dtype", trainedModel.getDataType()));
+        timing.put("modelLoadMs", System.currentTimeMillis() - loadStart);
+        timing.put("dataType", trainedModel.getDataType().name());
+
+        long predictStart = System.currentTimeMillis();
+        long rows = new BatchPredictor(trainedModel, options.getInt("batchSize", 1024), options.getBoolean("echo", false))
+                .predict(options.require("input"), options.require("output"));
+        long predictMillis = System.currentTimeMillis() - predictStart;
+        timing.put("predictMs", predictMillis);
+        timing.put("rows", rows);
+        timing.put("rowsPerSec", predictMillis > 0 ? rows * 1000.0 / predictMillis : 0.0);
+    }
+
+    private static void predictCompact(File modelFile, CommandLineOptions options, Map<String, Object> timing)
+            throws Exception {
+        long loadStart = System.currentTimeMillis();
+        CompactModel model = CompactModel.load(modelFile);
+        timing.put("modelLoadMs", System.currentTimeMillis() - loadStart);
+        timing.put("dataType", "compact");
+
+        long predictStart = System.currentTimeMillis();
+        long rows = new CompactPredictor(model, options.getBoolean("echo", false))
+                .predict(options.require("input"), options.require("output"));
+        long predictMillis = System.currentTimeMillis() - predictStart;
+        timing.put("predictMs", predictMillis);
+        timing.put("rows", rows);
+        timing.put("rowsPerSec", predictMillis > 0 ? rows * 1000.0 / predictMillis : 0.0);
+    }
+
+    /**
+     * Repeats a full training run and measures inference throughput, reporting the
+     * minimum, mean and maximum of every phase.
+     */
+    private static void bench(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        UserInput input = options.toUserInput();
+        SplitConfig splitConfig = options.toSplitConfig(input.getSeed());
+        int repeat = options.getInt("repeat", 3);
+        int inferenceBatchSize = options.getInt("inferenceBatchSize", input.getBatchSize());
+        if (repeat < 1) {
+            throw new IllegalArgumentException("Repeat must be at least 1: " + repeat);
+        }
+
+        long[] loadMillis = new long[repeat];
+        long[] trainingMillis = new long[repeat];
+        long[] evaluationMillis = new long[repeat];
+        double[] trainSamplesPerSec = new double[repeat];
+        double[] inferenceRowsPerSec = new double[repeat];
+        InMemoryDataSet inferenceData = DataLoader.loadInMemory(input.getDataPath());
+
+        TrainingRun run = null;
+        for (int r = 0; r < repeat; r++) {
+            run = ModelTrainer.train(input, splitConfig, false);
+            loadMillis[r] = run.getLoadMillis();
+            trainingMillis[r] = run.getTrainingMillis();
+            evaluationMillis[r] = run.getEvaluationMillis();
+            trainSamplesPerSec[r] = run.getTrainingMillis() > 0
+                    ? (double) run.getTrainingExamples() * input.getEpochs() * 1000 / run.getTrainingMillis() : 0;
+            inferenceRowsPerSec[r] = measureInference(run.getTrainedModel().getNetwork(), inferenceData, inferenceBatchSize);
+            System.out.printf("Repetition %d/%d: train %d ms, %.0f inference rows/sec%n",
+                    r + 1, repeat, trainingMillis[r], inferenceRowsPerSec[r]);
+        }
+
+        timing.put("repeat", repeat);
+        timing.put("epochs", input.getEpochs());
+        timing.put("batchSize", input.getBatchSize());
+        timing.put("trainingExamples", run.getTrainingExamples());
+        timing.put("loadMs", summarize(Arrays.stream(loadMillis).asDoubleStream().toArray()));
+        timing.put("trainMs", summarize(Arrays.stream(trainingMillis).asDoubleStream().toArray()));
+        timing.put("evaluationMs", summarize(Arrays.stream(evaluationMillis).asDoubleStream().toArray()));
+        timing.put("trainSamplesPerSec", summarize(trainSamplesPerSec));
+        timing.put("inferenceBatchSize", inferenceBatchSize);
+        timing.put("inferenceRowsPerSec", summarize(inferenceRowsPerSec));
+        timing.put("validationF1", run.getValidationEvaluation().f1());
+
+        if (options.has("precisions")) {
+            timing.put("precisions", comparePrecisions(run.getTrainedModel(), options.getString("precisions", null),
+                    DataLoader.loadSplits(input.getDataPath(), splitConfig).getValidation(), inferenceData, inferenceBatchSize));
+        }
+        if (options.has("dataParallel")) {
+            timing.put("dataParallel", compareDataParallel(input, splitConfig,
+                    options.getIntArray("dataParallel", null), options.getInt("averagingFrequency", 4), repeat));
+        }
+    }
+
+    /**
+     * Trains the same model with each number of data-parallel replicas and reports the speedup
+     * and scaling efficiency (speedup divided by replicas) over the single-threaded baseline,
+     * which trains the network directly on one native thread. Each replica also gets one native
+     * thread, so n replicas use n cores.
+     */
+    private static List<Map<String, Object>> compareDataParallel(UserInput input, SplitConfig splitConfig,
+                                                                 int[] replicaCounts, int averagingFrequency,
+                                                                 int repeat) throws Exception {
+        System.out.println("Data-parallel scaling on " + Runtime.getRuntime().availableProcessors()
+                + " available processors, averaging every " + averagingFrequency + " batches:");
+        double baselineMillis = 0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (WorkerLayout.ThreadLimits previousLimits = WorkerLayout.singleThreaded(1).apply()) {
+            for (int replicas : IntStream.concat(IntStream.of(1), Arrays.stream(replicaCounts).filter(n -> n != 1)).toArray()) {
+                if (replicas < 1) {
+                    throw new IllegalArgumentException("Replica counts must be at least 1: " + replicas);
+                }
+                double millis = 0;
+                TrainingRun run = null;
+                for (int r = 0; r < repeat; r++) {
+                    run = ModelTrainer.train(input, splitConfig, false, replicas, averagingFrequency);
+                    millis += (double) run.getTrainingMillis() / repeat;
+                }
+                if (replicas == 1) {
+                    baselineMillis = millis;
+                }
+                double speedup = millis > 0 ? baselineMillis / millis : 0;
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("replicas", replicas);
+                row.put("trainMs", millis);
+                row.put("trainSamplesPerSec", millis > 0 ? run.getTrainingExamples() * input.getEpochs() * 1000 / millis : 0);
+                row.put("speedup", speedup);
+                row.put("efficiency", speedup / replicas);
+                row.put("validationF1", run.getValidationEvaluation().f1());
+                rows.add(row);
+                System.out.printf(Locale.US, "  %2d replica(s): train %.0f ms, %.0f samples/sec, speedup %.2fx, "
+                                + "efficiency %.0f%%, validation F1 %.4f%n", replicas, millis, row.get("trainSamplesPerSec"),
+                        speedup, 100 * speedup / replicas, run.getValidationEvaluation().f1());
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Converts the trained model to each requested type and measures its inference throughput
+     * on the whole file and its accuracy on the same validation rows as the training run.
+     */
+    private static Map<String, Object> comparePrecisions(TrainedModel trainedModel, String precisions,
+                                                         InMemoryDataSet validation, InMemoryDataSet inferenceData,
+                                                         int batchSize) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String name : precisions.split(",")) {
+            DataType dataType = CommandLineOptions.parseDataType(name);
+            MultiLayerNetwork network = trainedModel.withDataType(dataType).getNetwork();
+            InMemoryDataSet typedData = inferenceData.castTo(dataType);
+            measureInference(network, typedData, batchSize); // Warm-up, so each type is timed with compiled kernels
+            double rowsPerSec = measureInference(network, typedData, batchSize);
+            Evaluation eval = network.evaluate(validation.castTo(dataType).iterator(batchSize));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("inferenceRowsPerSec", rowsPerSec);
+            result.put("validationAccuracy", eval.accuracy());
+            result.put("validationF1", eval.f1());
+            result.put("paramBytes", network.params().length() * dataType.width());
+            results.put(dataType.name(), result);
+            System.out.printf(Locale.ROOT, "%-8s %12.0f inference rows/sec, validation accuracy %.4f, F1 %.4f%n",
+                    dataType, rowsPerSec, eval.accuracy(), eval.f1());
+        }
+        return results;
+    }
+
+    /**
+     * Serves the model over HTTP on localhost, printing the statistics every few seconds,
+     * until the duration has passed or the process is stopped.
+     */
+    private static void serve(CommandLineOptions options, Map<String, Object> timing) throws Exception {
+        File modelFile = new File(options.require("model"));
+        if (!modelFile.exists()) {
+            throw new IllegalArgumentException("Model file not found: " + modelFile.getAbsolutePath());
+        }
+        long durationSeconds = options.getLong("duration", 0);
+        long statsIntervalMillis = options.getLong("statsInterval", 10) * 1000;
+        if (statsIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Stats interval must be positive");
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int replicas = options.getInt("replicas", cores);
+        if (replicas < 1) {
+            throw new IllegalArgumentException("Replicas must be at least 1: " + replicas);
+        }
+        // Give each replica its share of the cores so parallel batches do not oversubscribe them
+        WorkerLayout layout = new WorkerLayout(WorkerLayout.Strategy.MULTI_THREADED, replicas, Math.max(1, cores / replicas));
+
+        TrainedModel trainedModel = TrainedModel.load(modelFile, false); // Serving never trains, so skip the updater
+        trainedModel = trainedModel.withDataType(options.getDataType("dtype", trainedModel.getDataType()));
+        try (WorkerLayout.ThreadLimits previousLimits = layout.apply();
+             InferenceServer server = new InferenceServer(trainedModel, replicas, options.getInt("port", 8080),
+                options.getInt("maxBatchSize", 64), options.getLong("maxWaitMicros", 1000),
+                options.getBoolean("virtualThreads", true))) {
+            System.out.printf("Serving %s (%s) on http://localhost:%d (POST /predict, GET /stats, GET /health), %d replica(s), %s%n",
+                    modelFile.getName(), trainedModel.getDataType(), server.getPort(), replicas,
+                    server.usesVirtualThreads() ? "virtual threads" : "platform threads");
+
+            // When stopped with Ctrl+C the loop below never finishes, so report the final numbers from a hook
+            Thread finalStats = new Thread(() -> printStats("Final stats", server));
+            Runtime.getRuntime().addShutdownHook(finalStats);
+
+            long deadline = durationSeconds > 0 ? System.currentTimeMillis() + durationSeconds * 1000 : Long.MAX_VALUE;
+            long remaining;
+            while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+                Thread.sleep(Math.min(statsIntervalMillis, remaining));
+                printStats("Stats", server);
+            }
+            Runtime.getRuntime().removeShutdownHook(finalStats);
+            timing.putAll(server.getStats());
+        }
+    }
+
+    private static void printStats(String label, InferenceServer server) {
+        try {
+            System.out.println(label + ": " + new ObjectMapper().writeValueAsString(server.getStats()));
+        } catch (IOException e) {
+            System.err.println("Could not format server stats: " + e.getMessage());
+        }
+    }
+
+    private static double measureInference(MultiLayerNetwork model, InMemoryDataSet data, int batchSize) {
+        DataSetIterator iterator = data.iterator(batchSize);
+        long startTime = System.nanoTime();
+        long rows = 0;
+        while (iterator.hasNext()) {
+            rows += model.output(iterator.next().getFeatures()).rows();
+        }
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        return elapsedSeconds > 0 ? rows / elapsedSeconds : 0;
+    }
+
+    private static Map<String, Double> summarize(double[] samples) {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summary.put("min", Arrays.stream(samples).min().orElse(0));
+        summary.put("mean", Arrays.stream(samples).average().orElse(0));
+        summary.put("max", Arrays.stream(samples).max().orElse(0));
+        return summary;
+    }
+
+    private static void putRunTimings(Map<String, Object> timing, TrainingRun run, int epochs) {
+        timing.put("loadMs", run.getLoadMillis());
+        timing.put("trainMs", run.getTrainingMillis());
+        timing.put("epochMs", epochs > 0 ? (double) run.getTrainingMillis() / epochs : 0.0);
+        timing.put("evaluationMs", run.getEvaluationMillis());
+        timing.put("trainingExamples", run.getTrainingExamples());
+    }
+
+    private static void emitTiming(Map<String, Object> timing, CommandLineOptions options) throws IOException {
+        String json = new ObjectMapper().writeValueAsString(timing);
+        System.out.println(json);
+        if (options.has("timingOutput")) {
+            Files.writeString(new File(options.getString("timingOutput", null)).toPath(), json + "\n", StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.assignment.mlp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A trained network reduced to what inference needs: the normalizer statistics and, per layer,
+ * the weights, biases and activation. Batch normalization is folded into the preceding dense
+ * layer and dropout is dropped, so every layer is a plain dense layer.
+ *
+ * The artifact ({@code .mlpc}) stores the weights as float32 or, quantized, as int8 with one
+ * symmetric scale per layer, about a quarter of the size. This class and {@link CompactScorer}
+ * use only the JDK, so scoring needs neither ND4J nor its native libraries.
+ * Models are created from a trained network with {@link CompactModelExporter}.
+ */
+public class CompactModel {
+    public static final String EXTENSION = ".mlpc";
+
+    private static final int MAGIC = 0x4D4C5043; // "MLPC"
+    private static final int VERSION = 1;
+    private static final byte WEIGHTS_FLOAT32 = 0;
+    private static final byte WEIGHTS_INT8 = 1;
+
+    /**
+     * The activations the compact scorer implements.
+     */
+    public enum Function {
+        IDENTITY, RELU, LEAKYRELU, ELU, TANH, SIGMOID, SWISH;
+
+        float apply(float x, float alpha) {
+            return switch (this) {
+                case IDENTITY -> x;
+                case RELU -> x > 0 ? x : 0;
+                case LEAKYRELU -> x > 0 ? x : alpha * x;
+                case ELU -> x > 0 ? x : alpha * (float) Math.expm1(x);
+                case TANH -> tanh(x);
+                case SIGMOID -> (float) (1 / (1 + Math.exp(-x)));
+                case SWISH -> (float) (x / (1 + Math.exp(-x)));
+            };
+        }
+
+        /**
+         * Math.tanh is not a JIT intrinsic and costs about 100 ns, more than the rest of a small
+         * layer. Computed through the intrinsic exp in double it rounds to the same float.
+         */
+        private static float tanh(float x) {
+            double t = Math.exp(-2 * Math.abs(x));
+            return (float) Math.copySign((1 - t) / (1 + t), x);
+        }
+    }
+
+    /**
+     * One dense layer. Weights are stored output-major: the inputs of output j are
+     * {@code weights[j * inputs .. (j + 1) * inputs)}, so each output is one contiguous dot product.
+     */
+    public static class Layer {
+        final int inputs;
+        final int outputs;
+        final float[] weights;
+        final float[] bias;
+        final Function function;
+        final float alpha;
+
+        public Layer(int inputs, int outputs, float[] weights, float[] bias, Function function, float alpha) {
+            if (weights.length != inputs * outputs || bias.length != outputs) {
+                throw new IllegalArgumentException("Expected " + inputs + "x" + outputs + " weights and "
+                        + outputs + " biases but got " + weights.length + " and " + bias.length);
+            }
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.weights = weights;
+            this.bias = bias;
+            this.function = function;
+            this.alpha = alpha;
+        }
+
+        public int getInputs() {
+            return inputs;
+        }
+
+        public int getOutputs() {
+            return outputs;
+        }
+
+        public Function getFunction() {
+            return function;
+        }
+    }
+
+    private final float[] mean;
+    private final float[] std;
+    private final List<Layer> layers;
+
+    /**
+     * @param mean   The per-feature means subtracted from the raw input.
+     * @param std    The per-feature standard deviations the input is divided by.
+     * @param layers The layers from the input side; the last one has a single output.
+     */
+    public CompactModel(float[] mean, float[] std, List<Layer> layers) {
+        if (layers.isEmpty()) {
+            throw new IllegalArgumentException("A model needs at least one layer");
+        }
+        if (mean.length != std.length || mean.length != layers.get(0).inputs) {
+            throw new IllegalArgumentException("The normalizer has " + mean.length + " features but the first layer takes "
+                    + layers.get(0).inputs);
+        }
+        for (int i = 1; i < layers.size(); i++) {
+            if (layers.get(i).inputs != layers.get(i - 1).outputs) {
+                throw new IllegalArgumentException("Layer " + i + " takes " + layers.get(i).inputs
+                        + " inputs but layer " + (i - 1) + " has " + layers.get(i - 1).outputs + " outputs");
+            }
+        }
+        if (layers.get(layers.size() - 1).outputs != 1) {
+            throw new IllegalArgumentException("The last layer must have a single output");
+        }
+        this.mean = mean;
+        this.std = std;
+        this.layers = Collections.unmodifiableList(new ArrayList<>(layers));
+    }
+
+    public static boolean isCompact(String path) {
+        return path.toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Writes the artifact, replacing the file atomically once it is complete.
+     *
+     * @param file     The destination, conventionally ending in {@code .mlpc}.
+     * @param quantize Whether to store the weights as int8 with a per-layer scale.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(File file, boolean quantize) throws IOException {
+        File partial = new File(file.getPath() + ".partial");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partial.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(mean.length);
+            writeFloats(out, mean);
+            writeFloats(out, std);
+            out.writeInt(layers.size());
+            for (Layer layer : layers) {
+                out.writeInt(layer.inputs);
+                out.writeInt(layer.outputs);
+                out.writeByte(layer.function.ordinal());
+                out.writeFloat(layer.alpha);
+                if (quantize) {
+                    out.writeByte(WEIGHTS_INT8);
+                    float scale = int8Scale(layer.weights);
+                    out.writeFloat(scale);
+                    byte[] quantized = new byte[layer.weights.length];
+                    for (int i = 0; i < quantized.length; i++) {
+                        quantized[i] = (byte) Math.round(layer.weights[i] / scale);
+                    }
+                    out.write(quantized);
+                } else {
+                    out.writeByte(WEIGHTS_FLOAT32);
+                    writeFloats(out, layer.weights);
+                }
+                writeFloats(out, layer.bias); // Biases are few and sensitive, so they stay float32
+            }
+        }
+        Files.move(partial.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads an artifact written by {@link #save}. Quantized weights are expanded back to floats.
+     *
+     * @param file The {@code .mlpc} file.
+     * @return The model.
+     * @throws IOException If the file cannot be read or is not a compact model.
+     */
+    public static CompactModel load(File file) throws IOException {
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            DataInputStream in = new DataInputStream(stream);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a compact model file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported compact model version " + version + " in " + file);
+            }
+            int numFeatures = in.readInt();
+            float[] mean = readFloats(in, numFeatures);
+            float[] std = readFloats(in, numFeatures);
+            int numLayers = in.readInt();
+            List<Layer> layers = new ArrayList<>(numLayers);
+            for (int l = 0; l < numLayers; l++) {
+                int inputs = in.readInt();
+                int outputs = in.readInt();
+                Function function = Function.values()[in.readByte()];
+                float alpha = in.readFloat();
+                byte format = in.readByte();
+                float[] weights;
+                if (format == WEIGHTS_INT8) {
+                    float scale = in.readFloat();
+                    byte[] quantized = new byte[inputs * outputs];
+                    in.readFully(quantized);
+                    weights = new float[quantized.length];
+                    for (int i = 0; i < weights.length; i++) {
+                        weights[i] = quantized[i] * scale;
+                    }
+                } else if (format == WEIGHTS_FLOAT32) {
+                    weights = readFloats(in, inputs * outputs);
+                } else {
+                    throw new IOException("Unknown weight format " + format + " in " + file);
+                }
+                layers.add(new Layer(inputs, outputs, weights, readFloats(in, outputs), function, alpha));
+            }
+            return new CompactModel(mean, std, layers);
+        }
+    }
+
+    /**
+     * @return A new scorer over this model. Scorers hold scratch buffers, so use one per thread.
+     */
+    public CompactScorer newScorer() {
+        return newScorer(true);
+    }
+
+    /**
+     * @param vectorized Whether to use the Vector API if this JVM has it, rather than plain loops.
+     * @return A new scorer over this model.
+     */
+    public CompactScorer newScorer(boolean vectorized) {
+        return new CompactScorer(this, vectorized);
+    }
+
+    public int numFeatures() {
+        return mean.length;
+    }
+
+    public List<Layer> getLayers() {
+        return layers;
+    }
+
+    float[] getMean() {
+        return mean;
+    }
+
+    float[] getStd() {
+        return std;
+    }
+
+    /**
+     * Symmetric scale that maps the largest weight magnitude to 127.
+     */
+    private static float int8Scale(float[] weights) {
+        float maxAbs = 0;
+        for (float weight : weights) {
+            maxAbs = Math.max(maxAbs, Math.abs(weight));
+        }
+        return maxAbs > 0 ? maxAbs / 127 : 1;
+    }
+
+    private static void writeFloats(DataOutputStream out, float[] values) throws IOException {
+        for (float value : values) {
+            out.writeFloat(value);
+        }
+    }
+
+    private static float[] readFloats(DataInputStream in, int count) throws IOException {
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readFloat();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,303 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.deeplearning4j.nn.api.Layer;
+import org.deeplearning4j.nn.conf.layers.ActivationLayer;
+import org.deeplearning4j.nn.conf.layers.BaseLayer;
+import org.deeplearning4j.nn.conf.layers.BatchNormalization;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.DropoutLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.activations.impl.ActivationELU;
+import org.nd4j.linalg.activations.impl.ActivationIdentity;
+import org.nd4j.linalg.activations.impl.ActivationLReLU;
+import org.nd4j.linalg.activations.impl.ActivationReLU;
+import org.nd4j.linalg.activations.impl.ActivationSigmoid;
+import org.nd4j.linalg.activations.impl.ActivationSwish;
+import org.nd4j.linalg.activations.impl.ActivationTanH;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+/**
+ * Turns a trained DL4J network into a {@link CompactModel} and compares the two on a dataset.
+ * This is the only side of the compact format that needs ND4J.
+ */
+public class CompactModelExporter {
+    private static final int MAX_SINGLE_ROW_SAMPLES = 10_000; // Rows timed one at a time through DL4J
+    private static final int PARITY_ROWS = 256;                // Random rows scored by both at export
+    private static final double PARITY_TOLERANCE = 1e-4;       // Largest accepted probability difference
+
+    /**
+     * Extracts the inference-time parameters of a model. The updater state is not carried over,
+     * batch normalization is folded into the preceding dense layer, and dropout is removed.
+     *
+     * @param trainedModel A model with a standardizing normalizer.
+     * @return The compact model with float32 weights.
+     * @throws IllegalArgumentException If the model has no normalizer or a layer the compact format cannot express.
+     */
+    public static CompactModel export(TrainedModel trainedModel) {
+        if (!(trainedModel.getNormalizer() instanceof NormalizerStandardize normalizer)) {
+            throw new IllegalArgumentException("Only models saved with their standardizing normalizer can be exported");
+        }
+        return export(trainedModel.getNetwork(), normalizer);
+    }
+
+    /**
+     * Extracts the inference-time parameters of a network. An FP32 network is then checked
+     * against the result: both score the same random rows, and their probabilities must agree
+     * to within {@value #PARITY_TOLERANCE}. 16-bit networks round their activations, so they
+     * are not checked.
+     *
+     * @param network    The trained network.
+     * @param normalizer The normalizer fitted on its training data.
+     * @return The compact model with float32 weights.
+     * @throws IllegalArgumentException If the network has a layer the compact format cannot express.
+     * @throws IllegalStateException    If the compact model does not reproduce the network's output.
+     */
+    public static CompactModel export(MultiLayerNetwork network, NormalizerStandardize normalizer) {
+        List<CompactModel.Layer> layers = new ArrayList<>();
+        PendingLayer pending = null;
+        for (Layer layer : network.getLayers()) {
+            org.deeplearning4j.nn.conf.layers.Layer conf = layer.conf().getLayer();
+            if (conf instanceof DenseLayer || conf instanceof OutputLayer) {
+                if (pending != null) {
+                    layers.add(pending.build());
+                }
+                pending = new PendingLayer(layer.getParam("W"), layer.getParam("b"), ((BaseLayer) conf).getActivationFn());
+            } else if (conf instanceof BatchNormalization batchNorm) {
+                requireIdentity(pending, "Batch normalization");
+                pending.foldBatchNorm(layer, batchNorm);
+            } else if (conf instanceof ActivationLayer activationLayer) {
+                requireIdentity(pending, "An activation layer");
+                pending.setActivation(activationLayer.getActivationFn());
+            } else if (!(conf instanceof DropoutLayer)) { // Dropout does nothing at inference time
+                throw new IllegalArgumentException("Cannot export layer type " + conf.getClass().getSimpleName());
+            }
+        }
+        if (pending == null) {
+            throw new IllegalArgumentException("The network has no dense layers");
+        }
+        layers.add(pending.build());
+        CompactModel model = new CompactModel(toFloats(normalizer.getMean()), toFloats(normalizer.getStd()), layers);
+        if (network.params().dataType() == DataType.FLOAT) {
+            checkParity(network, normalizer, model);
+        }
+        return model;
+    }
+
+    /**
+     * Scores rows drawn around the training distribution with both models.
+     */
+    private static void checkParity(MultiLayerNetwork network, NormalizerStandardize normalizer, CompactModel model) {
+        float[] mean = model.getMean();
+        float[] std = model.getStd();
+        Random random = new Random(527);
+        float[][] rows = new float[PARITY_ROWS][mean.length];
+        for (float[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = mean[i] + std[i] * (float) random.nextGaussian() * 2;
+            }
+        }
+        INDArray features = Nd4j.create(rows);
+        normalizer.transform(features);
+        float[] expected = network.output(features).toFloatVector();
+
+        CompactScorer scorer = model.newScorer();
+        for (int r = 0; r < rows.length; r++) {
+            float actual = scorer.score(rows[r]);
+            if (!(Math.abs(actual - expected[r]) <= PARITY_TOLERANCE)) {
+                throw new IllegalStateException("The compact model scores a test row " + actual
+                        + " where the network scores " + expected[r]);
+            }
+        }
+    }
+
+    private static void requireIdentity(PendingLayer pending, String what) {
+        if (pending == null || pending.function != CompactModel.Function.IDENTITY) {
+            throw new IllegalArgumentException(what + " must follow a dense layer without activation to be exported");
+        }
+    }
+
+    /**
+     * Scores a labelled dataset with the original model and the compact model and reports
+     * accuracy on both, how often they agree, and their speed. DL4J is timed both in batches
+     * and one row at a time; the compact scorer always scores one row at a time.
+     *
+     * @param trainedModel The original model.
+     * @param compactModel The exported model, read back from its file.
+     * @param dataPath     A CSV or binary dataset with labels.
+     * @param batchSize    The batch size for DL4J's batched timing.
+     * @return The comparison, ready to be printed as JSON.
+     * @throws Exception If the data cannot be read.
+     */
+    public static Map<String, Object> compare(TrainedModel trainedModel, CompactModel compactModel, String dataPath,
+                                              int batchSize) throws Exception {
+        DataSet raw = DataLoader.readRaw(dataPath);
+        float[][] rows = raw.getFeatures().castTo(DataType.FLOAT).toFloatMatrix();
+        float[] labels = raw.getLabels().castTo(DataType.FLOAT).toFloatVector();
+        INDArray normalized = raw.getFeatures().castTo(trainedModel.getDataType()).dup();
+        trainedModel.getNormalizer().transform(normalized);
+        MultiLayerNetwork network = trainedModel.getNetwork();
+        CompactScorer scorer = compactModel.newScorer();
+        int numRows = rows.length;
+
+        // Warm up both paths so the JIT and ND4J's kernels are ready before timing
+        network.output(normalized.get(NDArrayIndex.interval(0, Math.min(batchSize, numRows)), NDArrayIndex.all()));
+        for (int r = 0; r < Math.min(numRows, MAX_SINGLE_ROW_SAMPLES); r++) {
+            scorer.score(rows[r]);
+        }
+
+        float[] original = new float[numRows];
+        long startTime = System.nanoTime();
+        for (int start = 0; start < numRows; start += batchSize) {
+            int end = Math.min(start + batchSize, numRows);
+            float[] batch = network.output(normalized.get(NDArrayIndex.interval(start, end), NDArrayIndex.all()))
+                    .castTo(DataType.FLOAT).toFloatVector();
+            System.arraycopy(batch, 0, original, start, batch.length);
+        }
+        long originalBatchNanos = System.nanoTime() - startTime;
+
+        int singleRows = Math.min(numRows, MAX_SINGLE_ROW_SAMPLES);
+        startTime = System.nanoTime();
+        for (int r = 0; r < singleRows; r++) {
+            network.output(normalized.get(NDArrayIndex.interval(r, r + 1), NDArrayIndex.all()));
+        }
+        long originalSingleNanos = System.nanoTime() - startTime;
+
+        float[] compact = new float[numRows];
+        startTime = System.nanoTime();
+        for (int r = 0; r < numRows; r++) {
+            compact[r] = scorer.score(rows[r]);
+        }
+        long compactNanos = System.nanoTime() - startTime;
+
+        int originalCorrect = 0;
+        int compactCorrect = 0;
+        int agreements = 0;
+        double maxProbabilityDelta = 0;
+        for (int r = 0; r < numRows; r++) {
+            int originalClass = original[r] > 0.5 ? 1 : 0;
+            int compactClass = compact[r] > 0.5 ? 1 : 0;
+            originalCorrect += originalClass == (int) labels[r] ? 1 : 0;
+            compactCorrect += compactClass == (int) labels[r] ? 1 : 0;
+            agreements += originalClass == compactClass ? 1 : 0;
+            maxProbabilityDelta = Math.max(maxProbabilityDelta, Math.abs(original[r] - compact[r]));
+        }
+
+        double originalSingleMicros = originalSingleNanos / 1000.0 / singleRows;
+        double compactMicros = compactNanos / 1000.0 / numRows;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", numRows);
+        report.put("originalAccuracy", (double) originalCorrect / numRows);
+        report.put("compactAccuracy", (double) compactCorrect / numRows);
+        report.put("accuracyDelta", (double) (compactCorrect - originalCorrect) / numRows);
+        report.put("agreement", (double) agreements / numRows);
+        report.put("maxProbabilityDelta", maxProbabilityDelta);
+        report.put("originalBatchRowsPerSec", numRows * 1e9 / originalBatchNanos);
+        report.put("originalSingleRowMicros", originalSingleMicros);
+        report.put("compactRowsPerSec", numRows * 1e9 / compactNanos);
+        report.put("compactSingleRowMicros", compactMicros);
+        report.put("singleRowSpeedup", originalSingleMicros / compactMicros);
+        report.put("batchSpeedup", (double) originalBatchNanos / compactNanos);
+        return report;
+    }
+
+    private static float[] toFloats(INDArray array) {
+        return array.castTo(DataType.FLOAT).dup().data().asFloat();
+    }
+
+    /**
+     * A dense layer whose parameters may still be adjusted by a following batch normalization
+     * or activation layer before it is added to the model.
+     */
+    private static class PendingLayer {
+        private final int inputs;
+        private final int outputs;
+        private final float[] weights; // Output-major, as in CompactModel.Layer
+        private final float[] bias;
+        private CompactModel.Function function;
+        private float alpha;
+
+        private PendingLayer(INDArray w, INDArray b, IActivation activation) {
+            this.inputs = (int) w.rows();
+            this.outputs = (int) w.columns();
+            // DL4J stores W as [inputs, outputs]; transpose so each output's weights are contiguous
+            this.weights = toFloats(w.transpose());
+            this.bias = toFloats(b);
+            setActivation(activation);
+        }
+
+        /**
+         * At inference batch normalization computes gamma * (x - mean) / std + beta per output,
+         * which is a per-output scale and shift that can be applied to W and b directly.
+         */
+        private void foldBatchNorm(Layer layer, BatchNormalization conf) {
+            float[] mean = toFloats(layer.getParam("mean"));
+            float[] std;
+            if (layer.paramTable().containsKey("log10stdev")) {
+                std = toFloats(layer.getParam("log10stdev"));
+                for (int j = 0; j < std.length; j++) {
+                    std[j] = (float) Math.pow(10, std[j]);
+                }
+            } else {
+                std = toFloats(layer.getParam("var"));
+                for (int j = 0; j < std.length; j++) {
+                    std[j] = (float) Math.sqrt(std[j] + conf.getEps());
+                }
+            }
+            for (int j = 0; j < outputs; j++) {
+                float gamma = conf.isLockGammaBeta() ? (float) conf.getGamma() : layer.getParam("gamma").getFloat(j);
+                float beta = conf.isLockGammaBeta() ? (float) conf.getBeta() : layer.getParam("beta").getFloat(j);
+                float scale = gamma / std[j];
+                for (int i = 0; i < inputs; i++) {
+                    weights[j * inputs + i] *= scale;
+                }
+                bias[j] = (bias[j] - mean[j]) * scale + beta;
+            }
+        }
+
+        private void setActivation(IActivation activation) {
+            alpha = 0;
+            if (activation instanceof ActivationIdentity) {
+                function = CompactModel.Function.IDENTITY;
+            } else if (activation instanceof ActivationReLU relu && isPlainRelu(relu)) {
+                function = CompactModel.Function.RELU;
+            } else if (activation instanceof ActivationLReLU leakyRelu) {
+                function = CompactModel.Function.LEAKYRELU;
+                alpha = (float) leakyRelu.getAlpha();
+            } else if (activation instanceof ActivationELU elu) {
+                function = CompactModel.Function.ELU;
+                alpha = (float) elu.getAlpha();
+            } else if (activation instanceof ActivationTanH) {
+                function = CompactModel.Function.TANH;
+            } else if (activation instanceof ActivationSigmoid) {
+                function = CompactModel.Function.SIGMOID;
+            } else if (activation instanceof ActivationSwish) {
+                function = CompactModel.Function.SWISH;
+            } else {
+                throw new IllegalArgumentException("Cannot export activation " + activation);
+            }
+        }
+
+        private static boolean isPlainRelu(ActivationReLU relu) {
+            return relu.getMax() == null
+                    && (relu.getThreshold() == null || relu.getThreshold() == 0)
+                    && (relu.getNegativeSlope() == null || relu.getNegativeSlope() == 0);
+        }
+
+        private CompactModel.Layer build() {
+            return new CompactModel.Layer(inputs, outputs, weights, bias, function, alpha);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.assignment.mlp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Scores a CSV file with a {@link CompactModel}, one row at a time on the calling thread.
+ * Uses only the JDK, so a prediction run never starts ND4J. The input has a header row
+ * and the features in its first columns; a trailing label column is ignored.
+ */
+public class CompactPredictor {
+    private static final int WRITER_BUFFER_SIZE = 1 << 20; // 1 MiB output buffer
+
+    private final CompactModel model;
+    private final boolean echoToConsole;
+
+    public CompactPredictor(CompactModel model, boolean echoToConsole) {
+        this.model = model;
+        this.echoToConsole = echoToConsole;
+    }
+
+    /**
+     * Scores every row of the input CSV and writes the predictions to the output CSV,
+     * in the same format as {@link BatchPredictor}.
+     *
+     * @param inputPath  Path to the CSV file to score.
+     * @param outputPath Path of the predictions CSV to create.
+     * @return The number of rows scored.
+     * @throws IOException If reading or writing fails or a row has too few columns.
+     */
+    public long predict(String inputPath, String outputPath) throws IOException {
+        CompactScorer scorer = model.newScorer();
+        float[] features = new float[model.numFeatures()];
+        long startTime = System.nanoTime();
+        long rows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(inputPath), StandardCharsets.UTF_8);
+             BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath), WRITER_BUFFER_SIZE)) {
+            reader.readLine(); // Header
+            writer.write("Sample_ID,Predicted_Class,Probability\n");
+            StringBuilder line = new StringBuilder(64);
+            String row;
+            while ((row = reader.readLine()) != null) {
+                if (row.isBlank()) {
+                    continue;
+                }
+                parseFeatures(row, features, rows + 2);
+                float prob = scorer.score(features);
+                int predictedClass = prob > 0.5 ? 1 : 0;
+                rows++;
+
+                line.setLength(0);
+                line.append(rows).append(',').append(predictedClass).append(',');
+                UtilityFunctions.appendFourDecimals(line, prob);
+                line.append('\n');
+                writer.append(line);
+
+                if (echoToConsole) {
+                    System.out.printf("Sample %d: Predicted Class %d (Probability: %.4f)%n", rows, predictedClass, prob);
+                }
+            }
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf(Locale.US, "Scored %d rows in %.2f s (%.0f rows/sec)%n",
+                rows, elapsedSeconds, elapsedSeconds > 0 ? rows / elapsedSeconds : 0.0);
+        return rows;
+    }
+
+    /**
+     * Parses the first {@code features.length} comma-separated columns of a row in place.
+     */
+    private static void parseFeatures(String row, float[] features, long lineNumber) throws IOException {
+        int start = 0;
+        for (int i = 0; i < features.length; i++) {
+            int end = row.indexOf(',', start);
+            if (end < 0) {
+                if (i < features.length - 1) {
+                    throw new IOException("Line " + lineNumber + " has fewer than " + features.length + " columns");
+                }
+                end = row.length();
+            }
+            try {
+                features[i] = Float.parseFloat(row.substring(start, end).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + lineNumber + ", column " + (i + 1) + " is not a number: " + e.getMessage(), e);
+            }
+            start = end + 1;
+        }
+    }
+}
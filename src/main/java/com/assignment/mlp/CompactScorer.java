@@ -0,0 +1,73 @@
+package com.assignment.mlp;
+
+import java.util.List;
+
+/**
+ * Runs the forward pass of a {@link CompactModel} on plain float arrays. The activations
+ * of each layer go to one of two scratch buffers allocated up front, so scoring a row
+ * allocates nothing. The dot products use the JDK Vector API when it is available (see
+ * {@link DotProduct}). A scorer is not thread-safe; create one per thread from the same model.
+ */
+public class CompactScorer {
+    private static final DotProduct FASTEST = DotProduct.fastest();
+
+    private final float[] mean;
+    private final float[] std;
+    private final CompactModel.Layer[] layers;
+    private final DotProduct dotProduct;
+    private float[] current;
+    private float[] next;
+
+    CompactScorer(CompactModel model, boolean vectorized) {
+        this.dotProduct = vectorized ? FASTEST : DotProduct.SCALAR;
+        this.mean = model.getMean();
+        this.std = model.getStd();
+        List<CompactModel.Layer> modelLayers = model.getLayers();
+        this.layers = modelLayers.toArray(new CompactModel.Layer[0]);
+        int widest = mean.length;
+        for (CompactModel.Layer layer : layers) {
+            widest = Math.max(widest, layer.outputs);
+        }
+        this.current = new float[widest];
+        this.next = new float[widest];
+    }
+
+    /**
+     * @return Whether this JVM can run the Vector API implementation of the dot products.
+     */
+    public static boolean isVectorAvailable() {
+        return FASTEST != DotProduct.SCALAR;
+    }
+
+    public boolean isVectorized() {
+        return dotProduct != DotProduct.SCALAR;
+    }
+
+    /**
+     * @param features The raw (not normalized) features of one row.
+     * @return The predicted probability of class 1.
+     */
+    public float score(float[] features) {
+        if (features.length != mean.length) {
+            throw new IllegalArgumentException("Expected " + mean.length + " features but got " + features.length);
+        }
+        for (int i = 0; i < mean.length; i++) {
+            current[i] = (features[i] - mean[i]) / std[i];
+        }
+        for (CompactModel.Layer layer : layers) {
+            forward(layer, current, next, dotProduct);
+            float[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return current[0];
+    }
+
+    private static void forward(CompactModel.Layer layer, float[] input, float[] output, DotProduct dotProduct) {
+        int inputs = layer.inputs;
+        for (int j = 0; j < layer.outputs; j++) {
+            float sum = layer.bias[j] + dotProduct.dot(layer.weights, j * inputs, input, inputs);
+            output[j] = layer.function.apply(sum, layer.alpha);
+        }
+    }
+}
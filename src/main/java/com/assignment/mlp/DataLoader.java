@@ -2,20 +2,258 @@ package com.assignment.mlp;
 
 import org.datavec.api.records.reader.RecordReader;
 import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.split.CollectionInputSplit;
 import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.InputSplit;
 import org.deeplearning4j.datasets.datavec.RecordReaderDataSetIterator;
 import org.deeplearning4j.nn.weights.WeightInit;
 import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
 import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
 import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DataLoader {
     
+    private static final int IN_MEMORY_READ_BATCH_SIZE = 4096; // Rows parsed per read when building an in-memory dataset
+
     public static DataSetIterator loadData(String filePath, int batchSize) throws Exception {
+        return loadData(filePath, batchSize, null);
+    }
+
+    /**
+     * Creates a streaming iterator over a CSV file, or over a binary dataset file
+     * (see BinaryDataFile) if the path ends in .mlpb.
+     *
+     * @param filePath   Path to the CSV or binary file (relative or absolute).
+     * @param batchSize  The number of rows per batch.
+     * @param normalizer An already fitted normalizer to apply, or null to fit a new one on this file first.
+     * @return The normalized iterator.
+     * @throws Exception If the file cannot be found or parsed.
+     */
+    public static DataSetIterator loadData(String filePath, int batchSize, DataNormalization normalizer) throws Exception {
+        if (BinaryDataFile.isBinary(filePath)) {
+            return loadBinary(resolveFile(filePath), batchSize, normalizer);
+        }
+        DataSetIterator iterator = createCsvIterator(resolveFile(filePath), batchSize);
+
+        if (normalizer == null) {
+            // Fit the normalizer to the training data 
+            normalizer = new NormalizerStandardize();
+            normalizer.fit(iterator); 
+            iterator.reset();
+        }
+
+        // Set the normalizer
+        iterator.setPreProcessor(normalizer);
+
+        return iterator;
+    }
+
+    private static DataSetIterator loadBinary(File file, int batchSize, DataNormalization normalizer) throws IOException {
+        BinaryDataFile binaryFile = BinaryDataFile.open(file.getPath());
+        BinaryDataSetIterator iterator = binaryFile.iterator(batchSize);
+        // The stored features are raw; without a given normalizer use the statistics of the whole file from its header
+        iterator.setPreProcessor(normalizer != null ? normalizer : binaryFile.getNormalizer());
+        return iterator;
+    }
+
+    /**
+     * Parses the CSV file once, fits a standardizing normalizer and applies it,
+     * keeping the normalized features and labels in memory so they can be shared
+     * between trials without re-reading the file.
+     *
+     * @param filePath Path to the CSV file (relative or absolute).
+     * @return The normalized dataset.
+     * @throws Exception If the file cannot be found or parsed.
+     */
+    public static InMemoryDataSet loadInMemory(String filePath) throws Exception {
+        DataSet allData = readAll(resolveFile(filePath));
+
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(allData);
+        normalizer.transform(allData);
+
+        return new InMemoryDataSet(allData.getFeatures(), allData.getLabels(), normalizer);
+    }
+
+    /**
+     * Parses the CSV file once and divides it into training, validation and test partitions
+     * (or cross-validation folds) as described by the split configuration. Each pair is
+     * normalized with statistics fitted on its own training rows only, so no validation row
+     * ever shapes its normalizer. Under cross-validation, the test rows use a normalizer fitted
+     * on every fold, which still excludes them.
+     *
+     * @param filePath    Path to the CSV file (relative or absolute).
+     * @param splitConfig How to divide the rows.
+     * @return The normalized partitions.
+     * @throws Exception If the file cannot be found or parsed, or a partition would be empty.
+     */
+    public static DataSplits loadSplits(String filePath, SplitConfig splitConfig) throws Exception {
+        DataSet allData = readAll(resolveFile(filePath));
+        INDArray features = allData.getFeatures();
+        INDArray labels = allData.getLabels();
+
+        List<Integer> trainRows = new ArrayList<>();
+        List<Integer> validationRows = new ArrayList<>();
+        List<Integer> testRows = new ArrayList<>();
+        List<List<Integer>> foldRows = new ArrayList<>();
+        for (int i = 0; i < splitConfig.getFolds(); i++) {
+            foldRows.add(new ArrayList<>());
+        }
+
+        // Shuffle within each class and cut every class by the same fractions, so all partitions keep the class balance
+        Random random = new Random(splitConfig.getSeed());
+        int nextFold = 0;
+        for (List<Integer> group : groupRows(labels, splitConfig.isStratified())) {
+            Collections.shuffle(group, random);
+            int testCount = (int) Math.round(group.size() * splitConfig.getTestFraction());
+            int validationCount = (int) Math.round(group.size() * splitConfig.getValidationFraction());
+            for (int j = 0; j < group.size(); j++) {
+                int row = group.get(j);
+                if (j < testCount) {
+                    testRows.add(row);
+                } else if (splitConfig.isCrossValidation()) {
+                    foldRows.get(nextFold).add(row);
+                    nextFold = (nextFold + 1) % splitConfig.getFolds();
+                } else if (j < testCount + validationCount) {
+                    validationRows.add(row);
+                } else {
+                    trainRows.add(row);
+                }
+            }
+        }
+
+        List<Integer> fitRows = new ArrayList<>(trainRows);
+        if (splitConfig.isCrossValidation()) {
+            foldRows.forEach(fitRows::addAll); // Every fold is used for training in some pair
+        }
+        if (fitRows.isEmpty()) {
+            throw new IllegalArgumentException("Not enough rows to build a training partition from: " + filePath);
+        }
+
+        // Partitions are copied out of the raw rows and normalized with their pair's own statistics
+        List<InMemoryDataSet[]> pairs = new ArrayList<>();
+        if (splitConfig.isCrossValidation()) {
+            for (int fold = 0; fold < splitConfig.getFolds(); fold++) {
+                List<Integer> foldTrainRows = new ArrayList<>();
+                for (int other = 0; other < splitConfig.getFolds(); other++) {
+                    if (other != fold) {
+                        foldTrainRows.addAll(foldRows.get(other));
+                    }
+                }
+                String trainName = "training fold " + (fold + 1);
+                NormalizerStandardize foldNormalizer = fitNormalizer(allData, foldTrainRows, trainName);
+                pairs.add(new InMemoryDataSet[]{
+                        subset(allData, foldTrainRows, foldNormalizer, trainName),
+                        subset(allData, foldRows.get(fold), foldNormalizer, "validation fold " + (fold + 1))
+                });
+            }
+        } else {
+            NormalizerStandardize normalizer = fitNormalizer(allData, trainRows, "training");
+            pairs.add(new InMemoryDataSet[]{
+                    subset(allData, trainRows, normalizer, "training"),
+                    subset(allData, validationRows, normalizer, "validation")
+            });
+        }
+        InMemoryDataSet test = null;
+        if (!testRows.isEmpty()) {
+            NormalizerStandardize testNormalizer = splitConfig.isCrossValidation()
+                    ? fitNormalizer(allData, fitRows, "training") : pairs.get(0)[0].getNormalizer();
+            test = subset(allData, testRows, testNormalizer, "test");
+        }
+
+        return new DataSplits(pairs, test);
+    }
+
+    /**
+     * Groups row indices by class label, or returns all rows as one group when not stratifying.
+     */
+    private static List<List<Integer>> groupRows(INDArray labels, boolean stratified) {
+        Map<Double, List<Integer>> groups = new TreeMap<>(); // Sorted so the shuffle order is reproducible
+        for (int row = 0; row < labels.rows(); row++) {
+            double label = stratified ? labels.getDouble(row, 0) : 0;
+            groups.computeIfAbsent(label, key -> new ArrayList<>()).add(row);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static NormalizerStandardize fitNormalizer(DataSet rawData, List<Integer> rows, String name) {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("The " + name + " partition would be empty; use more data or larger fractions");
+        }
+        int[] indices = toSortedArray(rows);
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(new DataSet(rawData.getFeatures().getRows(indices), rawData.getLabels().getRows(indices)));
+        return normalizer;
+    }
+
+    /**
+     * Copies rows out of the raw data and normalizes the copy.
+     */
+    private static InMemoryDataSet subset(DataSet rawData, List<Integer> rows, NormalizerStandardize normalizer, String name) {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("The " + name + " partition would be empty; use more data or larger fractions");
+        }
+        int[] indices = toSortedArray(rows); // Keep the file order within each partition
+        INDArray features = rawData.getFeatures().getRows(indices);
+        normalizer.transform(features);
+        return new InMemoryDataSet(features, rawData.getLabels().getRows(indices), normalizer);
+    }
+
+    private static int[] toSortedArray(List<Integer> rows) {
+        int[] indices = rows.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Reads every row of a CSV or binary dataset without normalizing it.
+     *
+     * @param filePath Path to the file (relative or absolute).
+     * @return The raw features and labels.
+     * @throws Exception If the file cannot be found or parsed.
+     */
+    public static DataSet readRaw(String filePath) throws Exception {
+        return readAll(resolveFile(filePath));
+    }
+
+    private static DataSet readAll(File file) throws Exception {
+        if (BinaryDataFile.isBinary(file.getPath())) {
+            return BinaryDataFile.open(file.getPath()).readAllRaw();
+        }
+        DataSetIterator iterator = createCsvIterator(file, IN_MEMORY_READ_BATCH_SIZE);
+
+        List<DataSet> batches = new ArrayList<>();
+        while (iterator.hasNext()) {
+            batches.add(iterator.next());
+        }
+        if (batches.isEmpty()) {
+            throw new IllegalArgumentException("No data rows found in: " + file.getAbsolutePath());
+        }
+        return batches.size() == 1 ? batches.get(0) : DataSet.merge(batches);
+    }
+
+    static File resolveFile(String filePath) {
         // Convert to absolute path if not already
         File file = new File(filePath);
         if (!file.isAbsolute()) {
@@ -27,25 +265,66 @@ public class DataLoader {
         if (!file.exists()) {
             throw new IllegalArgumentException("File not found: " + file.getAbsolutePath());
         }
+        return file;
+    }
+
+    /**
+     * Resolves a data source given as a single CSV file, a directory (every .csv file below it)
+     * or a glob pattern such as {@code shards/part-*.csv}.
+     *
+     * @param spec The file, directory or glob.
+     * @return The input split covering every matching file.
+     * @throws IOException If the directory cannot be listed.
+     */
+    public static InputSplit createInputSplit(String spec) throws IOException {
+        if (spec.chars().anyMatch(c -> "*?[{".indexOf(c) >= 0)) {
+            // Walk from the deepest directory that contains no glob characters
+            Path pattern = Paths.get(spec).toAbsolutePath();
+            Path baseDir = pattern.getRoot();
+            for (Path part : pattern.getParent()) {
+                if (part.toString().chars().anyMatch(c -> "*?[{".indexOf(c) >= 0)) {
+                    break;
+                }
+                baseDir = baseDir.resolve(part);
+            }
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            return listFiles(baseDir, matcher, spec);
+        }
 
+        File file = resolveFile(spec);
+        if (file.isDirectory()) {
+            return listFiles(file.toPath(), path -> path.toString().endsWith(".csv"), spec);
+        }
+        return new FileSplit(file);
+    }
+
+    /**
+     * Lists the matching files below a directory in path order, so every run (and every
+     * streaming pass) reads the rows in the same sequence.
+     */
+    private static InputSplit listFiles(Path baseDir, PathMatcher matcher, String spec) throws IOException {
+        List<URI> matches;
+        try (Stream<Path> paths = Files.walk(baseDir)) {
+            matches = paths.filter(path -> Files.isRegularFile(path) && matcher.matches(path))
+                    .sorted()
+                    .map(Path::toUri)
+                    .collect(Collectors.toList());
+        }
+        if (matches.isEmpty()) {
+            throw new IllegalArgumentException("No CSV files found for: " + spec);
+        }
+        return new CollectionInputSplit(matches);
+    }
+
+    static DataSetIterator createCsvIterator(File file, int batchSize) throws Exception {
         // Initialize CSV reader (skip 1 header line, comma delimiter)
         RecordReader recordReader = new CSVRecordReader(1, ',');
         recordReader.initialize(new FileSplit(file));
 
         // Create iterator for the dataset
-        DataSetIterator iterator = new RecordReaderDataSetIterator.Builder(recordReader, batchSize)
+        return new RecordReaderDataSetIterator.Builder(recordReader, batchSize)
             .classification(5, 1) // Column 5 is label, binary classification
             .build();
-
-        // Fit the normalizer to the training data 
-        DataNormalization normalizer = new NormalizerStandardize();
-        normalizer.fit(iterator); 
-
-        // Reset the iterator and set the normalizer
-        iterator.reset();
-        iterator.setPreProcessor(normalizer);
-
-        return iterator;
     }
 
     public static UserInput getUserInput(Scanner scanner) {
@@ -71,11 +350,14 @@ public class DataLoader {
         int epochs = scanner.hasNextInt() ? scanner.nextInt() : 150;
         scanner.nextLine(); // consume newline
 
-        int[] neuronsPerLayer = new int[3];
-        for (int i = 0; i < 3; i++) {
-            System.out.printf("Enter number of neurons for hidden layer %d (default 64):", i + 1);
-            neuronsPerLayer[i] = scanner.hasNextInt() ? scanner.nextInt() : 64;
-            scanner.nextLine(); // consume newline
+        System.out.println("Enter hidden layers, e.g. 64,64,64 or 128:relu:bn,64:d0.2,32 (default 64,64,64):");
+        String layersStr = scanner.nextLine().trim();
+        List<LayerSpec> layers;
+        try {
+            layers = LayerSpec.parseList(layersStr.isEmpty() ? "64,64,64" : layersStr);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid hidden layers entered (" + e.getMessage() + "). Defaulting to 64,64,64.");
+            layers = LayerSpec.widths(64, 64, 64);
         }
 
         System.out.println("Enter activation function (TANH/RELU/LEAKYRELU/SWISH, default TANH):");
@@ -96,6 +378,6 @@ public class DataLoader {
         }
         
         return new UserInput(dataPath, seed, batchSize, learningRate, epochs, 
-                        neuronsPerLayer, activation, weightInit);
+                        layers, activation, weightInit);
     }
 }
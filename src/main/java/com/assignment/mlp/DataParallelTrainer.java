@@ -0,0 +1,163 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.optimize.api.TrainingListener;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+/**
+ * Trains one network on several cores by parameter averaging. Each worker thread owns a
+ * replica of the network. In every round the replicas fit their own share of the next
+ * batches, then their parameters and Adam state are averaged into the master network
+ * and copied back to every replica.
+ *
+ * The averaging frequency is the number of batches each replica fits between averages.
+ * A higher frequency spends less time averaging but lets the replicas drift further
+ * apart. Batches are handed out in a fixed order, so a run with the same seed, replica
+ * count and frequency is repeatable.
+ *
+ * The master's listeners see one epoch per pass and one iteration per round; the replicas
+ * have none.
+ */
+public class DataParallelTrainer implements AutoCloseable {
+    private final MultiLayerNetwork master;
+    private final int averagingFrequency;
+    private final List<MultiLayerNetwork> replicas = new ArrayList<>();
+    private final List<ExecutorService> threads = new ArrayList<>(); // One per replica, so its workspaces stay on one thread
+    private final MetricsRegistry.Timer roundTimer;
+    private final MetricsRegistry.Timer averagingTimer;
+
+    /**
+     * @param master             The network to train; it holds the averaged parameters after every round.
+     * @param replicas           The number of replicas, each trained on its own thread.
+     * @param averagingFrequency The batches each replica fits between averages.
+     */
+    public DataParallelTrainer(MultiLayerNetwork master, int replicas, int averagingFrequency) {
+        if (replicas < 1 || averagingFrequency < 1) {
+            throw new IllegalArgumentException("Replicas and averaging frequency must be at least 1");
+        }
+        this.master = master;
+        this.averagingFrequency = averagingFrequency;
+        for (int r = 0; r < replicas; r++) {
+            MultiLayerNetwork replica = master.clone();
+            replica.setListeners(); // Listeners are unsynchronized and belong to the master
+            this.replicas.add(replica);
+            int index = r;
+            threads.add(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "data-parallel-" + index);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+        MetricsRegistry metrics = MetricsRegistry.global();
+        this.roundTimer = metrics.timer("mlp_data_parallel_round_seconds",
+                "Time per data-parallel round: every replica's batches plus the parameter average.");
+        this.averagingTimer = metrics.timer("mlp_parameter_averaging_seconds",
+                "Time per data-parallel round spent averaging and copying parameters.");
+    }
+
+    /**
+     * Trains for one pass over the data. The iterator is read on the calling thread only.
+     */
+    public void fit(DataSetIterator data) throws InterruptedException, ExecutionException {
+        for (TrainingListener listener : master.getListeners()) {
+            listener.onEpochStart(master);
+        }
+        while (data.hasNext()) {
+            long roundStart = System.nanoTime();
+
+            // Replica r gets batches r, r + n, r + 2n and so on from this round's share of the epoch
+            List<List<DataSet>> shares = new ArrayList<>(replicas.size());
+            for (int r = 0; r < replicas.size(); r++) {
+                shares.add(new ArrayList<>(averagingFrequency));
+            }
+            for (int b = 0; b < replicas.size() * averagingFrequency && data.hasNext(); b++) {
+                shares.get(b % replicas.size()).add(data.next());
+            }
+
+            List<Future<?>> futures = new ArrayList<>();
+            List<MultiLayerNetwork> trained = new ArrayList<>();
+            for (int r = 0; r < replicas.size(); r++) {
+                List<DataSet> share = shares.get(r);
+                if (share.isEmpty()) {
+                    continue; // The last round of an epoch may not reach every replica
+                }
+                MultiLayerNetwork replica = replicas.get(r);
+                trained.add(replica);
+                futures.add(threads.get(r).submit(() -> {
+                    for (DataSet batch : share) {
+                        replica.fit(batch);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            long averagingStart = System.nanoTime();
+            average(trained);
+            long now = System.nanoTime();
+            averagingTimer.record(now - averagingStart);
+            roundTimer.record(now - roundStart);
+
+            // Count one step per batch of the largest share (replica 0's), and give every replica the same count,
+            // so one that sat out the last round of an epoch does not fall behind in Adam's bias correction
+            int iterations = master.getIterationCount() + shares.get(0).size();
+            master.setIterationCount(iterations);
+            for (MultiLayerNetwork replica : replicas) {
+                replica.setIterationCount(iterations);
+            }
+            for (TrainingListener listener : master.getListeners()) {
+                listener.iterationDone(master, master.getIterationCount(), master.getEpochCount());
+            }
+        }
+        for (TrainingListener listener : master.getListeners()) {
+            listener.onEpochEnd(master);
+        }
+        master.setEpochCount(master.getEpochCount() + 1);
+    }
+
+    /**
+     * Sets the master's parameters and updater state to the mean of the trained replicas,
+     * then copies them to every replica. The caller aligns the iteration counts.
+     */
+    private void average(List<MultiLayerNetwork> trained) {
+        INDArray params = master.params();
+        INDArray state = master.getUpdater().getStateViewArray();
+        params.assign(trained.get(0).params());
+        if (state != null) {
+            state.assign(trained.get(0).getUpdater().getStateViewArray());
+        }
+        for (int r = 1; r < trained.size(); r++) {
+            params.addi(trained.get(r).params());
+            if (state != null) {
+                state.addi(trained.get(r).getUpdater().getStateViewArray());
+            }
+        }
+        params.divi(trained.size());
+        if (state != null) {
+            state.divi(trained.size());
+        }
+        for (MultiLayerNetwork replica : replicas) {
+            replica.params().assign(params);
+            if (state != null) {
+                replica.getUpdater().getStateViewArray().assign(state);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService thread : threads) {
+            thread.shutdownNow();
+        }
+    }
+}
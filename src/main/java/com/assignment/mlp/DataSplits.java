@@ -0,0 +1,58 @@
+package com.assignment.mlp;
+
+import java.util.List;
+
+/**
+ * The train/validation/test partitions of one dataset, built once and shared by every trial.
+ * Each pair is normalized with statistics fitted on its own training rows only, and the
+ * test partition with statistics that never include a test row.
+ */
+public class DataSplits {
+    private final List<InMemoryDataSet[]> trainValidationPairs;
+    private final InMemoryDataSet test;
+
+    /**
+     * @param trainValidationPairs One {train, validation} pair, or one pair per fold for k-fold cross-validation.
+     * @param test                 The test partition, or null if no test rows were requested.
+     */
+    public DataSplits(List<InMemoryDataSet[]> trainValidationPairs, InMemoryDataSet test) {
+        if (trainValidationPairs.isEmpty()) {
+            throw new IllegalArgumentException("At least one train/validation pair is required");
+        }
+        this.trainValidationPairs = List.copyOf(trainValidationPairs);
+        this.test = test;
+    }
+
+    /**
+     * @return The {train, validation} pairs to train and evaluate on. Trials average their metrics over all pairs.
+     */
+    public List<InMemoryDataSet[]> getTrainValidationPairs() {
+        return trainValidationPairs;
+    }
+
+    /**
+     * @return The training partition of the first pair, which is the only one outside cross-validation.
+     */
+    public InMemoryDataSet getTrain() {
+        return trainValidationPairs.get(0)[0];
+    }
+
+    /**
+     * @return The validation partition of the first pair, which is the only one outside cross-validation.
+     */
+    public InMemoryDataSet getValidation() {
+        return trainValidationPairs.get(0)[1];
+    }
+
+    public InMemoryDataSet getTest() {
+        return test;
+    }
+
+    public boolean hasTest() {
+        return test != null;
+    }
+
+    public int numFolds() {
+        return trainValidationPairs.size();
+    }
+}
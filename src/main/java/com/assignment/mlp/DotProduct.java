@@ -0,0 +1,40 @@
+package com.assignment.mlp;
+
+/**
+ * The inner loop of {@link CompactScorer}: one output's weights dotted with the previous
+ * layer's activations. The Vector API implementation is used when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise the plain loop is.
+ */
+interface DotProduct {
+
+    /**
+     * @param weights The weights of every output of a layer, output-major.
+     * @param offset  Where this output's weights start.
+     * @param input   The previous layer's activations; only the first {@code length} are used.
+     * @param length  The number of inputs.
+     * @return The sum of {@code weights[offset + i] * input[i]}.
+     */
+    float dot(float[] weights, int offset, float[] input, int length);
+
+    DotProduct SCALAR = (weights, offset, input, length) -> {
+        float sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += weights[offset + i] * input[i];
+        }
+        return sum;
+    };
+
+    /**
+     * Loads the Vector API implementation reflectively, since the incubator module is only
+     * present when it was added on the command line.
+     *
+     * @return The vectorized implementation, or {@link #SCALAR} if this JVM cannot run it.
+     */
+    static DotProduct fastest() {
+        try {
+            return (DotProduct) Class.forName("com.assignment.mlp.VectorDotProduct").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.assignment.mlp;
+
+import java.util.Locale;
+
+/**
+ * A simple data class to hold the results of a single grid search trial.
+ */
+public class GridSearchResult {
+    public static final String CSV_HEADER = "Trial,LearningRate,BatchSize,Epochs,Layers,Depth,Activation,WeightInit,Accuracy,F1Score,TrainingTime,ScoringMicrosPerRow";
+    private static final int F1_SCORE_COLUMN = 9;
+
+    private final int trial;
+    private final HyperparameterConfig config;
+    private final double accuracy;
+    private final double f1Score;
+    private final long trainingTime;
+    private final double scoringMicrosPerRow;
+
+    /**
+     * @param scoringMicrosPerRow Time to score the validation rows divided by their number,
+     *                            so accuracy can be weighed against inference cost.
+     */
+    public GridSearchResult(int trial, HyperparameterConfig config,
+                            double accuracy, double f1Score, long trainingTime, double scoringMicrosPerRow) {
+        this.trial = trial;
+        this.config = config;
+        this.accuracy = accuracy;
+        this.f1Score = f1Score;
+        this.trainingTime = trainingTime;
+        this.scoringMicrosPerRow = scoringMicrosPerRow;
+    }
+
+    public int getTrial() {
+        return trial;
+    }
+
+    public HyperparameterConfig getConfig() {
+        return config;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public double getF1Score() {
+        return f1Score;
+    }
+
+    public long getTrainingTime() {
+        return trainingTime;
+    }
+
+    public double getScoringMicrosPerRow() {
+        return scoringMicrosPerRow;
+    }
+
+    /**
+     * @param csvLine A line written by {@link #toCSVString()}.
+     * @return Its trial number.
+     */
+    public static int parseTrial(String csvLine) {
+        int comma = csvLine.indexOf(',');
+        return Integer.parseInt(comma < 0 ? csvLine : csvLine.substring(0, comma));
+    }
+
+    /**
+     * @param csvLine A line written by {@link #toCSVString()}.
+     * @return Its validation F1, rounded as in the file.
+     */
+    public static double parseF1Score(String csvLine) {
+        return Double.parseDouble(csvLine.split(",")[F1_SCORE_COLUMN]);
+    }
+
+    /**
+     * Converts a line written before the Layers and Depth columns replaced the three fixed
+     * widths (L1Neurons, L2Neurons, L3Neurons) to the current layout. Both layouts have twelve
+     * columns; in the old one the seventh is a width rather than the activation. The old lines
+     * have no scoring time, so it becomes NaN. Lines in the current layout are returned as they are.
+     */
+    static String upgradeCsvLine(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 12 || !fields[6].matches("\\d+")) {
+            return csvLine;
+        }
+        return String.join(",", fields[0], fields[1], fields[2], fields[3],
+                fields[4] + "/" + fields[5] + "/" + fields[6], "3",
+                fields[7], fields[8], fields[9], fields[10], fields[11], "NaN");
+    }
+
+    public String toCSVString() {
+        return String.format(Locale.US,
+                "%d,%.4f,%d,%d,%s,%d,%s,%s,%.4f,%.4f,%d,%.3f",
+                trial,
+                config.getLearningRate(),
+                config.getBatchSize(),
+                config.getEpochs(),
+                LayerSpec.format(config.getLayers()),
+                config.getDepth(),
+                config.getActivation(),
+                config.getWeightInit(),
+                accuracy,
+                f1Score,
+                trainingTime,
+                scoringMicrosPerRow
+        );
+    }
+}
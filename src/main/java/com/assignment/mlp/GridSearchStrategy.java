@@ -0,0 +1,63 @@
+package com.assignment.mlp;
+
+/**
+ * Proposes every configuration of a {@link GridSpace} that passes its filters, in index order,
+ * by default {@link GridSpace#defaults()}. Configurations are decoded one at a time, so only
+ * the position in the grid is kept. Trial results do not change the order.
+ */
+public class GridSearchStrategy implements SearchStrategy {
+    private final GridSpace space;
+    private final String name;
+    private long next;
+    private int lastTrial = 0;
+
+    public GridSearchStrategy() {
+        this(GridSpace.defaults(), "grid");
+    }
+
+    /**
+     * @param name The name used in the results and ledger file names, so that shards run in
+     *             the same directory keep separate files.
+     */
+    public GridSearchStrategy(GridSpace space, String name) {
+        this.space = space;
+        this.name = name;
+        this.next = space.getStart();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public HyperparameterConfig propose() {
+        long index = next < 0 ? -1 : space.nextAccepted(next);
+        if (index < 0) {
+            next = -1;
+            return null;
+        }
+        next = index + 1;
+        lastTrial = (int) index + 1;
+        return space.get(index);
+    }
+
+    @Override
+    public int getLastTrial() {
+        return lastTrial;
+    }
+
+    @Override
+    public void observe(HyperparameterConfig config, double score) {
+        // The grid is fixed
+    }
+
+    /**
+     * @return The number of indices in the grid; configurations that fail a filter are skipped,
+     *         so fewer may be proposed.
+     */
+    @Override
+    public int size() {
+        return (int) space.size();
+    }
+}
@@ -0,0 +1,317 @@
+package com.assignment.mlp;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+
+/**
+ * The Cartesian product searched by the grid, generated lazily. Each configuration is a
+ * mixed-radix number with one digit per hyperparameter, so {@link #get} decodes any index
+ * in constant time and the size is known without enumerating anything. The digits are, from
+ * the most to the least significant: learning rate, batch size, layer shape, activation,
+ * weight initialization and epochs. Epochs vary fastest, so configurations that differ only
+ * in epochs sit next to each other and share one training run.
+ *
+ * Filters, such as {@link #nonIncreasingWidths()}, are checked as indices are visited rather
+ * than by building a filtered list, and a shard restricts the grid to one contiguous range
+ * of indices. A configuration keeps its index in every filtered or sharded view.
+ */
+public class GridSpace implements Iterable<HyperparameterConfig> {
+    private final double[] learningRates;
+    private final int[] batchSizes;
+    private final List<List<LayerSpec>> layerShapes;
+    private final List<Activation> activations;
+    private final List<WeightInit> weightInits;
+    private final int[] epochs;
+    private final Predicate<HyperparameterConfig> filter;
+    private final long total;
+    private final long start;
+    private final long end;
+
+    public GridSpace(double[] learningRates, int[] batchSizes, List<List<LayerSpec>> layerShapes,
+                     List<Activation> activations, List<WeightInit> weightInits, int[] epochs) {
+        this(learningRates.clone(), batchSizes.clone(), layerShapes, List.copyOf(activations), List.copyOf(weightInits),
+                epochs.clone(), config -> true, 0, -1);
+    }
+
+    private GridSpace(double[] learningRates, int[] batchSizes, List<List<LayerSpec>> layerShapes,
+                      List<Activation> activations, List<WeightInit> weightInits, int[] epochs,
+                      Predicate<HyperparameterConfig> filter, long start, long end) {
+        if (learningRates.length == 0 || batchSizes.length == 0 || layerShapes.isEmpty() || activations.isEmpty()
+                || weightInits.isEmpty() || epochs.length == 0) {
+            throw new IllegalArgumentException("Every hyperparameter needs at least one value");
+        }
+        this.learningRates = learningRates;
+        this.batchSizes = batchSizes;
+        this.layerShapes = layerShapes;
+        this.activations = activations;
+        this.weightInits = weightInits;
+        this.epochs = epochs;
+        this.filter = filter;
+        this.total = totalSize();
+        this.start = start;
+        this.end = end >= 0 ? end : total;
+    }
+
+    /**
+     * The grid searched by default.
+     */
+    public static GridSpace defaults() {
+        // During Testing
+        // double[] learningRates = {0.001, 0.0005, 0.0001};
+        // int[] batchSizes = {32, 64, 128};
+        // Depth trades accuracy against training and scoring time; any LayerSpec text form works here
+        // List<List<LayerSpec>> layerShapes = List.of(LayerSpec.widths(32), LayerSpec.widths(64, 32),
+        //         LayerSpec.widths(128, 64, 32), LayerSpec.widths(256, 128, 64, 32), LayerSpec.parseList("128:bn,64:d0.2,32"));
+        // int[] epochsList = {50, 100, 150};
+        // Activation[] activations = {Activation.RELU, Activation.SWISH, Activation.LEAKYRELU, Activation.TANH};
+        // WeightInit[] weightInits = {WeightInit.XAVIER};
+
+        // Production
+        return new GridSpace(new double[]{0.0005}, new int[]{32, 64, 128}, List.of(LayerSpec.widths(256, 128, 64)),
+                List.of(Activation.RELU, Activation.TANH), List.of(WeightInit.XAVIER), new int[]{150});
+    }
+
+    /**
+     * Every sequence of the given widths with a depth between the bounds, shallowest first,
+     * without building them: a shape is decoded from its index when it is needed.
+     */
+    public static List<List<LayerSpec>> widthSequences(int[] widths, int minDepth, int maxDepth) {
+        if (widths.length == 0 || minDepth < 1 || maxDepth < minDepth) {
+            throw new IllegalArgumentException("Invalid widths or depth range: " + Arrays.toString(widths)
+                    + ", " + minDepth + ":" + maxDepth);
+        }
+        int[] values = widths.clone();
+        long total = 0;
+        for (int depth = minDepth; depth <= maxDepth; depth++) {
+            total = Math.addExact(total, pow(values.length, depth));
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many layer shapes: " + total);
+        }
+        int size = (int) total;
+        return new AbstractList<>() {
+            @Override
+            public List<LayerSpec> get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                long remaining = index;
+                int depth = minDepth;
+                for (long count = pow(values.length, depth); remaining >= count; count = pow(values.length, ++depth)) {
+                    remaining -= count;
+                }
+                // The first layer is the most significant digit
+                int[] shape = new int[depth];
+                for (int layer = depth - 1; layer >= 0; layer--) {
+                    shape[layer] = values[(int) (remaining % values.length)];
+                    remaining /= values.length;
+                }
+                return LayerSpec.widths(shape);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static long pow(int base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result = Math.multiplyExact(result, base);
+        }
+        return result;
+    }
+
+    /**
+     * Keeps only shapes whose widths never grow from one hidden layer to the next, such as 256,128,64.
+     */
+    public static Predicate<HyperparameterConfig> nonIncreasingWidths() {
+        return config -> {
+            List<LayerSpec> layers = config.getLayers();
+            for (int i = 1; i < layers.size(); i++) {
+                if (layers.get(i).getWidth() > layers.get(i - 1).getWidth()) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * @return This grid with an additional filter; a configuration must pass every filter.
+     */
+    public GridSpace filter(Predicate<HyperparameterConfig> constraint) {
+        return new GridSpace(learningRates, batchSizes, layerShapes, activations, weightInits, epochs,
+                filter.and(constraint), start, end);
+    }
+
+    /**
+     * Splits the index range of this grid into near-equal contiguous shards. Boundaries fall
+     * between groups of epoch variants, so no training run is divided between shards.
+     *
+     * @param shard  The shard to keep, from 1.
+     * @param shards The number of shards.
+     */
+    public GridSpace shard(int shard, int shards) {
+        if (shards < 1 || shard < 1 || shard > shards) {
+            throw new IllegalArgumentException("Invalid shard " + shard + " of " + shards);
+        }
+        long groupStart = Math.floorDiv(start + epochs.length - 1, epochs.length);
+        long groupEnd = end / epochs.length;
+        long groups = groupEnd - groupStart;
+        long from = shard == 1 ? start : (groupStart + groups * (shard - 1) / shards) * epochs.length;
+        long to = shard == shards ? end : (groupStart + groups * shard / shards) * epochs.length;
+        return new GridSpace(learningRates, batchSizes, layerShapes, activations, weightInits, epochs,
+                filter, from, to);
+    }
+
+    private long totalSize() {
+        long size = 1;
+        for (long radix : new long[]{learningRates.length, batchSizes.length, layerShapes.size(),
+                activations.size(), weightInits.size(), epochs.length}) {
+            size = Math.multiplyExact(size, radix);
+        }
+        // Trial numbers are ints
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The grid has " + size + " combinations, more than "
+                    + Integer.MAX_VALUE + " trials can be numbered");
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of indices in this grid or shard, before filters are applied.
+     */
+    public long size() {
+        return end - start;
+    }
+
+    public double[] getLearningRates() {
+        return learningRates.clone();
+    }
+
+    public int[] getBatchSizes() {
+        return batchSizes.clone();
+    }
+
+    public List<List<LayerSpec>> getLayerShapes() {
+        return layerShapes;
+    }
+
+    public List<Activation> getActivations() {
+        return activations;
+    }
+
+    public List<WeightInit> getWeightInits() {
+        return weightInits;
+    }
+
+    public int[] getEpochs() {
+        return epochs.clone();
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Decodes a configuration from its index in the full grid, whether or not it passes the filters.
+     */
+    public HyperparameterConfig get(long index) {
+        if (index < 0 || index >= total) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside the grid");
+        }
+        long remaining = index;
+        int epoch = (int) (remaining % epochs.length);
+        remaining /= epochs.length;
+        int weightInit = (int) (remaining % weightInits.size());
+        remaining /= weightInits.size();
+        int activation = (int) (remaining % activations.size());
+        remaining /= activations.size();
+        int shape = (int) (remaining % layerShapes.size());
+        remaining /= layerShapes.size();
+        int batchSize = (int) (remaining % batchSizes.length);
+        remaining /= batchSizes.length;
+        return new HyperparameterConfig(learningRates[(int) remaining], batchSizes[batchSize], epochs[epoch],
+                layerShapes.get(shape), activations.get(activation), weightInits.get(weightInit));
+    }
+
+    public boolean accepts(HyperparameterConfig config) {
+        return filter.test(config);
+    }
+
+    /**
+     * @param from An index in the full grid.
+     * @return The first index at or after it, within this grid or shard, whose configuration
+     *         passes the filters, or -1 if there is none.
+     */
+    public long nextAccepted(long from) {
+        for (long index = Math.max(from, start); index < end; index++) {
+            if (filter.test(get(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Iterates over the configurations that pass the filters, in index order.
+     */
+    @Override
+    public Iterator<HyperparameterConfig> iterator() {
+        return new Iterator<>() {
+            private long next = nextAccepted(start);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public HyperparameterConfig next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                HyperparameterConfig config = get(next);
+                next = nextAccepted(next + 1);
+                return config;
+            }
+        };
+    }
+
+    /**
+     * @return The layer shapes of the grid, only the first few when they are generated.
+     */
+    private String describeShapes() {
+        List<String> shown = new ArrayList<>();
+        for (int i = 0; i < Math.min(3, layerShapes.size()); i++) {
+            shown.add("[" + LayerSpec.format(layerShapes.get(i)) + "]");
+        }
+        return layerShapes.size() > shown.size() ? layerShapes.size() + " shapes " + shown + "..." : shown.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "learning rates " + Arrays.toString(learningRates)
+                + ", batch sizes " + Arrays.toString(batchSizes)
+                + ", layers " + describeShapes()
+                + ", activations " + activations
+                + ", weight init " + weightInits
+                + ", epochs " + Arrays.toString(epochs)
+                + ", indices " + start + ".." + end;
+    }
+}
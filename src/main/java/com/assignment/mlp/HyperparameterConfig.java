@@ -1,5 +1,10 @@
 package com.assignment.mlp;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
 import org.nd4j.linalg.activations.Activation; 
 import org.deeplearning4j.nn.weights.WeightInit;
 
@@ -8,22 +13,22 @@ public class HyperparameterConfig {
     private double learningRate;
     private int batchSize;
     private int epochs;
-    private int layer1Neurons;
-    private int layer2Neurons;
-    private int layer3Neurons;
+    private List<LayerSpec> layers;
     private Activation activation;
     private WeightInit weightInit;
     
     // Constructor, getters, and setters
+    /**
+     * @param layers     The hidden layers, in order from the input side.
+     * @param activation The activation of every layer that does not specify its own.
+     */
     public HyperparameterConfig(double learningRate, int batchSize, int epochs,
-                              int layer1Neurons, int layer2Neurons, int layer3Neurons,
+                              List<LayerSpec> layers,
                               Activation activation, WeightInit weightInit) {
         this.learningRate = learningRate;
         this.batchSize = batchSize;
         this.epochs = epochs;
-        this.layer1Neurons = layer1Neurons;
-        this.layer2Neurons = layer2Neurons;
-        this.layer3Neurons = layer3Neurons;
+        this.layers = layers;
         this.activation = activation;
         this.weightInit = weightInit;
     }
@@ -52,28 +57,19 @@ public class HyperparameterConfig {
         this.epochs = epochs;
     }
 
-    public int getLayer1Neurons() {
-        return layer1Neurons;
-    }
-
-    public void setLayer1Neurons(int layer1Neurons) {
-        this.layer1Neurons = layer1Neurons;
-    }
-
-    public int getLayer2Neurons() {
-        return layer2Neurons;
+    public List<LayerSpec> getLayers() {
+        return layers;
     }
 
-    public void setLayer2Neurons(int layer2Neurons) {
-        this.layer2Neurons = layer2Neurons;
+    public void setLayers(List<LayerSpec> layers) {
+        this.layers = layers;
     }
 
-    public int getLayer3Neurons() {
-        return layer3Neurons;
-    }
-
-    public void setLayer3Neurons(int layer3Neurons) {
-        this.layer3Neurons = layer3Neurons;
+    /**
+     * @return The number of hidden layers.
+     */
+    public int getDepth() {
+        return layers.size();
     }
 
     public Activation getActivation() {
@@ -92,6 +88,49 @@ public class HyperparameterConfig {
         this.weightInit = weightInit;
     }
 
+    /**
+     * Builds a canonical description of every hyperparameter. Two configurations
+     * with the same values always produce the same key, across runs and JVMs.
+     *
+     * @return The canonical key string.
+     */
+    public String getStableKey() {
+        return "lr=" + learningRate
+                + ";bs=" + batchSize
+                + ";epochs=" + epochs
+                + ";layers=" + LayerSpec.format(layers) // Plain layers keep the width-only form, so existing ledger hashes still match
+                + ";act=" + activation
+                + ";wi=" + weightInit;
+    }
+
+    /**
+     * @return The stable key without the epochs. Configurations with the same schedule key
+     *         build the same network and follow the same training path, one stopping earlier.
+     */
+    public String getScheduleKey() {
+        return "lr=" + learningRate
+                + ";bs=" + batchSize
+                + ";layers=" + LayerSpec.format(layers)
+                + ";act=" + activation
+                + ";wi=" + weightInit;
+    }
+
+    /**
+     * @return A short SHA-256 based hash of the stable key, used to identify trials in the ledger.
+     */
+    public String getConfigHash() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(getStableKey().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Every JVM is required to provide it
+        }
+    }
+
 
     
 }
\ No newline at end of file
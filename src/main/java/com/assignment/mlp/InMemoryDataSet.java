@@ -0,0 +1,79 @@
+package com.assignment.mlp;
+
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+
+/**
+ * An immutable, already normalized dataset held entirely in memory.
+ * The CSV is parsed and normalized once, after which any number of trials can
+ * read from it concurrently through cheap, batch-size-specific iterator views.
+ */
+public class InMemoryDataSet {
+    private final INDArray features;
+    private final INDArray labels;
+    private final NormalizerStandardize normalizer;
+
+    public InMemoryDataSet(INDArray features, INDArray labels, NormalizerStandardize normalizer) {
+        if (features.rows() != labels.rows()) {
+            throw new IllegalArgumentException("Feature and label row counts differ: "
+                    + features.rows() + " vs " + labels.rows());
+        }
+        this.features = features;
+        this.labels = labels;
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Creates a new iterator over this dataset. Every batch it returns is a view
+     * into the shared feature and label matrices, so no data is copied.
+     *
+     * @param batchSize The number of rows per batch.
+     * @return A resettable iterator that must not be shared between threads.
+     */
+    public DataSetIterator iterator(int batchSize) {
+        return new InMemoryDataSetIterator(features, labels, batchSize);
+    }
+
+    /**
+     * Returns this dataset stored as another type, so the iterators feed a network of that type
+     * without a cast per batch. The normalizer is shared.
+     *
+     * @param dataType The type of the returned features and labels.
+     * @return This dataset if it already has that type, otherwise a converted copy.
+     */
+    public InMemoryDataSet castTo(DataType dataType) {
+        if (features.dataType() == dataType && labels.dataType() == dataType) {
+            return this;
+        }
+        return new InMemoryDataSet(features.castTo(dataType), labels.castTo(dataType), normalizer);
+    }
+
+    public DataType dataType() {
+        return features.dataType();
+    }
+
+    public int numExamples() {
+        return (int) features.rows();
+    }
+
+    public int numFeatures() {
+        return (int) features.columns();
+    }
+
+    public INDArray getFeatures() {
+        return features;
+    }
+
+    public INDArray getLabels() {
+        return labels;
+    }
+
+    /**
+     * @return The normalizer that was fitted on this data and already applied to it.
+     */
+    public NormalizerStandardize getNormalizer() {
+        return normalizer;
+    }
+}
@@ -0,0 +1,101 @@
+package com.assignment.mlp;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+/**
+ * Iterates over row ranges of a shared feature/label matrix pair.
+ * Each batch is a view, so the underlying data must be treated as read-only.
+ */
+public class InMemoryDataSetIterator implements DataSetIterator {
+    private final INDArray features;
+    private final INDArray labels;
+    private final int batchSize;
+    private final long numRows;
+    private long cursor = 0;
+
+    public InMemoryDataSetIterator(INDArray features, INDArray labels, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.features = features;
+        this.labels = labels;
+        this.batchSize = batchSize;
+        this.numRows = features.rows();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < numRows;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public DataSet next(int num) {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more batches available");
+        }
+        long end = Math.min(cursor + num, numRows);
+        INDArray featureView = features.get(NDArrayIndex.interval(cursor, end), NDArrayIndex.all());
+        INDArray labelView = labels.get(NDArrayIndex.interval(cursor, end), NDArrayIndex.all());
+        cursor = end;
+        return new DataSet(featureView, labelView);
+    }
+
+    @Override
+    public int inputColumns() {
+        return (int) features.columns();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return (int) labels.columns();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        // Batches are views over memory that is already resident, prefetching gains nothing
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        cursor = 0;
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        // A pre-processor would modify the shared views in place
+        throw new UnsupportedOperationException("In-memory data is already normalized and shared between trials");
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return null;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+}
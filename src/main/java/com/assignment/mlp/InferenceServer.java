@@ -0,0 +1,187 @@
+package com.assignment.mlp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.nd4j.shade.jackson.databind.ObjectMapper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A long-running HTTP endpoint that scores rows with a model loaded once at startup.
+ * Concurrent requests are merged into micro-batches by a MicroBatcher and scored
+ * in parallel on a pool of model replicas that share one copy of the weights.
+ *
+ * Endpoints:
+ *   POST /predict  body: one row of comma-separated features per line;
+ *                  response: "predictedClass,probability" per row, in the same order
+ *   GET  /stats    request count, throughput, p50/p99 latency and average batch size as JSON
+ *   GET  /health   "ok"
+ */
+public class InferenceServer implements AutoCloseable {
+    private static final int LATENCY_WINDOW = 100_000;
+    private static final long REQUEST_TIMEOUT_SECONDS = 30;
+
+    private final MicroBatcher batcher;
+    private final LatencyStats stats = new LatencyStats(LATENCY_WINDOW);
+    private final HttpServer server;
+    private final ExecutorService handlerExecutor;
+    private final boolean virtualThreads;
+
+    /**
+     * Starts serving on localhost.
+     *
+     * @param trainedModel          The model to serve. It must carry its training normalizer.
+     * @param replicas              Number of model replicas scoring batches in parallel.
+     * @param port                  The port to listen on (0 picks a free port).
+     * @param maxBatchSize          Largest micro-batch scored in one forward pass.
+     * @param maxWaitMicros         Longest time a request waits for others to join its batch.
+     * @param preferVirtualThreads  Whether to handle each request on a virtual thread if the JVM supports them.
+     * @throws IOException If the port cannot be bound.
+     */
+    public InferenceServer(TrainedModel trainedModel, int replicas, int port, int maxBatchSize, long maxWaitMicros,
+                           boolean preferVirtualThreads) throws IOException {
+        if (!trainedModel.hasNormalizer()) {
+            // Single rows cannot be standardized by their own statistics
+            throw new IllegalArgumentException("The model has no stored normalizer; re-save it with a current version");
+        }
+        this.batcher = new MicroBatcher(new ModelPool(trainedModel, replicas), maxBatchSize, maxWaitMicros);
+        ExecutorService virtualExecutor = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtualExecutor != null;
+        this.handlerExecutor = virtualThreads ? virtualExecutor : Executors.newCachedThreadPool();
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/predict", this::handlePredict);
+        server.createContext("/stats", exchange -> respond(exchange, 200, "application/json", statsJson()));
+        server.createContext("/health", exchange -> respond(exchange, 200, "text/plain", "ok\n"));
+        server.setExecutor(handlerExecutor);
+        server.start();
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor reflectively, since the project
+     * targets Java 17 where virtual threads do not exist.
+     *
+     * @return The executor, or null if this JVM has no virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private void handlePredict(HttpExchange exchange) throws IOException {
+        long startTime = System.nanoTime();
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "text/plain", "Use POST\n");
+                return;
+            }
+
+            List<CompletableFuture<Double>> predictions = new ArrayList<>();
+            try (InputStream body = exchange.getRequestBody()) {
+                for (String line : new String(body.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                    if (!line.isBlank()) {
+                        predictions.add(batcher.submit(parseRow(line)));
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                stats.recordError();
+                respond(exchange, 400, "text/plain", e.getMessage() + "\n");
+                return;
+            }
+
+            StringBuilder response = new StringBuilder(predictions.size() * 16);
+            for (CompletableFuture<Double> prediction : predictions) {
+                double probability = prediction.get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                response.append(probability > 0.5 ? 1 : 0).append(',');
+                UtilityFunctions.appendFourDecimals(response, probability);
+                response.append('\n');
+            }
+            respond(exchange, 200, "text/csv", response.toString());
+            stats.record(System.nanoTime() - startTime, predictions.size());
+        } catch (ExecutionException | TimeoutException e) {
+            stats.recordError();
+            respond(exchange, 503, "text/plain", "Prediction failed: " + e.getMessage() + "\n");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.recordError();
+            respond(exchange, 503, "text/plain", "Interrupted\n");
+        }
+    }
+
+    private float[] parseRow(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != batcher.getNumFeatures()) {
+            throw new IllegalArgumentException("Expected " + batcher.getNumFeatures() + " comma-separated features but got "
+                    + fields.length + ": " + line.trim());
+        }
+        float[] features = new float[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                features[i] = Float.parseFloat(fields[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + fields[i].trim());
+            }
+        }
+        return features;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * @return The current statistics: counts, throughput, latency percentiles and batching.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> snapshot = stats.snapshot();
+        snapshot.put("averageBatchSize", batcher.getAverageBatchSize());
+        snapshot.put("virtualThreads", virtualThreads);
+        return snapshot;
+    }
+
+    private String statsJson() throws IOException {
+        return new ObjectMapper().writeValueAsString(getStats()) + "\n";
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting requests, lets in-flight requests finish, then stops the batcher.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        server.stop(1);
+        handlerExecutor.shutdown();
+        handlerExecutor.awaitTermination(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        batcher.close();
+    }
+}
@@ -0,0 +1,76 @@
+package com.assignment.mlp;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request latency and throughput for the inference server. Latencies of the most recent
+ * requests are kept in a fixed-size ring buffer, so percentiles reflect current load
+ * and memory stays bounded however long the server runs.
+ */
+public class LatencyStats {
+    private final long[] recentNanos;
+    private final long startNanos = System.nanoTime();
+    private int next = 0;
+    private int size = 0;
+    private long requests = 0;
+    private long rows = 0;
+    private long errors = 0;
+
+    /**
+     * @param window Number of most recent requests the percentiles are computed over.
+     */
+    public LatencyStats(int window) {
+        this.recentNanos = new long[window];
+    }
+
+    public synchronized void record(long latencyNanos, int rowCount) {
+        recentNanos[next] = latencyNanos;
+        next = (next + 1) % recentNanos.length;
+        size = Math.min(size + 1, recentNanos.length);
+        requests++;
+        rows += rowCount;
+    }
+
+    public synchronized void recordError() {
+        errors++;
+    }
+
+    /**
+     * @return Request counts, throughput since start, and p50/p99/max latency in microseconds.
+     */
+    public Map<String, Object> snapshot() {
+        long[] sorted;
+        long requestCount;
+        long rowCount;
+        long errorCount;
+        synchronized (this) {
+            sorted = Arrays.copyOf(recentNanos, size);
+            requestCount = requests;
+            rowCount = rows;
+            errorCount = errors;
+        }
+        Arrays.sort(sorted); // Sort outside the lock so recording is never blocked for long
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("requests", requestCount);
+        snapshot.put("rows", rowCount);
+        snapshot.put("errors", errorCount);
+        snapshot.put("requestsPerSec", elapsedSeconds > 0 ? requestCount / elapsedSeconds : 0.0);
+        snapshot.put("rowsPerSec", elapsedSeconds > 0 ? rowCount / elapsedSeconds : 0.0);
+        snapshot.put("p50Micros", percentileMicros(sorted, 0.50));
+        snapshot.put("p99Micros", percentileMicros(sorted, 0.99));
+        snapshot.put("maxMicros", sorted.length > 0 ? sorted[sorted.length - 1] / 1000 : 0);
+        return snapshot;
+    }
+
+    private static long percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1; // Nearest-rank method
+        return sorted[Math.max(0, index)] / 1000;
+    }
+}
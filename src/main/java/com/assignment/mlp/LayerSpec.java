@@ -0,0 +1,153 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.nd4j.linalg.activations.Activation;
+
+/**
+ * Describes one hidden layer: its width, and optionally its own activation, a dropout rate
+ * applied to its outputs and batch normalization before the activation.
+ *
+ * The text form is {@code width[:activation][:d<rate>][:bn]}, for example {@code 128:relu:d0.2:bn};
+ * a list of layers is written comma- or slash-separated, such as {@code 128:bn,64,32}.
+ * A layer without an activation uses the network's default activation.
+ */
+public class LayerSpec {
+    private final int width;
+    private final Activation activation;
+    private final double dropout;
+    private final boolean batchNorm;
+
+    /**
+     * @param width      The number of neurons.
+     * @param activation The activation, or null for the network's default.
+     * @param dropout    The fraction of outputs dropped during training, in [0, 1); 0 disables dropout.
+     * @param batchNorm  Whether to batch-normalize the layer's outputs before the activation.
+     */
+    public LayerSpec(int width, Activation activation, double dropout, boolean batchNorm) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Layer width must be positive: " + width);
+        }
+        if (dropout < 0 || dropout >= 1) {
+            throw new IllegalArgumentException("Dropout must be in [0, 1): " + dropout);
+        }
+        this.width = width;
+        this.activation = activation;
+        this.dropout = dropout;
+        this.batchNorm = batchNorm;
+    }
+
+    public LayerSpec(int width) {
+        this(width, null, 0, false);
+    }
+
+    /**
+     * @return Plain layers of the given widths that use the network's default activation.
+     */
+    public static List<LayerSpec> widths(int... widths) {
+        List<LayerSpec> layers = new ArrayList<>();
+        for (int width : widths) {
+            layers.add(new LayerSpec(width));
+        }
+        return Collections.unmodifiableList(layers);
+    }
+
+    /**
+     * Parses a list of layers separated by commas or slashes.
+     *
+     * @param text For example {@code 128:relu:bn,64:d0.2,32}.
+     * @return The layers, in order from the input side.
+     */
+    public static List<LayerSpec> parseList(String text) {
+        List<LayerSpec> layers = new ArrayList<>();
+        for (String part : text.split("[,/]")) {
+            if (!part.isBlank()) {
+                layers.add(parse(part.trim()));
+            }
+        }
+        if (layers.isEmpty()) {
+            throw new IllegalArgumentException("At least one hidden layer is required: " + text);
+        }
+        return Collections.unmodifiableList(layers);
+    }
+
+    public static LayerSpec parse(String text) {
+        String[] tokens = text.split(":");
+        int width;
+        try {
+            width = Integer.parseInt(tokens[0].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a layer width but got '" + tokens[0] + "' in " + text);
+        }
+        Activation activation = null;
+        double dropout = 0;
+        boolean batchNorm = false;
+        for (int i = 1; i < tokens.length; i++) {
+            String token = tokens[i].trim().toLowerCase(Locale.ROOT);
+            if (token.equals("bn")) {
+                batchNorm = true;
+            } else if (token.matches("d[0-9.]+")) {
+                dropout = Double.parseDouble(token.substring(1));
+            } else {
+                try {
+                    activation = Activation.valueOf(token.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown layer option '" + tokens[i] + "' in " + text
+                            + " (expected an activation, d<rate> or bn)");
+                }
+            }
+        }
+        return new LayerSpec(width, activation, dropout, batchNorm);
+    }
+
+    /**
+     * @return The layers in text form joined by slashes; plain layers give just their widths, such as {@code 256/128/64}.
+     */
+    public static String format(List<LayerSpec> layers) {
+        StringBuilder text = new StringBuilder();
+        for (LayerSpec layer : layers) {
+            if (text.length() > 0) {
+                text.append('/');
+            }
+            text.append(layer);
+        }
+        return text.toString();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return This layer's activation, or the default if it has none of its own.
+     */
+    public Activation getActivation(Activation defaultActivation) {
+        return activation != null ? activation : defaultActivation;
+    }
+
+    public double getDropout() {
+        return dropout;
+    }
+
+    public boolean isBatchNorm() {
+        return batchNorm;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder().append(width);
+        if (activation != null) {
+            text.append(':').append(activation.name().toLowerCase(Locale.ROOT));
+        }
+        if (dropout > 0) {
+            text.append(":d").append(dropout);
+        }
+        if (batchNorm) {
+            text.append(":bn");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,144 @@
+package com.assignment.mlp;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Publishes a metrics registry while a command runs: as a Prometheus text page at
+ * {@code GET /metrics} on localhost, and/or as rows appended to a CSV file at a fixed
+ * interval. The CSV has one row per series and sample ({@code timestamp,metric,value}),
+ * so metrics registered part-way through a run need no change of header.
+ *
+ * Starting an exporter enables the registry, which attaches the training instrumentation;
+ * closing it writes a final CSV sample and disables the registry again.
+ */
+public class MetricsExporter implements AutoCloseable {
+    private static final String CSV_HEADER = "timestamp,metric,value";
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final File csvFile;
+    private final ScheduledExecutorService csvScheduler;
+
+    /**
+     * @param registry        The metrics to publish.
+     * @param port            The port for the Prometheus endpoint (0 picks a free port), or -1 for none.
+     * @param csvFile         The CSV file to append samples to, or null for none.
+     * @param intervalSeconds Seconds between CSV samples.
+     * @throws IOException If the port cannot be bound or the CSV file cannot be created.
+     */
+    public MetricsExporter(MetricsRegistry registry, int port, File csvFile, long intervalSeconds) throws IOException {
+        if (csvFile != null && intervalSeconds <= 0) {
+            throw new IllegalArgumentException("Metrics interval must be positive: " + intervalSeconds);
+        }
+        this.registry = registry;
+        this.csvFile = csvFile;
+        registry.registerJvmMetrics();
+
+        if (port >= 0) {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", this::handleMetrics);
+            server.start();
+        } else {
+            server = null;
+        }
+
+        if (csvFile != null) {
+            if (!csvFile.exists() || csvFile.length() == 0) {
+                Files.writeString(csvFile.toPath(), CSV_HEADER + "\n", StandardCharsets.UTF_8);
+            }
+            csvScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-csv");
+                thread.setDaemon(true);
+                return thread;
+            });
+            csvScheduler.scheduleAtFixedRate(this::appendCsvQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        } else {
+            csvScheduler = null;
+        }
+        registry.setEnabled(true);
+    }
+
+    /**
+     * Starts an exporter from the --metrics-port, --metrics-csv and --metrics-interval options.
+     *
+     * @return The exporter, or null if neither output was requested.
+     */
+    public static MetricsExporter fromOptions(CommandLineOptions options) throws IOException {
+        if (!options.has("metricsPort") && !options.has("metricsCsv")) {
+            return null;
+        }
+        MetricsExporter exporter = new MetricsExporter(MetricsRegistry.global(), options.getInt("metricsPort", -1),
+                options.has("metricsCsv") ? new File(options.getString("metricsCsv", null)) : null,
+                options.getLong("metricsInterval", 10));
+        if (exporter.server != null) {
+            System.out.println("Metrics at http://localhost:" + exporter.getPort() + "/metrics");
+        }
+        return exporter;
+    }
+
+    /**
+     * @return The bound port of the Prometheus endpoint, or -1 if there is none.
+     */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        byte[] body = registry.toPrometheus().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Appends one sample of every series to the CSV file.
+     */
+    public synchronized void appendCsv() throws IOException {
+        long timestamp = System.currentTimeMillis();
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map.Entry<String, Double> entry : registry.snapshot().entrySet()) {
+                writer.write(timestamp + "," + entry.getKey() + "," + MetricsRegistry.format(entry.getValue()));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void appendCsvQuietly() {
+        try {
+            appendCsv();
+        } catch (IOException e) {
+            // A failed sample should not stop training; the next one may succeed
+            System.err.println("Could not write metrics to " + csvFile + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        registry.setEnabled(false);
+        if (server != null) {
+            server.stop(0);
+        }
+        if (csvScheduler != null) {
+            csvScheduler.shutdownNow();
+            appendCsv(); // The final values, so short runs still leave a sample
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.assignment.mlp;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import org.bytedeco.javacpp.Pointer;
+
+/**
+ * Named training and search metrics: timers, counters and gauges. Timers keep a count,
+ * a total and a maximum, which is enough for averages and rates without keeping samples.
+ * Metric names follow the Prometheus conventions (snake case, base units, counters ending
+ * in _total), so the registry can be rendered directly as a Prometheus text page.
+ *
+ * Recording is cheap, but instrumentation is only attached to training while a
+ * {@link MetricsExporter} has enabled the registry.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, Metric> metrics = new LinkedHashMap<>(); // Registration order is the output order
+    private volatile boolean enabled = false;
+
+    /**
+     * @return The registry shared by the trainers, the searches and the exporters.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The timer with this name, created on first use.
+     */
+    public synchronized Timer timer(String name, String help) {
+        return (Timer) metrics.computeIfAbsent(name, key -> new Timer(key, help));
+    }
+
+    /**
+     * @return The counter with this name, created on first use.
+     */
+    public synchronized Counter counter(String name, String help) {
+        return (Counter) metrics.computeIfAbsent(name, key -> new Counter(key, help));
+    }
+
+    /**
+     * Registers a gauge read whenever the registry is exported, replacing any gauge of the same name.
+     */
+    public synchronized void gauge(String name, String help, DoubleSupplier value) {
+        metrics.put(name, new Gauge(name, help, value));
+    }
+
+    public synchronized void remove(String name) {
+        metrics.remove(name);
+    }
+
+    /**
+     * Registers gauges for heap use, garbage collection and the native memory held by
+     * ND4J through JavaCPP, which the heap figures do not include.
+     */
+    public void registerJvmMetrics() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm_heap_used_bytes", "Heap in use.", () -> memory.getHeapMemoryUsage().getUsed());
+        gauge("jvm_heap_committed_bytes", "Heap committed by the JVM.", () -> memory.getHeapMemoryUsage().getCommitted());
+        gauge("jvm_gc_collections_total", "Garbage collections since the JVM started.", () -> {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+            }
+            return count;
+        });
+        gauge("jvm_gc_collection_seconds_total", "Time spent in garbage collection since the JVM started.", () -> {
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return millis / 1000.0;
+        });
+        gauge("nd4j_offheap_bytes", "Off-heap memory allocated by ND4J through JavaCPP.", Pointer::totalBytes);
+        gauge("nd4j_offheap_max_bytes", "Off-heap limit set by -Dorg.bytedeco.javacpp.maxbytes.", Pointer::maxBytes);
+        gauge("process_physical_bytes", "Resident memory of the whole process.", Pointer::physicalBytes);
+    }
+
+    /**
+     * @return Every metric in the Prometheus text exposition format (version 0.0.4).
+     */
+    public String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        for (Metric metric : snapshotMetrics()) {
+            metric.writePrometheus(text);
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return The current value of every series, with timers flattened into _count, _sum and _max.
+     */
+    public Map<String, Double> snapshot() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Metric metric : snapshotMetrics()) {
+            metric.collect(values);
+        }
+        return values;
+    }
+
+    private synchronized Metric[] snapshotMetrics() {
+        return metrics.values().toArray(new Metric[0]);
+    }
+
+    static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : String.format(Locale.ROOT, "%.6g", value);
+    }
+
+    private abstract static class Metric {
+        protected final String name;
+        protected final String help;
+
+        Metric(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        abstract void collect(Map<String, Double> values);
+
+        abstract void writePrometheus(StringBuilder text);
+
+        protected void writeHeader(StringBuilder text, String seriesName, String type, String seriesHelp) {
+            text.append("# HELP ").append(seriesName).append(' ').append(seriesHelp).append('\n');
+            text.append("# TYPE ").append(seriesName).append(' ').append(type).append('\n');
+        }
+    }
+
+    /**
+     * Durations in nanoseconds, exported in seconds.
+     */
+    public static class Timer extends Metric {
+        private long count = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        private Timer(String name, String help) {
+            super(name, help);
+        }
+
+        public synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        @Override
+        synchronized void collect(Map<String, Double> values) {
+            values.put(name + "_count", (double) count);
+            values.put(name + "_sum", totalNanos / 1e9);
+            values.put(name + "_max", maxNanos / 1e9);
+        }
+
+        @Override
+        void writePrometheus(StringBuilder text) {
+            long currentCount;
+            long currentTotal;
+            long currentMax;
+            synchronized (this) {
+                currentCount = count;
+                currentTotal = totalNanos;
+                currentMax = maxNanos;
+            }
+            writeHeader(text, name, "summary", help);
+            text.append(name).append("_count ").append(currentCount).append('\n');
+            text.append(name).append("_sum ").append(format(currentTotal / 1e9)).append('\n');
+            writeHeader(text, name + "_max", "gauge", "Longest " + help.substring(0, 1).toLowerCase(Locale.ROOT)
+                    + help.substring(1));
+            text.append(name).append("_max ").append(format(currentMax / 1e9)).append('\n');
+        }
+    }
+
+    public static class Counter extends Metric {
+        private final AtomicLong value = new AtomicLong();
+
+        private Counter(String name, String help) {
+            super(name, help);
+        }
+
+        public void add(long amount) {
+            value.addAndGet(amount);
+        }
+
+        @Override
+        void collect(Map<String, Double> values) {
+            values.put(name, (double) value.get());
+        }
+
+        @Override
+        void writePrometheus(StringBuilder text) {
+            writeHeader(text, name, "counter", help);
+            text.append(name).append(' ').append(value.get()).append('\n');
+        }
+    }
+
+    private static class Gauge extends Metric {
+        private final DoubleSupplier value;
+
+        private Gauge(String name, String help, DoubleSupplier value) {
+            super(name, help);
+            this.value = value;
+        }
+
+        @Override
+        void collect(Map<String, Double> values) {
+            values.put(name, value.getAsDouble());
+        }
+
+        @Override
+        void writePrometheus(StringBuilder text) {
+            // Cumulative JVM figures are counters even though they are read on demand
+            writeHeader(text, name, name.endsWith("_total") ? "counter" : "gauge", help);
+            text.append(name).append(' ').append(format(value.getAsDouble())).append('\n');
+        }
+    }
+}
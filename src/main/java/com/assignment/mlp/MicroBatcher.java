@@ -0,0 +1,165 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges concurrent single-row prediction requests into micro-batches.
+ * Each batching thread takes the first waiting row, then keeps collecting rows until the
+ * batch is full or the oldest row has waited maxWaitMicros, and scores the whole batch
+ * with one forward pass through the model pool. With one thread per pool replica,
+ * several batches are scored in parallel without callers ever locking the network.
+ */
+public class MicroBatcher implements AutoCloseable {
+    private final ModelPool modelPool;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingRow> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> batchThreads = new ArrayList<>();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * @param modelPool     The replicas to score with; one batching thread is started per replica.
+     * @param maxBatchSize  Largest number of rows scored in one forward pass.
+     * @param maxWaitMicros Longest time the first row of a batch waits for more rows to arrive.
+     */
+    public MicroBatcher(ModelPool modelPool, int maxBatchSize, long maxWaitMicros) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be at least 1: " + maxBatchSize);
+        }
+        if (maxWaitMicros < 0) {
+            throw new IllegalArgumentException("Max wait must not be negative: " + maxWaitMicros);
+        }
+        this.modelPool = modelPool;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        for (int i = 0; i < modelPool.size(); i++) {
+            Thread batchThread = new Thread(this::batchLoop, "micro-batcher-" + i);
+            batchThread.setDaemon(true);
+            batchThread.start();
+            batchThreads.add(batchThread);
+        }
+    }
+
+    /**
+     * Queues one row for scoring.
+     *
+     * @param features The raw (unnormalized) feature values.
+     * @return A future completed with the probability of class 1.
+     */
+    public CompletableFuture<Double> submit(float[] features) {
+        if (features.length != modelPool.getNumFeatures()) {
+            throw new IllegalArgumentException("Expected " + modelPool.getNumFeatures() + " features but got " + features.length);
+        }
+        CompletableFuture<Double> result = new CompletableFuture<>();
+        PendingRow row = new PendingRow(features, result);
+        queue.add(row);
+        // A row that raced with close() may have missed the final drain, so fail it here
+        if (!running && queue.remove(row)) {
+            result.completeExceptionally(new IllegalStateException("The micro-batcher is shut down"));
+        }
+        return result;
+    }
+
+    private void batchLoop() {
+        List<PendingRow> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingRow first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                // Take whatever is already queued, then wait for stragglers until the deadline
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingRow next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                score(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            failPending(batch);
+        }
+    }
+
+    private void score(List<PendingRow> batch) throws InterruptedException {
+        try {
+            float[][] features = new float[batch.size()][];
+            for (int i = 0; i < features.length; i++) {
+                features[i] = batch.get(i).features;
+            }
+            double[] probabilities = modelPool.predict(features);
+            // Counted first, so a caller whose row has completed sees its batch in the statistics
+            batches.incrementAndGet();
+            rows.addAndGet(batch.size());
+            for (int i = 0; i < probabilities.length; i++) {
+                batch.get(i).result.complete(probabilities[i]);
+            }
+        } catch (RuntimeException e) {
+            for (PendingRow row : batch) {
+                row.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void failPending(List<PendingRow> batch) {
+        queue.drainTo(batch);
+        for (PendingRow row : batch) {
+            row.result.completeExceptionally(new IllegalStateException("The micro-batcher is shut down"));
+        }
+    }
+
+    public int getNumFeatures() {
+        return modelPool.getNumFeatures();
+    }
+
+    /**
+     * @return The mean number of rows per forward pass so far.
+     */
+    public double getAverageBatchSize() {
+        long batchCount = batches.get();
+        return batchCount > 0 ? (double) rows.get() / batchCount : 0.0;
+    }
+
+    /**
+     * Scores every row that is already queued, then stops the batching threads.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (Thread batchThread : batchThreads) {
+            batchThread.join();
+        }
+    }
+
+    private static class PendingRow {
+        private final float[] features;
+        private final CompletableFuture<Double> result;
+
+        private PendingRow(float[] features, CompletableFuture<Double> result) {
+            this.features = features;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.assignment.mlp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.zip.CRC32;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * Keeps recently used models loaded for inference, so repeated prediction runs in one
+ * process skip the zip deserialization. Entries are keyed by the file's canonical path and
+ * remember its modification time, length and CRC32 checksum. A lookup only reads the file
+ * attributes; the checksum is computed again only when they change, so a model file that is
+ * overwritten in place is loaded again rather than served stale. Models are loaded without their updater
+ * state, which inference never needs. When the estimated memory of the cached models
+ * exceeds the bound, the least recently used ones are evicted.
+ */
+public class ModelCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Access order for LRU
+    private long cachedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param maxBytes Upper bound on the estimated memory of the cached models.
+     *                 The most recently loaded model is kept even if it alone exceeds the bound.
+     */
+    public ModelCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The cache size bound must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the model stored in a zip file, loading it only if this exact file
+     * content is not cached yet.
+     *
+     * @param modelFile The model zip file.
+     * @return The inference-only model. Share it only between callers that do not run it concurrently.
+     * @throws IOException If the file cannot be read or is not a model.
+     */
+    public synchronized TrainedModel get(File modelFile) throws IOException {
+        String path = modelFile.getCanonicalPath();
+        long lastModified = modelFile.lastModified();
+        long length = modelFile.length();
+        Entry cached = entries.get(path);
+        if (cached != null) {
+            if (cached.lastModified == lastModified && cached.length == length) {
+                hits++;
+                return cached.model;
+            }
+            long checksum = checksum(modelFile);
+            if (cached.checksum == checksum) {
+                // Touched or copied over with the same content: keep the model, remember the new attributes
+                entries.put(path, new Entry(cached.model, cached.bytes, lastModified, length, checksum));
+                hits++;
+                return cached.model;
+            }
+            // Overwritten with another model, which replaces this one
+            entries.remove(path);
+            cachedBytes -= cached.bytes;
+        }
+
+        misses++;
+        long checksum = checksum(modelFile);
+        TrainedModel model = TrainedModel.load(modelFile, false);
+        long bytes = estimateBytes(model);
+        entries.put(path, new Entry(model, bytes, lastModified, length, checksum));
+        cachedBytes += bytes;
+        evictToBound();
+        return model;
+    }
+
+    private void evictToBound() {
+        Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+        while (cachedBytes > maxBytes && entries.size() > 1) {
+            cachedBytes -= leastRecentlyUsed.next().bytes;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private static long checksum(File modelFile) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(modelFile.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Estimates a model's resident size from its parameters; activations are transient
+     * and the normalizer holds only a few vectors.
+     */
+    private static long estimateBytes(TrainedModel model) {
+        INDArray params = model.getNetwork().params();
+        return params.length() * params.dataType().width();
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return A short summary such as "2 model(s), 1.3 MiB, 5 hit(s), 2 miss(es)".
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("%d model(s), %.1f MiB, %d hit(s), %d miss(es)",
+                entries.size(), cachedBytes / (1024.0 * 1024.0), hits, misses);
+    }
+
+    private static class Entry {
+        private final TrainedModel model;
+        private final long bytes;
+        private final long lastModified;
+        private final long length;
+        private final long checksum;
+
+        private Entry(TrainedModel model, long bytes, long lastModified, long length, long checksum) {
+            this.model = model;
+            this.bytes = bytes;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.checksum = checksum;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.assignment.mlp;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * A thread-safe prediction facade over a fixed set of network replicas.
+ * MultiLayerNetwork keeps per-call state (layer inputs, workspaces), so one instance
+ * cannot run output() from several threads at once. Each replica here is built from
+ * the loaded network's configuration and initialized on a view of the same parameter
+ * array, so the weights exist once in memory and no zip is deserialized again.
+ * A caller checks a replica out of a lock-free queue; a semaphore only makes callers
+ * wait when every replica is busy.
+ */
+public class ModelPool {
+    private final DataNormalization normalizer;
+    private final int numFeatures;
+    private final int size;
+    private final ConcurrentLinkedQueue<MultiLayerNetwork> idle = new ConcurrentLinkedQueue<>();
+    private final Semaphore available;
+
+    /**
+     * @param trainedModel The loaded model. Its network becomes the first replica.
+     * @param replicas     Number of replicas, i.e. how many predictions can run at once.
+     */
+    public ModelPool(TrainedModel trainedModel, int replicas) {
+        if (replicas < 1) {
+            throw new IllegalArgumentException("A model pool needs at least one replica: " + replicas);
+        }
+        MultiLayerNetwork original = trainedModel.getNetwork();
+        this.normalizer = trainedModel.getNormalizer();
+        this.numFeatures = original.layerInputSize(0);
+        this.size = replicas;
+
+        idle.add(original);
+        INDArray sharedParams = original.params();
+        for (int i = 1; i < replicas; i++) {
+            MultiLayerNetwork replica = new MultiLayerNetwork(original.getLayerWiseConfigurations().clone());
+            replica.init(sharedParams, false); // false: use the array as the parameter view instead of copying it
+            idle.add(replica);
+        }
+        this.available = new Semaphore(replicas);
+    }
+
+    /**
+     * Scores a block of rows.
+     *
+     * @param rows Raw (unnormalized) feature rows. The array is not modified.
+     * @return The probability of class 1 for every row.
+     * @throws InterruptedException If interrupted while waiting for a free replica.
+     */
+    public double[] predict(float[][] rows) throws InterruptedException {
+        for (float[] row : rows) {
+            if (row.length != numFeatures) {
+                throw new IllegalArgumentException("Expected " + numFeatures + " features but got " + row.length);
+            }
+        }
+        INDArray input = Nd4j.create(rows);
+        if (normalizer != null) {
+            normalizer.transform(input);
+        }
+
+        available.acquire();
+        MultiLayerNetwork replica = idle.poll(); // Never null: a permit guarantees an idle replica
+        try {
+            return replica.output(input).toDoubleVector();
+        } finally {
+            idle.add(replica);
+            available.release();
+        }
+    }
+
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    public int size() {
+        return size;
+    }
+}
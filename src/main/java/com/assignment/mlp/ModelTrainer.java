@@ -0,0 +1,163 @@
+package com.assignment.mlp;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.evaluation.classification.Evaluation;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+
+/**
+ * Trains a single model from user-supplied parameters. Shared by the interactive
+ * menu and the command-line mode so both follow exactly the same steps.
+ */
+public class ModelTrainer {
+    private static final int MIN_OUT_OF_CORE_ROW_GROUPS = 10; // Enough groups to split into train/validation/test
+
+    /**
+     * Loads and splits the data, trains a network for the configured number of epochs
+     * and evaluates it on the validation rows and, if present, the test rows.
+     *
+     * @param input        The training parameters.
+     * @param splitConfig  How to divide the data.
+     * @param reportEpochs Whether to print a line after every epoch.
+     * @return The trained model, its evaluations and phase timings.
+     * @throws Exception If the data cannot be loaded or training fails.
+     */
+    public static TrainingRun train(UserInput input, SplitConfig splitConfig, boolean reportEpochs) throws Exception {
+        return train(input, splitConfig, reportEpochs, 1, 1);
+    }
+
+    /**
+     * Trains as {@link #train(UserInput, SplitConfig, boolean)}, optionally on several cores
+     * at once with a {@link DataParallelTrainer}.
+     *
+     * @param replicas           The number of network replicas; 1 trains the network directly.
+     *                           With more, each replica is limited to one native thread.
+     * @param averagingFrequency The batches each replica fits between parameter averages.
+     */
+    public static TrainingRun train(UserInput input, SplitConfig splitConfig, boolean reportEpochs,
+                                    int replicas, int averagingFrequency) throws Exception {
+        if (BinaryDataFile.isBinary(input.getDataPath())) {
+            long loadStart = System.currentTimeMillis();
+            BinaryDataFile binaryFile = BinaryDataFile.open(input.getDataPath());
+            if (binaryFile.numRowGroups() >= MIN_OUT_OF_CORE_ROW_GROUPS) {
+                return trainOutOfCore(input, splitConfig, reportEpochs, replicas, averagingFrequency, binaryFile,
+                        System.currentTimeMillis() - loadStart);
+            }
+        }
+        int batchSize = input.getBatchSize();
+
+        long loadStart = System.currentTimeMillis();
+        DataSplits dataSplits = DataLoader.loadSplits(input.getDataPath(), splitConfig);
+        long loadMillis = System.currentTimeMillis() - loadStart;
+
+        MultiLayerNetwork model = MultilayerPerceptron.buildNetwork(input.getSeed(), dataSplits.getTrain().numFeatures(),
+                input.getLearningRate(), input.getLayers(), input.getActivation(), input.getWeightInit());
+        long startTime = System.currentTimeMillis();
+        fitEpochs(model, dataSplits.getTrain().iterator(batchSize), input.getEpochs(), reportEpochs,
+                replicas, averagingFrequency);
+        long trainingMillis = System.currentTimeMillis() - startTime;
+
+        // Evaluate on held-out rows; training accuracy says little about generalisation
+        long evaluationStart = System.currentTimeMillis();
+        Evaluation validationEval = model.evaluate(dataSplits.getValidation().iterator(batchSize));
+        Evaluation testEval = dataSplits.hasTest() ? model.evaluate(dataSplits.getTest().iterator(batchSize)) : null;
+        long evaluationMillis = System.currentTimeMillis() - evaluationStart;
+
+        return new TrainingRun(new TrainedModel(model, dataSplits.getTrain().getNormalizer()),
+                validationEval, testEval, dataSplits.getTrain().numExamples(), loadMillis, trainingMillis, evaluationMillis);
+    }
+
+    /**
+     * Trains directly on a memory-mapped binary dataset without loading it onto the heap.
+     * Whole row groups are assigned to the training, validation and test partitions (so the
+     * split is not stratified), and the training groups are visited in a new random order
+     * every epoch. The normalizer is fitted on the training groups only and applied to every partition.
+     */
+    private static TrainingRun trainOutOfCore(UserInput input, SplitConfig splitConfig, boolean reportEpochs,
+                                              int replicas, int averagingFrequency, BinaryDataFile binaryFile,
+                                              long loadMillis) throws Exception {
+        if (splitConfig.isCrossValidation()) {
+            throw new IllegalArgumentException("Out-of-core training uses a single validation split, not k-fold");
+        }
+        int batchSize = input.getBatchSize();
+        int numGroups = binaryFile.numRowGroups();
+        int[] groups = new int[numGroups];
+        for (int g = 0; g < numGroups; g++) {
+            groups[g] = g;
+        }
+        Random random = new Random(splitConfig.getSeed());
+        for (int i = numGroups - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = groups[i];
+            groups[i] = groups[j];
+            groups[j] = swap;
+        }
+        int testGroups = (int) Math.round(splitConfig.getTestFraction() * numGroups);
+        int validationGroups = Math.max(1, (int) Math.round(splitConfig.getValidationFraction() * numGroups));
+        int[] test = Arrays.copyOfRange(groups, 0, testGroups);
+        int[] validation = Arrays.copyOfRange(groups, testGroups, testGroups + validationGroups);
+        int[] train = Arrays.copyOfRange(groups, testGroups + validationGroups, numGroups);
+        if (train.length == 0) {
+            throw new IllegalArgumentException("The split leaves no row groups for training");
+        }
+
+        NormalizerStandardize normalizer = binaryFile.fitNormalizer(train);
+        BinaryDataSetIterator trainGroups = binaryFile.iterator(batchSize, train, new Random(input.getSeed()));
+        trainGroups.setPreProcessor(normalizer);
+        MultiLayerNetwork model = MultilayerPerceptron.buildNetwork(input.getSeed(), binaryFile.numFeatures(),
+                input.getLearningRate(), input.getLayers(), input.getActivation(), input.getWeightInit());
+
+        long startTime = System.currentTimeMillis();
+        fitEpochs(model, trainGroups, input.getEpochs(), reportEpochs, replicas, averagingFrequency);
+        long trainingMillis = System.currentTimeMillis() - startTime;
+
+        long evaluationStart = System.currentTimeMillis();
+        BinaryDataSetIterator validationBatches = binaryFile.iterator(batchSize, validation, null);
+        validationBatches.setPreProcessor(normalizer);
+        Evaluation validationEval = model.evaluate(validationBatches);
+        Evaluation testEval = null;
+        if (test.length > 0) {
+            BinaryDataSetIterator testBatches = binaryFile.iterator(batchSize, test, null);
+            testBatches.setPreProcessor(normalizer);
+            testEval = model.evaluate(testBatches);
+        }
+        long evaluationMillis = System.currentTimeMillis() - evaluationStart;
+
+        return new TrainingRun(new TrainedModel(model, normalizer), validationEval, testEval,
+                trainGroups.numExamples(), loadMillis, trainingMillis, evaluationMillis);
+    }
+
+    /**
+     * Runs the training epochs, directly on the network or across data-parallel replicas.
+     */
+    private static void fitEpochs(MultiLayerNetwork model, DataSetIterator trainData, int epochs, boolean reportEpochs,
+                                  int replicas, int averagingFrequency) throws Exception {
+        if (replicas == 1) {
+            DataSetIterator instrumented = TrainingMetricsListener.instrument(model, trainData);
+            for (int i = 0; i < epochs; i++) {
+                model.fit(instrumented);
+                instrumented.reset();
+                if (reportEpochs) {
+                    System.out.printf("\rEpoch %d/%d completed.%n", (i + 1), epochs);
+                }
+            }
+            return;
+        }
+
+        // Replicas scale across cores, so each gets one native thread rather than competing for all of them
+        DataSetIterator instrumented = TrainingMetricsListener.instrument(model, trainData);
+        try (WorkerLayout.ThreadLimits previousLimits = WorkerLayout.singleThreaded(replicas).apply();
+             DataParallelTrainer trainer = new DataParallelTrainer(model, replicas, averagingFrequency)) {
+            for (int i = 0; i < epochs; i++) {
+                trainer.fit(instrumented);
+                instrumented.reset();
+                if (reportEpochs) {
+                    System.out.printf("\rEpoch %d/%d completed.%n", (i + 1), epochs);
+                }
+            }
+        }
+    }
+}
@@ -1,46 +1,95 @@
 package com.assignment.mlp;
 
-import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import java.util.List;
+
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.conf.layers.ActivationLayer;
+import org.deeplearning4j.nn.conf.layers.BatchNormalization;
 import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.DropoutLayer;
 import org.deeplearning4j.nn.conf.layers.OutputLayer;
 import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
 import org.deeplearning4j.nn.weights.WeightInit;
 import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.learning.config.Adam;
 import org.nd4j.linalg.lossfunctions.LossFunctions;
 
+/**
+ * Builds every network in the application: any number of hidden layers, each with its own
+ * width and optionally its own activation, batch normalization and dropout, followed by a
+ * single sigmoid output for binary classification.
+ */
 public class MultilayerPerceptron {
+
     public static MultiLayerNetwork buildNetwork(long seed, int numInputs, double learningRate, int[] neuronsPerLayer, Activation activation, WeightInit weightInit) {
-        MultiLayerConfiguration config = new NeuralNetConfiguration.Builder()
+        return buildNetwork(seed, numInputs, learningRate, LayerSpec.widths(neuronsPerLayer), activation, weightInit);
+    }
+
+    /**
+     * Builds the network described by a search configuration.
+     *
+     * @param config    The hyperparameters; the epochs and batch size are not part of the network.
+     * @param numInputs The number of input features, taken from the data.
+     * @param seed      The seed for weight initialization.
+     */
+    public static MultiLayerNetwork buildNetwork(HyperparameterConfig config, int numInputs, long seed) {
+        return buildNetwork(seed, numInputs, config.getLearningRate(), config.getLayers(),
+                config.getActivation(), config.getWeightInit());
+    }
+
+    public static MultiLayerNetwork buildNetwork(long seed, int numInputs, double learningRate, List<LayerSpec> layers,
+                                                 Activation defaultActivation, WeightInit weightInit) {
+        return buildNetwork(seed, numInputs, learningRate, layers, defaultActivation, weightInit, DataType.FLOAT);
+    }
+
+    /**
+     * @param seed              The seed for weight initialization.
+     * @param numInputs         The number of input features, taken from the data.
+     * @param learningRate      The Adam learning rate.
+     * @param layers            The hidden layers, in order from the input side.
+     * @param defaultActivation The activation of layers that do not specify their own.
+     * @param weightInit        The weight initialization scheme.
+     * @param dataType          The type of the parameters and activations. Set explicitly so a
+     *                          {@code -Ddtype} override of ND4J's global default cannot change it.
+     * @return The initialized network.
+     */
+    public static MultiLayerNetwork buildNetwork(long seed, int numInputs, double learningRate, List<LayerSpec> layers,
+                                                 Activation defaultActivation, WeightInit weightInit, DataType dataType) {
+        if (layers.isEmpty()) {
+            throw new IllegalArgumentException("At least one hidden layer is required");
+        }
+        NeuralNetConfiguration.ListBuilder builder = new NeuralNetConfiguration.Builder()
                 .seed(seed)
+                .dataType(dataType)
                 .weightInit(weightInit)
                 .updater(new Adam(learningRate))
-                .list()
-                .layer(new DenseLayer.Builder()
-                        .nIn(numInputs)
-                        .nOut(neuronsPerLayer[0]) // Number of neurons in the first hidden layer
-                        .activation(activation) 
-                        .build())
-                .layer(new DenseLayer.Builder()
-                        .nIn(neuronsPerLayer[0])
-                        .nOut(neuronsPerLayer[1]) // Number of neurons in the second hidden layer
-                        .activation(activation)
-                        .build())
-                .layer(new DenseLayer.Builder()
-                        .nIn(neuronsPerLayer[1])
-                        .nOut(neuronsPerLayer[2]) // Number of neurons in the third hidden layer
-                        .activation(activation) 
-                        .build())
-                .layer(new OutputLayer.Builder(LossFunctions.LossFunction.XENT) // Binary Cross-Entropy
-                        .nIn(neuronsPerLayer[2])
-                        .nOut(1) // Number of neurons in the output layer
-                        .activation(Activation.SIGMOID) // Use sigmoid for binary classification	
-                        .build())
-                .build();
-
-        MultiLayerNetwork model = new MultiLayerNetwork(config);
+                .list();
+
+        for (LayerSpec layer : layers) {
+            Activation activation = layer.getActivation(defaultActivation);
+            if (layer.isBatchNorm()) {
+                // Normalize the pre-activations, so the activation moves to its own layer
+                builder.layer(new DenseLayer.Builder().nOut(layer.getWidth()).activation(Activation.IDENTITY).build());
+                builder.layer(new BatchNormalization.Builder().build());
+                builder.layer(new ActivationLayer.Builder().activation(activation).build());
+            } else {
+                builder.layer(new DenseLayer.Builder().nOut(layer.getWidth()).activation(activation).build());
+            }
+            if (layer.getDropout() > 0) {
+                builder.layer(new DropoutLayer.Builder(1 - layer.getDropout()).build()); // DL4J takes the retain probability
+            }
+        }
+
+        builder.layer(new OutputLayer.Builder(LossFunctions.LossFunction.XENT) // Binary Cross-Entropy
+                .nOut(1) // Number of neurons in the output layer
+                .activation(Activation.SIGMOID) // Use sigmoid for binary classification
+                .build());
+        builder.setInputType(InputType.feedForward(numInputs)); // Infers every layer's input width
+
+        MultiLayerNetwork model = new MultiLayerNetwork(builder.build());
         model.init();
-        return model;   
+        return model;
     }
 }
@@ -0,0 +1,46 @@
+package com.assignment.mlp;
+
+import java.util.Random;
+
+/**
+ * Samples every dimension of a search space uniformly, so the learning rate and the layer
+ * widths are log-uniform. With the same seed the same sequence of configurations is proposed,
+ * so a resumed search skips exactly the trials that already finished.
+ */
+public class RandomSearchStrategy implements SearchStrategy {
+    private final SearchSpace space;
+    private final Random random;
+
+    public RandomSearchStrategy(SearchSpace space, long seed) {
+        this.space = space;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+
+    @Override
+    public HyperparameterConfig propose() {
+        return space.decode(samplePoint(space, random));
+    }
+
+    @Override
+    public void observe(HyperparameterConfig config, double score) {
+        // Samples do not depend on earlier results
+    }
+
+    @Override
+    public int size() {
+        return -1;
+    }
+
+    static double[] samplePoint(SearchSpace space, Random random) {
+        double[] point = new double[space.dimensions()];
+        for (int d = 0; d < point.length; d++) {
+            point[d] = random.nextDouble();
+        }
+        return point;
+    }
+}
@@ -0,0 +1,178 @@
+package com.assignment.mlp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * Appends grid search results to a CSV file from a dedicated background thread.
+ * Results are handed over through a bounded queue and flushed as soon as the
+ * queue runs dry, so each result reaches the file moments after its trial ends
+ * while a burst of completions is still written with a single flush.
+ */
+public class ResultWriter implements AutoCloseable {
+    private static final GridSearchResult END_OF_STREAM = new GridSearchResult(-1, null, 0, 0, 0, 0);
+
+    private final File resultsFile;
+    private final BlockingQueue<GridSearchResult> queue;
+    private final BufferedWriter writer;
+    private final Thread writerThread;
+    private volatile IOException failure;
+
+    /**
+     * Opens the results file for appending. An existing file whose header differs from
+     * {@link GridSearchResult#CSV_HEADER} was written with another column layout, so it is
+     * renamed out of the way (see {@link #rotate}) and a new file is started.
+     *
+     * @param resultsFile The CSV file to append to.
+     * @param capacity    Results that may be queued before {@link #submit} blocks.
+     * @throws IOException If the file cannot be read, renamed or opened.
+     */
+    public ResultWriter(File resultsFile, int capacity) throws IOException {
+        if (resultsFile.length() > 0 && !GridSearchResult.CSV_HEADER.equals(readHeader(resultsFile))) {
+            File rotated = rotate(resultsFile);
+            System.out.println("Moved " + resultsFile + " to " + rotated + ": its columns differ from the current results.");
+        }
+        boolean fileExists = resultsFile.length() > 0; // Check if file already exists to decide on header writing
+        this.resultsFile = resultsFile;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new BufferedWriter(new FileWriter(resultsFile, true));
+        if (!fileExists) {
+            writer.write(GridSearchResult.CSV_HEADER + "\n");
+            writer.flush();
+        }
+        this.writerThread = new Thread(this::drainQueue, "grid-result-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    private static String readHeader(File file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return reader.readLine();
+        }
+    }
+
+    /**
+     * Renames a file to the first free name of the form {@code name.1.csv}, {@code name.2.csv}, ...
+     *
+     * @return The new name.
+     */
+    static File rotate(File file) throws IOException {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        File rotated;
+        int n = 1;
+        do {
+            rotated = new File(file.getAbsoluteFile().getParentFile(), stem + "." + n++ + extension);
+        } while (rotated.exists());
+        Files.move(file.toPath(), rotated.toPath());
+        return rotated;
+    }
+
+    /**
+     * Queues a result for writing, blocking if the writer has fallen too far behind.
+     *
+     * @param result The completed trial result.
+     * @throws IOException          If an earlier write failed.
+     * @throws InterruptedException If interrupted while waiting for queue space.
+     */
+    public void submit(GridSearchResult result) throws IOException, InterruptedException {
+        checkFailure();
+        queue.put(result);
+    }
+
+    /**
+     * Appends every given result line whose trial the file does not already contain. A resumed
+     * search passes the results its ledger recorded as done, so a crash between the ledger record
+     * and the write does not lose the row. Call it before submitting any result.
+     *
+     * @param csvLines Result lines as written by {@link GridSearchResult#toCSVString()}.
+     * @return The number of lines appended.
+     * @throws IOException If the file cannot be read or written.
+     */
+    public int restoreMissing(Stream<String> csvLines) throws IOException {
+        writer.flush();
+        BitSet written = new BitSet(); // By trial number, so a large file costs one bit per row
+        try (BufferedReader reader = Files.newBufferedReader(resultsFile.toPath(), StandardCharsets.UTF_8)) {
+            reader.readLine(); // Header
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) {
+                    written.set(GridSearchResult.parseTrial(line));
+                }
+            }
+        }
+        int restored = 0;
+        for (Iterator<String> lines = csvLines.iterator(); lines.hasNext(); ) {
+            String line = lines.next();
+            int trial = GridSearchResult.parseTrial(line);
+            if (!written.get(trial)) {
+                written.set(trial);
+                writer.write(line + "\n");
+                restored++;
+            }
+        }
+        writer.flush();
+        return restored;
+    }
+
+    private void drainQueue() {
+        List<GridSearchResult> pending = new ArrayList<>();
+        try {
+            while (true) {
+                pending.add(queue.take());
+                queue.drainTo(pending);
+
+                boolean endOfStream = false;
+                for (GridSearchResult result : pending) {
+                    if (result == END_OF_STREAM) {
+                        endOfStream = true;
+                        break;
+                    }
+                    writer.write(result.toCSVString() + "\n");
+                }
+                writer.flush();
+                pending.clear();
+
+                if (endOfStream) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Failed to write grid search results", failure);
+        }
+    }
+
+    /**
+     * Writes every queued result, then closes the file.
+     */
+    @Override
+    public void close() throws IOException, InterruptedException {
+        if (writerThread.isAlive()) {
+            queue.put(END_OF_STREAM);
+            writerThread.join();
+        }
+        writer.close();
+        checkFailure();
+    }
+}
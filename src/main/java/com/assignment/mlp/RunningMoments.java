@@ -0,0 +1,51 @@
+package com.assignment.mlp;
+
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Per-feature mean and variance accumulated one row at a time with Welford's algorithm,
+ * so a standardizing normalizer can be fitted in a single streaming pass in constant memory.
+ */
+public class RunningMoments {
+    private final double[] mean;
+    private final double[] sumOfSquares; // Sum of squared differences from the running mean
+    private long count = 0;
+
+    public RunningMoments(int numFeatures) {
+        this.mean = new double[numFeatures];
+        this.sumOfSquares = new double[numFeatures];
+    }
+
+    public void add(float[] row) {
+        count++;
+        for (int f = 0; f < mean.length; f++) {
+            double delta = row[f] - mean[f];
+            mean[f] += delta / count;
+            sumOfSquares[f] += delta * (row[f] - mean[f]);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return A normalizer that standardizes with the accumulated mean and population standard deviation,
+     *         floored at {@link Nd4j#EPS_THRESHOLD} like NormalizerStandardize.fit, so a constant feature
+     *         is not divided by zero.
+     */
+    public NormalizerStandardize toNormalizer() {
+        if (count == 0) {
+            throw new IllegalStateException("Cannot fit a normalizer without any rows");
+        }
+        float[] featureMean = new float[mean.length];
+        float[] featureStd = new float[mean.length];
+        for (int f = 0; f < mean.length; f++) {
+            featureMean[f] = (float) mean[f];
+            featureStd[f] = (float) Math.max(Math.sqrt(sumOfSquares[f] / count), Nd4j.EPS_THRESHOLD);
+        }
+        return new NormalizerStandardize(Nd4j.create(featureMean, new long[]{1, mean.length}),
+                Nd4j.create(featureStd, new long[]{1, mean.length}));
+    }
+}
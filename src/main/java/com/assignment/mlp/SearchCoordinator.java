@@ -0,0 +1,418 @@
+package com.assignment.mlp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs a search whose trials are trained by {@link SearchWorker} processes, on this machine
+ * or on others. Workers connect over TCP and lease one trial group at a time, the same unit
+ * of work as in {@link GridSearchExecutor}. While a worker trains it sends heartbeats; a lease
+ * whose worker disconnects or stops sending heartbeats for the lease timeout goes back to the
+ * front of the queue for the next worker.
+ *
+ * The coordinator alone proposes configurations, keeps the trial ledger and writes the
+ * results, so the files, the resume behaviour and the trial numbers (and therefore seeds)
+ * are the same as for a local search. A result that arrives for a trial already finished
+ * by another worker is ignored.
+ *
+ * The protocol has no authentication: bind to a non-loopback address only on a trusted network.
+ */
+public class SearchCoordinator implements AutoCloseable {
+    private static final int RESULT_QUEUE_CAPACITY = 1024;
+    private static final long WAIT_MILLIS = 1000; // How long an idle worker waits before asking again
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final ScheduledExecutorService reaper;
+    private final String dataPath;
+    private final long baseSeed;
+    private final SplitConfig splitConfig;
+    private final SearchStrategy strategy;
+    private final int maxTrials;
+    private final long timeBudgetMillis;
+    private final long leaseTimeoutMillis;
+    private final boolean resume;
+
+    // Guarded by this
+    private final Deque<TrialGroup> pending = new ArrayDeque<>(); // Re-queued leases, handed out before new runs
+    private final Map<Long, Lease> leases = new HashMap<>();
+    private final Map<Long, Lease> expired = new HashMap<>(); // Re-queued after a timeout, but may still report back
+    private final BitSet finishedTrials = new BitSet(); // By trial number
+    private HyperparameterConfig sample;
+    private TrialLedger ledger;
+    private ResultWriter writer;
+    private TrialSource source;
+    private long nextLeaseId = 1;
+    private long startMillis;
+    private int completedCount = 0;
+    private GridSearchResult best;
+
+    /**
+     * Binds the coordinator's port; workers can connect once {@link #run} has started.
+     *
+     * @param bindAddress        The address to listen on, for example 127.0.0.1 or 0.0.0.0.
+     * @param port               The port (0 picks a free port).
+     * @param dataPath           The training data, as seen by workers that do not override it.
+     * @param leaseTimeoutMillis A lease without a heartbeat for this long is given to another worker.
+     * @throws IOException If the port cannot be bound.
+     */
+    public SearchCoordinator(String bindAddress, int port, String dataPath, long baseSeed, SplitConfig splitConfig,
+                             SearchStrategy strategy, int maxTrials, long timeBudgetMillis, boolean resume,
+                             long leaseTimeoutMillis) throws IOException {
+        if (strategy.size() < 0 && maxTrials == 0 && timeBudgetMillis == 0) {
+            throw new IllegalArgumentException("The " + strategy.getName() + " search never runs out of configurations; "
+                    + "give it a trial or time budget");
+        }
+        if (leaseTimeoutMillis < 1000) {
+            throw new IllegalArgumentException("The lease timeout must be at least one second");
+        }
+        this.dataPath = dataPath;
+        this.baseSeed = baseSeed;
+        this.splitConfig = splitConfig;
+        this.strategy = strategy;
+        this.maxTrials = maxTrials;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.resume = resume;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName(bindAddress), port));
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "coordinator-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coordinator-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return The number of leases currently held by workers.
+     */
+    synchronized int countLeases() {
+        return leases.size();
+    }
+
+    /**
+     * Serves leases until every trial has finished, the trial budget is used up or the time
+     * budget has passed and the outstanding leases have returned.
+     */
+    public void run() throws IOException, InterruptedException {
+        String resultsFileName = strategy.getName() + "_search_results.csv";
+        try (TrialLedger trialLedger = new TrialLedger(Paths.get(strategy.getName() + "_search_ledger.log"), resume);
+             ResultWriter resultWriter = new ResultWriter(new File(resultsFileName), RESULT_QUEUE_CAPACITY)) {
+            synchronized (this) {
+                ledger = trialLedger;
+                writer = resultWriter;
+                sample = strategy.propose();
+                if (sample == null) {
+                    System.out.println("No hyperparameter combinations generated. Search aborted.");
+                    return;
+                }
+                source = new TrialSource(strategy, sample, maxTrials, ledger);
+                if (resume) {
+                    System.out.println("Resuming: " + ledger.countDone() + " trial(s) already done.");
+                    int restored;
+                    try (Stream<String> done = ledger.doneResults()) {
+                        restored = writer.restoreMissing(done);
+                    }
+                    if (restored > 0) {
+                        System.out.println("Restored " + restored + " result row(s) missing from " + resultsFileName + ".");
+                    }
+                }
+                startMillis = System.currentTimeMillis();
+            }
+
+            Thread acceptor = new Thread(this::acceptConnections, "coordinator-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            reaper.scheduleAtFixedRate(this::expireLeases, 1, 1, TimeUnit.SECONDS);
+            System.out.println("Coordinating the " + strategy.getName() + " search on "
+                    + serverSocket.getInetAddress().getHostAddress() + ":" + getPort() + " ("
+                    + (strategy.size() >= 0 ? "up to " + strategy.size() + " trials" : "no trial limit") + ")");
+
+            synchronized (this) {
+                while (!isFinished()) {
+                    wait(WAIT_MILLIS); // Also wakes up to notice the time budget passing
+                }
+                ledger = null;
+                writer = null;
+            }
+            Thread.sleep(2 * WAIT_MILLIS); // Idle workers ask again within this time and are told the search is done
+            System.out.println("Search completed! " + completedCount + " trial(s) finished. Results saved to " + resultsFileName);
+            if (best != null) {
+                System.out.printf(Locale.US, "Best trial: %d (validation F1 %.4f, accuracy %.4f) with %s%n",
+                        best.getTrial(), best.getF1Score(), best.getAccuracy(), best.getConfig().getStableKey());
+            }
+        }
+    }
+
+    private boolean isFinished() {
+        boolean nothingLeft = pending.isEmpty() && source.isExhausted();
+        return leases.isEmpty() && (nothingLeft || isTimeUp());
+    }
+
+    private boolean isTimeUp() {
+        return timeBudgetMillis > 0 && System.currentTimeMillis() - startMillis >= timeBudgetMillis;
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Failed to accept a worker connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers one worker's requests until it disconnects, then re-queues the leases it still holds.
+     */
+    private void serve(Socket socket) {
+        String worker = socket.getRemoteSocketAddress().toString();
+        Set<Long> held = new HashSet<>();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            Map<String, Object> request;
+            while ((request = SearchProtocol.read(in)) != null) {
+                Map<String, Object> reply;
+                try {
+                    if ("hello".equals(request.get("type")) && request.get("worker") != null) {
+                        worker = request.get("worker") + " (" + socket.getRemoteSocketAddress() + ")";
+                    }
+                    reply = handle(request, worker, held);
+                } catch (RuntimeException e) {
+                    reply = SearchProtocol.message("error");
+                    reply.put("error", String.valueOf(e.getMessage()));
+                }
+                SearchProtocol.write(out, reply);
+            }
+        } catch (IOException e) {
+            // The worker is gone; its leases are released below
+        } finally {
+            release(held, worker);
+        }
+    }
+
+    private synchronized Map<String, Object> handle(Map<String, Object> request, String worker, Set<Long> held)
+            throws IOException {
+        String type = String.valueOf(request.get("type"));
+        switch (type) {
+            case "hello" -> {
+                Map<String, Object> welcome = SearchProtocol.message("welcome");
+                welcome.put("dataPath", dataPath);
+                welcome.put("baseSeed", baseSeed);
+                welcome.put("split", SearchProtocol.encodeSplit(splitConfig));
+                welcome.put("heartbeatMillis", leaseTimeoutMillis / 3);
+                welcome.put("sample", SearchProtocol.encodeConfig(sample));
+                return welcome;
+            }
+            case "lease" -> {
+                TrialGroup group = nextGroup();
+                if (group == null) {
+                    Map<String, Object> reply = SearchProtocol.message(isFinished() ? "done" : "wait");
+                    reply.put("millis", WAIT_MILLIS);
+                    return reply;
+                }
+                long leaseId = nextLeaseId++;
+                leases.put(leaseId, new Lease(group, worker));
+                held.add(leaseId);
+                for (int i = 0; i < group.size(); i++) {
+                    ledger.recordStarted(group.getConfigs().get(i), group.getTrials()[i]);
+                }
+                Map<String, Object> reply = SearchProtocol.message("lease");
+                reply.put("lease", leaseId);
+                SearchProtocol.encodeGroup(group, reply);
+                return reply;
+            }
+            case "heartbeat" -> {
+                Lease lease = leases.get(((Number) request.get("lease")).longValue());
+                if (lease != null) {
+                    lease.lastHeartbeatMillis = System.currentTimeMillis();
+                }
+                return SearchProtocol.message("ok");
+            }
+            case "result" -> {
+                Lease lease = finishLease(((Number) request.get("lease")).longValue(), held);
+                if (lease != null) {
+                    @SuppressWarnings("unchecked")
+                    List<Map<String, Object>> results = (List<Map<String, Object>>) request.get("results");
+                    recordResults(lease.group, results, worker);
+                }
+                return SearchProtocol.message("ok");
+            }
+            case "failed" -> {
+                Lease lease = finishLease(((Number) request.get("lease")).longValue(), held);
+                if (lease != null) {
+                    String error = String.valueOf(request.get("error"));
+                    for (int i = 0; i < lease.group.size(); i++) {
+                        if (!finishedTrials.get(lease.group.getTrials()[i])) {
+                            finishedTrials.set(lease.group.getTrials()[i]);
+                            ledger.recordFailed(lease.group.getConfigs().get(i), error);
+                            strategy.observe(lease.group.getConfigs().get(i), Double.NaN);
+                            completedCount++;
+                        }
+                    }
+                    System.err.println("Error in trial(s) " + Arrays.toString(lease.group.getTrials())
+                            + " on " + worker + ": " + error);
+                }
+                return SearchProtocol.message("ok");
+            }
+            default -> throw new IllegalArgumentException("Unknown request type: " + type);
+        }
+    }
+
+    /**
+     * @return The next group to lease, a re-queued one first, or null.
+     */
+    private TrialGroup nextGroup() {
+        if (isTimeUp()) {
+            return null;
+        }
+        return pending.isEmpty() ? source.next() : pending.poll();
+    }
+
+    /**
+     * Ends a lease when its worker reports back. A lease that already expired still counts
+     * if its trials have not finished elsewhere, and its re-queued copy is withdrawn.
+     */
+    private Lease finishLease(long leaseId, Set<Long> held) {
+        held.remove(leaseId);
+        Lease lease = leases.remove(leaseId);
+        if (lease == null) {
+            lease = expired.remove(leaseId);
+            if (lease != null) {
+                pending.remove(lease.group);
+            }
+        }
+        notifyAll();
+        return lease;
+    }
+
+    private void recordResults(TrialGroup group, List<Map<String, Object>> encoded, String worker) throws IOException {
+        Map<Integer, HyperparameterConfig> configsByTrial = new HashMap<>();
+        for (int i = 0; i < group.size(); i++) {
+            configsByTrial.put(group.getTrials()[i], group.getConfigs().get(i));
+        }
+        List<Integer> recorded = new ArrayList<>();
+        for (Map<String, Object> entry : encoded) {
+            int trial = ((Number) entry.get("trial")).intValue();
+            HyperparameterConfig config = configsByTrial.get(trial);
+            if (config == null || finishedTrials.get(trial)) {
+                continue; // Not part of this lease, or already reported by another worker
+            }
+            finishedTrials.set(trial);
+            GridSearchResult result = SearchProtocol.decodeResult(entry, config);
+            ledger.recordDone(result);
+            try {
+                writer.submit(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing a result", e);
+            }
+            strategy.observe(config, result.getF1Score());
+            completedCount++;
+            recorded.add(trial);
+            if (best == null || result.getF1Score() > best.getF1Score()) {
+                best = result;
+            }
+        }
+        if (!recorded.isEmpty()) {
+            System.out.printf(Locale.US, "Trial(s) %s done by %s; %d finished, best F1 %.4f%n",
+                    recorded, worker, completedCount, best.getF1Score());
+        }
+    }
+
+    /**
+     * Re-queues the leases of a worker that disconnected.
+     */
+    private synchronized void release(Set<Long> held, String worker) {
+        for (long leaseId : held) {
+            Lease lease = leases.remove(leaseId);
+            if (lease != null) {
+                pending.addFirst(lease.group);
+                System.err.println("Lost " + worker + "; trial(s) " + Arrays.toString(lease.group.getTrials())
+                        + " re-queued.");
+            }
+        }
+        held.clear();
+        notifyAll();
+    }
+
+    /**
+     * Re-queues every lease whose worker has not sent a heartbeat within the lease timeout.
+     */
+    private synchronized void expireLeases() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Long, Lease>> iterator = leases.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Lease> entry = iterator.next();
+            Lease lease = entry.getValue();
+            if (now - lease.lastHeartbeatMillis > leaseTimeoutMillis) {
+                iterator.remove();
+                expired.put(entry.getKey(), lease);
+                pending.addFirst(lease.group);
+                System.err.println("Lease of trial(s) " + Arrays.toString(lease.group.getTrials()) + " held by "
+                        + lease.worker + " expired; re-queued.");
+            }
+        }
+        notifyAll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reaper.shutdownNow();
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private static class Lease {
+        private final TrialGroup group;
+        private final String worker;
+        private long lastHeartbeatMillis = System.currentTimeMillis();
+
+        private Lease(TrialGroup group, String worker) {
+            this.group = group;
+            this.worker = worker;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.assignment.mlp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.shade.jackson.core.type.TypeReference;
+import org.nd4j.shade.jackson.databind.ObjectMapper;
+
+/**
+ * The messages between a {@link SearchCoordinator} and its {@link SearchWorker}s: one JSON
+ * object per line over a plain TCP connection, each request answered by one reply.
+ *
+ * Worker requests and the coordinator's replies:
+ *   hello     {worker}             -> welcome {dataPath, baseSeed, split, heartbeatMillis, sample}
+ *   lease     {}                   -> lease {lease, trials, configs} | wait {millis} | done {}
+ *   heartbeat {lease}              -> ok
+ *   result    {lease, results}     -> ok
+ *   failed    {lease, error}       -> ok
+ */
+public class SearchProtocol {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MESSAGE_TYPE = new TypeReference<>() {};
+
+    public static Map<String, Object> message(String type) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        return message;
+    }
+
+    public static void write(BufferedWriter out, Map<String, Object> message) throws IOException {
+        out.write(MAPPER.writeValueAsString(message));
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * @return The next message, or null at the end of the stream.
+     */
+    public static Map<String, Object> read(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        return line != null ? MAPPER.readValue(line, MESSAGE_TYPE) : null;
+    }
+
+    public static Map<String, Object> encodeConfig(HyperparameterConfig config) {
+        Map<String, Object> encoded = new LinkedHashMap<>();
+        encoded.put("learningRate", config.getLearningRate());
+        encoded.put("batchSize", config.getBatchSize());
+        encoded.put("epochs", config.getEpochs());
+        encoded.put("layers", LayerSpec.format(config.getLayers()));
+        encoded.put("activation", config.getActivation().name());
+        encoded.put("weightInit", config.getWeightInit().name());
+        return encoded;
+    }
+
+    public static HyperparameterConfig decodeConfig(Map<String, Object> encoded) {
+        return new HyperparameterConfig(
+                ((Number) encoded.get("learningRate")).doubleValue(),
+                ((Number) encoded.get("batchSize")).intValue(),
+                ((Number) encoded.get("epochs")).intValue(),
+                LayerSpec.parseList((String) encoded.get("layers")),
+                Activation.valueOf(((String) encoded.get("activation")).toUpperCase(Locale.ROOT)),
+                WeightInit.valueOf(((String) encoded.get("weightInit")).toUpperCase(Locale.ROOT)));
+    }
+
+    public static Map<String, Object> encodeSplit(SplitConfig splitConfig) {
+        Map<String, Object> encoded = new LinkedHashMap<>();
+        encoded.put("validationFraction", splitConfig.getValidationFraction());
+        encoded.put("testFraction", splitConfig.getTestFraction());
+        encoded.put("folds", splitConfig.getFolds());
+        encoded.put("stratified", splitConfig.isStratified());
+        encoded.put("seed", splitConfig.getSeed());
+        return encoded;
+    }
+
+    public static SplitConfig decodeSplit(Map<String, Object> encoded) {
+        return new SplitConfig(
+                ((Number) encoded.get("validationFraction")).doubleValue(),
+                ((Number) encoded.get("testFraction")).doubleValue(),
+                ((Number) encoded.get("folds")).intValue(),
+                (Boolean) encoded.get("stratified"),
+                ((Number) encoded.get("seed")).longValue());
+    }
+
+    public static void encodeGroup(TrialGroup group, Map<String, Object> message) {
+        List<Map<String, Object>> configs = new ArrayList<>(group.size());
+        for (HyperparameterConfig config : group.getConfigs()) {
+            configs.add(encodeConfig(config));
+        }
+        message.put("trials", group.getTrials());
+        message.put("configs", configs);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static TrialGroup decodeGroup(Map<String, Object> message) {
+        List<Number> trialList = (List<Number>) message.get("trials");
+        List<Map<String, Object>> encodedConfigs = (List<Map<String, Object>>) message.get("configs");
+        int[] trials = new int[trialList.size()];
+        List<HyperparameterConfig> configs = new ArrayList<>(encodedConfigs.size());
+        for (int i = 0; i < trials.length; i++) {
+            trials[i] = trialList.get(i).intValue();
+            configs.add(decodeConfig(encodedConfigs.get(i)));
+        }
+        return new TrialGroup(configs, trials);
+    }
+
+    /**
+     * Encodes the metrics of a result; the configuration is already known to the coordinator by the trial number.
+     */
+    public static Map<String, Object> encodeResult(GridSearchResult result) {
+        Map<String, Object> encoded = new LinkedHashMap<>();
+        encoded.put("trial", result.getTrial());
+        encoded.put("accuracy", result.getAccuracy());
+        encoded.put("f1", result.getF1Score());
+        encoded.put("trainingTime", result.getTrainingTime());
+        encoded.put("scoringMicrosPerRow", result.getScoringMicrosPerRow());
+        return encoded;
+    }
+
+    public static GridSearchResult decodeResult(Map<String, Object> encoded, HyperparameterConfig config) {
+        return new GridSearchResult(
+                ((Number) encoded.get("trial")).intValue(),
+                config,
+                ((Number) encoded.get("accuracy")).doubleValue(),
+                ((Number) encoded.get("f1")).doubleValue(),
+                ((Number) encoded.get("trainingTime")).longValue(),
+                ((Number) encoded.get("scoringMicrosPerRow")).doubleValue());
+    }
+
+    /**
+     * A worker's connection to the coordinator. Requests may come from several threads,
+     * such as a training thread and its heartbeat, so each request and reply pair is atomic.
+     */
+    public static class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        public Connection(String host, int port, int timeoutMillis) throws IOException {
+            this.socket = new Socket();
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis); // A coordinator that stops answering fails the request instead of hanging
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        public synchronized Map<String, Object> request(Map<String, Object> message) throws IOException {
+            write(out, message);
+            Map<String, Object> reply = read(in);
+            if (reply == null) {
+                throw new IOException("The coordinator closed the connection");
+            }
+            if ("error".equals(reply.get("type"))) {
+                throw new IOException("The coordinator rejected a " + message.get("type") + " request: " + reply.get("error"));
+            }
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
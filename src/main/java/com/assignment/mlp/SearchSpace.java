@@ -0,0 +1,134 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+
+/**
+ * The hyperparameter ranges sampled by the random and TPE searches. The learning rate and
+ * every layer width are continuous and log-scaled; the depth, batch size, epochs, activation
+ * and weight initialization are choices from a list.
+ *
+ * Strategies work on points in the unit cube, one coordinate per dimension, and
+ * {@link #decode} maps a point to a configuration. Coordinates of numeric dimensions are
+ * positions on the log scale between the bounds. Coordinates of choice dimensions pick one
+ * of k equal intervals. The dimensions are, in order: learning rate, batch size, epochs,
+ * depth, activation, weight initialization, then the width of each layer up to the maximum
+ * depth. Widths of layers beyond a point's depth are ignored.
+ */
+public class SearchSpace {
+    private static final int FIXED_DIMENSIONS = 6; // Every dimension before the layer widths
+
+    private final double minLearningRate;
+    private final double maxLearningRate;
+    private final int minWidth;
+    private final int maxWidth;
+    private final int minDepth;
+    private final int maxDepth;
+    private final int[] batchSizes;
+    private final int[] epochs;
+    private final List<Activation> activations;
+    private final List<WeightInit> weightInits;
+
+    public SearchSpace(double minLearningRate, double maxLearningRate, int minWidth, int maxWidth,
+                       int minDepth, int maxDepth, int[] batchSizes, int[] epochs,
+                       List<Activation> activations, List<WeightInit> weightInits) {
+        if (minLearningRate <= 0 || maxLearningRate < minLearningRate) {
+            throw new IllegalArgumentException("Invalid learning rate range: " + minLearningRate + ":" + maxLearningRate);
+        }
+        if (minWidth < 1 || maxWidth < minWidth) {
+            throw new IllegalArgumentException("Invalid width range: " + minWidth + ":" + maxWidth);
+        }
+        if (minDepth < 1 || maxDepth < minDepth) {
+            throw new IllegalArgumentException("Invalid depth range: " + minDepth + ":" + maxDepth);
+        }
+        if (batchSizes.length == 0 || epochs.length == 0 || activations.isEmpty() || weightInits.isEmpty()) {
+            throw new IllegalArgumentException("Every choice needs at least one value");
+        }
+        this.minLearningRate = minLearningRate;
+        this.maxLearningRate = maxLearningRate;
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+        this.minDepth = minDepth;
+        this.maxDepth = maxDepth;
+        this.batchSizes = batchSizes.clone();
+        this.epochs = epochs.clone();
+        this.activations = List.copyOf(activations);
+        this.weightInits = List.copyOf(weightInits);
+    }
+
+    /**
+     * The ranges of the "testing" grid noted in {@link GridSpace#defaults()},
+     * widened to continuous ranges.
+     */
+    public static SearchSpace defaults() {
+        return new SearchSpace(1e-4, 1e-2, 16, 256, 1, 4, new int[]{32, 64, 128}, new int[]{50, 100, 150},
+                List.of(Activation.RELU, Activation.SWISH, Activation.LEAKYRELU, Activation.TANH),
+                List.of(WeightInit.XAVIER));
+    }
+
+    public int dimensions() {
+        return FIXED_DIMENSIONS + maxDepth;
+    }
+
+    /**
+     * @param dimension A dimension index.
+     * @return The number of values of a choice dimension, or 0 for a continuous one.
+     */
+    public int choices(int dimension) {
+        return switch (dimension) {
+            case 0 -> 0;
+            case 1 -> batchSizes.length;
+            case 2 -> epochs.length;
+            case 3 -> maxDepth - minDepth + 1;
+            case 4 -> activations.size();
+            case 5 -> weightInits.size();
+            default -> 0;
+        };
+    }
+
+    /**
+     * @param point One coordinate in [0, 1] per dimension.
+     * @return The configuration at that point.
+     */
+    public HyperparameterConfig decode(double[] point) {
+        if (point.length != dimensions()) {
+            throw new IllegalArgumentException("Expected " + dimensions() + " coordinates but got " + point.length);
+        }
+        int depth = minDepth + choose(point[3], maxDepth - minDepth + 1);
+        List<LayerSpec> layers = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            int width = (int) Math.round(logScale(point[FIXED_DIMENSIONS + i], minWidth, maxWidth));
+            layers.add(new LayerSpec(width));
+        }
+        return new HyperparameterConfig(
+                logScale(point[0], minLearningRate, maxLearningRate),
+                batchSizes[choose(point[1], batchSizes.length)],
+                epochs[choose(point[2], epochs.length)],
+                layers,
+                activations.get(choose(point[4], activations.size())),
+                weightInits.get(choose(point[5], weightInits.size())));
+    }
+
+    private static double logScale(double position, double min, double max) {
+        return Math.exp(Math.log(min) + position * (Math.log(max) - Math.log(min)));
+    }
+
+    private static int choose(double position, int count) {
+        return Math.min(count - 1, (int) (position * count));
+    }
+
+    @Override
+    public String toString() {
+        return "learning rate " + minLearningRate + ".." + maxLearningRate
+                + ", width " + minWidth + ".." + maxWidth
+                + ", depth " + minDepth + ".." + maxDepth
+                + ", batch sizes " + Arrays.toString(batchSizes)
+                + ", epochs " + Arrays.toString(epochs)
+                + ", activations " + activations
+                + ", weight init " + weightInits;
+    }
+}
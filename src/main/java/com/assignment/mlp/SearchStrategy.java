@@ -0,0 +1,44 @@
+package com.assignment.mlp;
+
+/**
+ * Decides which configurations a search trains. The executor asks for a configuration
+ * whenever a worker can take another trial and reports each finished trial back, so
+ * adaptive strategies propose while earlier trials are still running. Both calls come
+ * from the executor's coordinating thread, so implementations need not be thread-safe.
+ */
+public interface SearchStrategy {
+
+    /**
+     * @return The name used in the results and ledger file names, for example "grid".
+     */
+    String getName();
+
+    /**
+     * @return The next configuration to train, or null once the strategy has no more.
+     */
+    HyperparameterConfig propose();
+
+    /**
+     * @return The trial number of the configuration the last call to {@link #propose} returned,
+     *         or 0 to number trials in order of proposal. The grid numbers each configuration by
+     *         its index, so filtered and sharded grids keep the trial numbers and seeds of the full one.
+     */
+    default int getLastTrial() {
+        return 0;
+    }
+
+    /**
+     * Reports the validation score of a finished trial.
+     *
+     * @param config The configuration, as returned by {@link #propose}.
+     * @param score  Its validation F1, where higher is better, or NaN if the trial failed.
+     */
+    void observe(HyperparameterConfig config, double score);
+
+    /**
+     * @return The most configurations the strategy will propose, or -1 if it never runs out.
+     *         A strategy with a limit proposes a fixed list, whose consecutive configurations
+     *         that differ only in epochs are trained together.
+     */
+    int size();
+}
@@ -0,0 +1,162 @@
+package com.assignment.mlp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A worker process for a {@link SearchCoordinator}. It loads and splits the data itself,
+ * chooses a worker layout for its own cores, and runs one slot per layout worker. Each slot
+ * has its own connection: it leases a trial group, trains it with heartbeats running in the
+ * background, reports the results and asks again, until the coordinator says it is done.
+ */
+public class SearchWorker {
+    private static final int SOCKET_TIMEOUT_MILLIS = 60_000;
+
+    private final String host;
+    private final int port;
+    private final String dataPathOverride;
+    private final WorkerLayout.Strategy layoutStrategy;
+    private final String name;
+
+    /**
+     * @param host             The coordinator's host.
+     * @param port             The coordinator's port.
+     * @param dataPathOverride The training data on this machine, or null to use the coordinator's path.
+     * @param layoutStrategy   How to split this machine's cores between slots and native threads.
+     */
+    public SearchWorker(String host, int port, String dataPathOverride, WorkerLayout.Strategy layoutStrategy) {
+        this.host = host;
+        this.port = port;
+        this.dataPathOverride = dataPathOverride;
+        this.layoutStrategy = layoutStrategy;
+        this.name = localHostName() + "-" + ProcessHandle.current().pid();
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "worker";
+        }
+    }
+
+    /**
+     * Trains leased trials until the coordinator has none left.
+     *
+     * @return The number of trials this worker finished.
+     */
+    @SuppressWarnings("unchecked")
+    public int run() throws Exception {
+        Map<String, Object> welcome;
+        try (SearchProtocol.Connection connection = new SearchProtocol.Connection(host, port, SOCKET_TIMEOUT_MILLIS)) {
+            welcome = connection.request(hello(name));
+        }
+        String dataPath = dataPathOverride != null ? dataPathOverride : (String) welcome.get("dataPath");
+        long baseSeed = ((Number) welcome.get("baseSeed")).longValue();
+        long heartbeatMillis = ((Number) welcome.get("heartbeatMillis")).longValue();
+        SplitConfig splitConfig = SearchProtocol.decodeSplit((Map<String, Object>) welcome.get("split"));
+        HyperparameterConfig sample = SearchProtocol.decodeConfig((Map<String, Object>) welcome.get("sample"));
+
+        // Every worker splits the same file with the same seed, so all see the same validation rows
+        DataSplits dataSplits = DataLoader.loadSplits(dataPath, splitConfig);
+        System.out.println("Loaded " + dataSplits.getTrain().numExamples() + " training and "
+                + dataSplits.getValidation().numExamples() + " validation examples from " + dataPath);
+        WorkerLayout layout = WorkerLayout.resolve(layoutStrategy, Runtime.getRuntime().availableProcessors(),
+                dataSplits.getTrain(), sample, baseSeed);
+        WorkerLayout.ThreadLimits previousLimits = layout.apply();
+        System.out.println("Worker " + name + " connected to " + host + ":" + port + " with layout " + layout);
+
+        ExecutorService slots = Executors.newFixedThreadPool(layout.getWorkers());
+        ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int slot = 0; slot < layout.getWorkers(); slot++) {
+                String slotName = name + "/" + slot;
+                futures.add(slots.submit(() -> runSlot(slotName, dataSplits, baseSeed, heartbeats, heartbeatMillis)));
+            }
+            int finished = 0;
+            for (Future<Integer> future : futures) {
+                try {
+                    finished += future.get();
+                } catch (ExecutionException e) {
+                    System.err.println("A worker slot stopped: " + e.getCause().getMessage());
+                }
+            }
+            System.out.println("Worker " + name + " finished " + finished + " trial(s).");
+            return finished;
+        } finally {
+            slots.shutdownNow();
+            heartbeats.shutdownNow();
+            previousLimits.close();
+        }
+    }
+
+    private int runSlot(String slotName, DataSplits dataSplits, long baseSeed, ScheduledExecutorService heartbeats,
+                        long heartbeatMillis) throws IOException, InterruptedException {
+        int finished = 0;
+        try (SearchProtocol.Connection connection = new SearchProtocol.Connection(host, port, SOCKET_TIMEOUT_MILLIS)) {
+            connection.request(hello(slotName));
+            while (true) {
+                Map<String, Object> reply = connection.request(SearchProtocol.message("lease"));
+                String type = (String) reply.get("type");
+                if (type.equals("done")) {
+                    return finished;
+                }
+                if (type.equals("wait")) {
+                    Thread.sleep(((Number) reply.get("millis")).longValue());
+                    continue;
+                }
+
+                long leaseId = ((Number) reply.get("lease")).longValue();
+                TrialGroup group = SearchProtocol.decodeGroup(reply);
+                Map<String, Object> heartbeat = SearchProtocol.message("heartbeat");
+                heartbeat.put("lease", leaseId);
+                ScheduledFuture<?> beating = heartbeats.scheduleAtFixedRate(() -> {
+                    try {
+                        connection.request(heartbeat);
+                    } catch (IOException e) {
+                        // The next request on the training thread reports the broken connection
+                    }
+                }, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+                Map<String, Object> report;
+                try {
+                    List<Map<String, Object>> results = new ArrayList<>();
+                    for (GridSearchResult result : new TrainingTask(group, dataSplits, baseSeed).call()) {
+                        results.add(SearchProtocol.encodeResult(result));
+                    }
+                    report = SearchProtocol.message("result");
+                    report.put("results", results);
+                    finished += group.size();
+                } catch (Exception e) {
+                    report = SearchProtocol.message("failed");
+                    report.put("error", String.valueOf(e.getMessage()));
+                } finally {
+                    beating.cancel(false);
+                }
+                report.put("lease", leaseId);
+                connection.request(report);
+            }
+        }
+    }
+
+    private static Map<String, Object> hello(String workerName) {
+        Map<String, Object> hello = SearchProtocol.message("hello");
+        hello.put("worker", workerName);
+        return hello;
+    }
+}
@@ -0,0 +1,62 @@
+package com.assignment.mlp;
+
+/**
+ * Describes how a dataset is divided into training, validation and test rows.
+ * When more than one fold is requested, the rows left after removing the test set
+ * are divided into folds for k-fold cross-validation instead of a single validation set.
+ */
+public class SplitConfig {
+    private final double validationFraction;
+    private final double testFraction;
+    private final int folds;
+    private final boolean stratified;
+    private final long seed;
+
+    public SplitConfig(double validationFraction, double testFraction, int folds, boolean stratified, long seed) {
+        if (validationFraction < 0 || testFraction < 0 || validationFraction + testFraction >= 1) {
+            throw new IllegalArgumentException("Validation and test fractions must be non-negative and sum to less than 1");
+        }
+        if (folds < 1) {
+            throw new IllegalArgumentException("Number of folds must be at least 1: " + folds);
+        }
+        if (folds == 1 && validationFraction == 0) {
+            throw new IllegalArgumentException("A validation fraction is required unless k-fold cross-validation is used");
+        }
+        this.validationFraction = validationFraction;
+        this.testFraction = testFraction;
+        this.folds = folds;
+        this.stratified = stratified;
+        this.seed = seed;
+    }
+
+    /**
+     * @return The default split: stratified, 20% validation and 10% test, no cross-validation.
+     */
+    public static SplitConfig defaults(long seed) {
+        return new SplitConfig(0.2, 0.1, 1, true, seed);
+    }
+
+    public double getValidationFraction() {
+        return validationFraction;
+    }
+
+    public double getTestFraction() {
+        return testFraction;
+    }
+
+    public int getFolds() {
+        return folds;
+    }
+
+    public boolean isCrossValidation() {
+        return folds > 1;
+    }
+
+    public boolean isStratified() {
+        return stratified;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
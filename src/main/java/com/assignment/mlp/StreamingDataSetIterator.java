@@ -0,0 +1,249 @@
+package com.assignment.mlp;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.writable.Writable;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Streams the rows of one partition (train, validation or test) of any number of CSV files,
+ * holding at most a fixed-size shuffle buffer of rows in memory.
+ *
+ * Rows are assigned to partitions by hashing their position in the input with the seed,
+ * so every pass over the same files sees the same partitions without storing any row indices.
+ * Batches are drawn at random from the shuffle buffer, which is refilled from the stream as
+ * rows leave it; a larger buffer gives a closer approximation of a full shuffle.
+ */
+public class StreamingDataSetIterator implements DataSetIterator {
+    public enum Partition { TRAIN, VALIDATION, TEST }
+
+    private final InputSplit inputSplit;
+    private final Partition partition;
+    private final SplitConfig splitConfig;
+    private final int batchSize;
+    private final DataNormalization normalizer;
+    private final float[][] buffer;
+    private final RecordReader reader;
+    private int buffered = 0;
+    private long rowOrdinal = 0;
+    private int epoch = 0;
+    private Random random;
+    private int numFeatures = -1;
+    private DataSetPreProcessor preProcessor;
+
+    /**
+     * @param inputSplit        The CSV files to read (see DataLoader.createInputSplit).
+     * @param partition         Which partition's rows to return.
+     * @param splitConfig       Validation and test fractions and the seed that assigns rows to partitions.
+     * @param batchSize         Rows per batch.
+     * @param shuffleBufferRows Number of rows held for shuffling; 1 keeps the file order.
+     * @param normalizer        Applied to every batch, or null for raw features.
+     * @throws IOException If the files cannot be opened.
+     */
+    public StreamingDataSetIterator(InputSplit inputSplit, Partition partition, SplitConfig splitConfig, int batchSize,
+                                    int shuffleBufferRows, DataNormalization normalizer) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        if (shuffleBufferRows < 1) {
+            throw new IllegalArgumentException("Shuffle buffer must hold at least one row: " + shuffleBufferRows);
+        }
+        if (splitConfig.isCrossValidation()) {
+            throw new IllegalArgumentException("Streaming uses a single validation split, not k-fold");
+        }
+        this.inputSplit = inputSplit;
+        this.partition = partition;
+        this.splitConfig = splitConfig;
+        this.batchSize = batchSize;
+        this.normalizer = normalizer;
+        this.buffer = new float[shuffleBufferRows][];
+        this.reader = new CSVRecordReader(1, ','); // Skips the header line of every file
+        try {
+            reader.initialize(inputSplit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while opening " + inputSplit, e);
+        }
+        this.random = new Random(splitConfig.getSeed());
+    }
+
+    /**
+     * Reads every row of this iterator's partition once and accumulates per-feature moments.
+     * Leaves the iterator reset.
+     */
+    public RunningMoments computeMoments() {
+        reader.reset();
+        rowOrdinal = 0;
+        RunningMoments moments = null;
+        float[] row;
+        while ((row = readRow()) != null) {
+            if (moments == null) {
+                moments = new RunningMoments(numFeatures);
+            }
+            moments.add(row);
+        }
+        if (moments == null) {
+            throw new IllegalArgumentException("No " + partition.name().toLowerCase() + " rows found in " + inputSplit);
+        }
+        reset();
+        return moments;
+    }
+
+    /**
+     * Reads the next row of this partition, or returns null at the end of the input.
+     * The row holds the features followed by the label.
+     */
+    private float[] readRow() {
+        while (reader.hasNext()) {
+            List<Writable> record = reader.next();
+            if (assign(rowOrdinal++) != partition) {
+                continue;
+            }
+            if (numFeatures < 0) {
+                numFeatures = record.size() - 1; // The last column is the label
+            } else if (record.size() != numFeatures + 1) {
+                throw new IllegalArgumentException("Expected " + (numFeatures + 1) + " columns but found " + record.size());
+            }
+            float[] row = new float[record.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = record.get(i).toFloat();
+            }
+            return row;
+        }
+        return null;
+    }
+
+    private Partition assign(long ordinal) {
+        // SplitMix64 finalizer: a well-mixed 64-bit hash of the row position and the seed
+        long z = splitConfig.getSeed() + (ordinal + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        double u = (z >>> 11) * 0x1.0p-53;
+        if (u < splitConfig.getTestFraction()) {
+            return Partition.TEST;
+        }
+        return u < splitConfig.getTestFraction() + splitConfig.getValidationFraction() ? Partition.VALIDATION : Partition.TRAIN;
+    }
+
+    private void fillBuffer() {
+        while (buffered < buffer.length) {
+            float[] row = readRow();
+            if (row == null) {
+                return;
+            }
+            buffer[buffered++] = row;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        fillBuffer();
+        return buffered > 0;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public DataSet next(int num) {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more batches available");
+        }
+        float[][] features = new float[Math.min(num, buffered)][];
+        float[][] labels = new float[features.length][1];
+        for (int i = 0; i < features.length; i++) {
+            fillBuffer();
+            // Take a random buffered row and move the last buffered row into its slot
+            int pick = random.nextInt(buffered);
+            float[] row = buffer[pick];
+            buffer[pick] = buffer[--buffered];
+            buffer[buffered] = null;
+
+            features[i] = new float[numFeatures];
+            System.arraycopy(row, 0, features[i], 0, numFeatures);
+            labels[i][0] = row[numFeatures];
+        }
+
+        INDArray featureArray = Nd4j.create(features);
+        if (normalizer != null) {
+            normalizer.transform(featureArray);
+        }
+        DataSet batch = new DataSet(featureArray, Nd4j.create(labels));
+        if (preProcessor != null) {
+            preProcessor.preProcess(batch);
+        }
+        return batch;
+    }
+
+    @Override
+    public int inputColumns() {
+        return numFeatures;
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return 1;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    /**
+     * Rewinds to the start of the input. Each pass shuffles with a different seed.
+     */
+    @Override
+    public void reset() {
+        reader.reset();
+        rowOrdinal = 0;
+        for (int i = 0; i < buffered; i++) {
+            buffer[i] = null;
+        }
+        buffered = 0;
+        epoch++;
+        random = new Random(splitConfig.getSeed() + epoch);
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    /**
+     * Sets a pre-processor applied to every batch after the normalizer given to the constructor.
+     */
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.assignment.mlp;
+
+import org.datavec.api.split.InputSplit;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.evaluation.classification.Evaluation;
+import org.nd4j.linalg.dataset.AsyncDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+
+/**
+ * Trains a single model on CSV data that is streamed from disk on every epoch instead of
+ * being loaded into memory, for inputs spread over many files or too large for the heap.
+ * Memory use is bounded by the shuffle buffer and the prefetch queue, whatever the input size.
+ */
+public class StreamingTrainer {
+
+    /**
+     * Fits the normalizer on the training rows in one streaming pass, then trains for the
+     * configured number of epochs while a background thread prepares upcoming batches,
+     * and finally evaluates on the validation and test rows.
+     *
+     * @param input             The training parameters; the data path may be a file, directory or glob.
+     * @param splitConfig       Validation and test fractions and the seed that assigns rows to them.
+     * @param shuffleBufferRows Rows held in the shuffle buffer.
+     * @param prefetchBatches   Batches prepared ahead of training.
+     * @param reportEpochs      Whether to print a line after every epoch.
+     * @return The trained model, its evaluations and phase timings.
+     * @throws Exception If the data cannot be read or training fails.
+     */
+    public static TrainingRun train(UserInput input, SplitConfig splitConfig, int shuffleBufferRows,
+                                    int prefetchBatches, boolean reportEpochs) throws Exception {
+        int batchSize = input.getBatchSize();
+        InputSplit inputSplit = DataLoader.createInputSplit(input.getDataPath());
+
+        long loadStart = System.currentTimeMillis();
+        StreamingDataSetIterator trainStream = new StreamingDataSetIterator(inputSplit,
+                StreamingDataSetIterator.Partition.TRAIN, splitConfig, batchSize, 1, null);
+        RunningMoments moments = trainStream.computeMoments();
+        NormalizerStandardize normalizer = moments.toNormalizer();
+        long loadMillis = System.currentTimeMillis() - loadStart;
+        System.out.println("Fitted the normalizer on " + moments.getCount() + " streamed training rows.");
+
+        StreamingDataSetIterator shuffledTrain = new StreamingDataSetIterator(inputSplit,
+                StreamingDataSetIterator.Partition.TRAIN, splitConfig, batchSize, shuffleBufferRows, normalizer);
+        // Workspaces are off so each prefetched batch stays valid while it waits in the queue
+        AsyncDataSetIterator prefetched = new AsyncDataSetIterator(shuffledTrain, prefetchBatches, false);
+        MultiLayerNetwork model = MultilayerPerceptron.buildNetwork(input.getSeed(), trainStream.inputColumns(),
+                input.getLearningRate(), input.getLayers(), input.getActivation(), input.getWeightInit());
+        DataSetIterator trainData = TrainingMetricsListener.instrument(model, prefetched);
+
+        long startTime = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < input.getEpochs(); i++) {
+                model.fit(trainData);
+                trainData.reset();
+                if (reportEpochs) {
+                    System.out.printf("\rEpoch %d/%d completed.%n", (i + 1), input.getEpochs());
+                }
+            }
+        } finally {
+            prefetched.shutdown();
+        }
+        long trainingMillis = System.currentTimeMillis() - startTime;
+
+        long evaluationStart = System.currentTimeMillis();
+        Evaluation validationEval = model.evaluate(new StreamingDataSetIterator(inputSplit,
+                StreamingDataSetIterator.Partition.VALIDATION, splitConfig, batchSize, 1, normalizer));
+        Evaluation testEval = splitConfig.getTestFraction() > 0
+                ? model.evaluate(new StreamingDataSetIterator(inputSplit,
+                        StreamingDataSetIterator.Partition.TEST, splitConfig, batchSize, 1, normalizer))
+                : null;
+        long evaluationMillis = System.currentTimeMillis() - evaluationStart;
+
+        return new TrainingRun(new TrainedModel(model, normalizer), validationEval, testEval,
+                moments.getCount(), loadMillis, trainingMillis, evaluationMillis);
+    }
+}
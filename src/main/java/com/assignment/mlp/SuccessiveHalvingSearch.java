@@ -0,0 +1,273 @@
+package com.assignment.mlp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.evaluation.classification.Evaluation;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+/**
+ * Successive Halving over the grid search space.
+ * Every configuration is first trained for a small epoch budget. After each rung only
+ * the best 1/reductionFactor of the trials (by validation F1) survive, and they resume
+ * from their checkpoints with a budget reductionFactor times larger, until one trial is
+ * left or the survivors have reached their configured number of epochs.
+ */
+public class SuccessiveHalvingSearch {
+    public static final String RESULTS_FILE_NAME = "successive_halving_results.csv";
+    private static final String CHECKPOINT_DIR_PREFIX = "successive-halving-";
+    private static final int RESULT_QUEUE_CAPACITY = 1024;
+
+    private final String dataPath;
+    private final long baseSeed;
+    private final WorkerLayout.Strategy layoutStrategy;
+    private final int minEpochs;
+    private final int reductionFactor;
+    private final SplitConfig splitConfig;
+    private final GridSpace space;
+    private final File resultsFile;
+
+    public SuccessiveHalvingSearch(String dataPath, long baseSeed, WorkerLayout.Strategy layoutStrategy,
+                                   int minEpochs, int reductionFactor, SplitConfig splitConfig) {
+        this(dataPath, baseSeed, layoutStrategy, minEpochs, reductionFactor, splitConfig, GridSpace.defaults(),
+                new File(RESULTS_FILE_NAME));
+    }
+
+    /**
+     * @param space       The configurations to search; every one of them trains in the first rung.
+     * @param resultsFile The CSV file each rung's results are appended to.
+     */
+    public SuccessiveHalvingSearch(String dataPath, long baseSeed, WorkerLayout.Strategy layoutStrategy,
+                                   int minEpochs, int reductionFactor, SplitConfig splitConfig, GridSpace space,
+                                   File resultsFile) {
+        if (minEpochs < 1) {
+            throw new IllegalArgumentException("Minimum epochs must be at least 1: " + minEpochs);
+        }
+        if (reductionFactor < 2) {
+            throw new IllegalArgumentException("Reduction factor must be at least 2: " + reductionFactor);
+        }
+        if (splitConfig.isCrossValidation()) {
+            // Each trial resumes from a single checkpoint, which would need one per fold
+            throw new IllegalArgumentException("Successive halving ranks trials on a single validation split, not k-fold");
+        }
+        this.dataPath = dataPath;
+        this.baseSeed = baseSeed;
+        this.layoutStrategy = layoutStrategy;
+        this.minEpochs = minEpochs;
+        this.reductionFactor = reductionFactor;
+        this.splitConfig = splitConfig;
+        this.space = space;
+        this.resultsFile = resultsFile;
+    }
+
+    public void execute() throws IOException, InterruptedException {
+        // Every configuration trains in the first rung, so the grid is collected up front here
+        List<HyperparameterConfig> allCombinations = new ArrayList<>();
+        space.forEach(allCombinations::add);
+        if (allCombinations.isEmpty()) {
+            System.out.println("No hyperparameter combinations generated. Search aborted.");
+            return;
+        }
+
+        InMemoryDataSet trainData;
+        InMemoryDataSet validationData;
+        try {
+            DataSplits dataSplits = DataLoader.loadSplits(dataPath, splitConfig);
+            trainData = dataSplits.getTrain();
+            validationData = dataSplits.getValidation();
+        } catch (Exception e) {
+            System.err.println("Failed to load training data: " + e.getMessage());
+            return;
+        }
+        System.out.println("Loaded " + trainData.numExamples() + " training and "
+                + validationData.numExamples() + " validation examples into memory.");
+
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+        WorkerLayout layout = WorkerLayout.resolve(layoutStrategy, availableProcessors, trainData,
+                allCombinations.get(0), baseSeed);
+        System.out.println("Worker layout: " + layout);
+
+        // A fresh directory per run, so concurrent searches never overwrite each other's checkpoints
+        File checkpointDir = Files.createTempDirectory(CHECKPOINT_DIR_PREFIX).toFile();
+
+        List<Trial> survivors = new ArrayList<>();
+        for (int i = 0; i < allCombinations.size(); i++) {
+            survivors.add(new Trial(i + 1, allCombinations.get(i), new File(checkpointDir, "trial-" + (i + 1) + ".zip")));
+        }
+
+        WorkerLayout.ThreadLimits previousLimits = layout.apply();
+        ExecutorService executor = Executors.newFixedThreadPool(layout.getWorkers());
+        try (ResultWriter writer = new ResultWriter(resultsFile, RESULT_QUEUE_CAPACITY)) {
+            int budget = minEpochs;
+            int rung = 0;
+            while (true) {
+                int rungEpochs = budget;
+                int maxEpochs = survivors.stream().mapToInt(trial -> Math.min(rungEpochs, trial.config.getEpochs())).max().orElse(0);
+                System.out.printf("%n--- Rung %d: %d trial(s), up to %d epoch(s) each ---%n", rung, survivors.size(), maxEpochs);
+                runRung(executor, survivors, budget, trainData, validationData, writer);
+                survivors.removeIf(trial -> trial.failed);
+                if (survivors.isEmpty()) {
+                    System.err.println("Every trial in the rung failed. Search aborted.");
+                    return;
+                }
+
+                survivors.sort(Comparator.comparingDouble((Trial trial) -> trial.f1Score).reversed());
+                boolean budgetExhausted = survivors.stream().allMatch(trial -> trial.epochsTrained >= trial.config.getEpochs());
+                if (survivors.size() == 1 || budgetExhausted) {
+                    break;
+                }
+
+                int keep = Math.max(1, (int) Math.ceil(survivors.size() / (double) reductionFactor));
+                for (Trial eliminated : survivors.subList(keep, survivors.size())) {
+                    eliminated.checkpoint.delete();
+                }
+                survivors = new ArrayList<>(survivors.subList(0, keep));
+                // A lone survivor is the final pick, so it completes its full schedule
+                budget = keep == 1 ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, (long) budget * reductionFactor);
+                rung++;
+            }
+
+            Trial best = survivors.get(0);
+            System.out.printf(Locale.US, "%nBest trial: %d (validation F1 %.4f, accuracy %.4f after %d epochs)%n",
+                    best.id, best.f1Score, best.accuracy, best.epochsTrained);
+            System.out.println("Results saved to " + resultsFile.getPath());
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            previousLimits.close();
+            deleteCheckpoints(checkpointDir);
+        }
+    }
+
+    /**
+     * Removes the run's checkpoint directory, including the checkpoints of failed or unfinished trials.
+     */
+    private static void deleteCheckpoints(File checkpointDir) {
+        File[] checkpoints = checkpointDir.listFiles();
+        if (checkpoints != null) {
+            for (File checkpoint : checkpoints) {
+                checkpoint.delete();
+            }
+        }
+        if (!checkpointDir.delete()) {
+            System.err.println("Could not delete checkpoint directory: " + checkpointDir.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Trains every trial up to the rung budget in parallel and records its validation scores.
+     */
+    private void runRung(ExecutorService executor, List<Trial> trials, int budget, InMemoryDataSet trainData,
+                         InMemoryDataSet validationData, ResultWriter writer) throws IOException, InterruptedException {
+        CompletionService<Trial> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<Trial>, Trial> submitted = new HashMap<>();
+        for (Trial trial : trials) {
+            int targetEpochs = Math.min(budget, trial.config.getEpochs());
+            submitted.put(completionService.submit(new RungTask(trial, targetEpochs, trainData, validationData)), trial);
+        }
+
+        for (int completed = 1; completed <= trials.size(); completed++) {
+            Future<Trial> future = completionService.take();
+            Trial trial = submitted.get(future);
+            try {
+                future.get();
+                writer.submit(trial.toResult());
+            } catch (ExecutionException e) {
+                trial.failed = true;
+                System.err.println("Error in trial " + trial.id + ": " + e.getCause().getMessage());
+            }
+            System.out.printf("\rRung progress: %d/%d", completed, trials.size());
+        }
+        System.out.println();
+    }
+
+    /**
+     * Progress of one configuration across rungs. Only the owning task mutates it while a rung runs.
+     */
+    private static class Trial {
+        private final int id;
+        private final HyperparameterConfig config;
+        private final File checkpoint;
+        private int epochsTrained = 0;
+        private long trainingMillis = 0; // Summed over rungs and converted once, so short rungs are not truncated to 0 s
+        private double accuracy;
+        private double f1Score;
+        private double scoringMicrosPerRow;
+        private boolean failed = false;
+
+        private Trial(int id, HyperparameterConfig config, File checkpoint) {
+            this.id = id;
+            this.config = config;
+            this.checkpoint = checkpoint;
+        }
+
+        private GridSearchResult toResult() {
+            // Report the epochs actually trained so far rather than the configured maximum
+            HyperparameterConfig trained = new HyperparameterConfig(config.getLearningRate(), config.getBatchSize(),
+                    epochsTrained, config.getLayers(), config.getActivation(), config.getWeightInit());
+            return new GridSearchResult(id, trained, accuracy, f1Score, trainingMillis / 1000, scoringMicrosPerRow);
+        }
+    }
+
+    /**
+     * Resumes a trial from its checkpoint (or builds it on the first rung), trains it up to
+     * the target number of epochs, evaluates it on the validation data and saves a new checkpoint.
+     */
+    private class RungTask implements Callable<Trial> {
+        private final Trial trial;
+        private final int targetEpochs;
+        private final InMemoryDataSet trainData;
+        private final InMemoryDataSet validationData;
+
+        private RungTask(Trial trial, int targetEpochs, InMemoryDataSet trainData, InMemoryDataSet validationData) {
+            this.trial = trial;
+            this.targetEpochs = targetEpochs;
+            this.trainData = trainData;
+            this.validationData = validationData;
+        }
+
+        @Override
+        public Trial call() throws Exception {
+            HyperparameterConfig config = trial.config;
+            MultiLayerNetwork model;
+            if (trial.epochsTrained > 0) {
+                model = MultiLayerNetwork.load(trial.checkpoint, true); // Restore updater state so Adam resumes smoothly
+            } else {
+                model = MultilayerPerceptron.buildNetwork(config, trainData.numFeatures(), baseSeed + trial.id);
+            }
+
+            DataSetIterator iterator = TrainingMetricsListener.instrument(model, trainData.iterator(config.getBatchSize()));
+            long startTime = System.currentTimeMillis();
+            for (int epoch = trial.epochsTrained; epoch < targetEpochs; epoch++) {
+                model.fit(iterator);
+                iterator.reset();
+            }
+            trial.trainingMillis += System.currentTimeMillis() - startTime;
+            trial.epochsTrained = targetEpochs;
+
+            long scoringStart = System.nanoTime();
+            Evaluation eval = model.evaluate(validationData.iterator(config.getBatchSize()));
+            trial.scoringMicrosPerRow = (System.nanoTime() - scoringStart) / 1000.0 / validationData.numExamples();
+            trial.accuracy = eval.accuracy();
+            trial.f1Score = eval.f1();
+            model.save(trial.checkpoint, true);
+            return trial;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tree-structured Parzen Estimator search (Bergstra et al., 2011). The first trials are
+ * random. After that, the finished trials are split into the best fraction {@code gamma}
+ * and the rest, and each dimension gets two densities: l(x) fitted to the good trials and
+ * g(x) fitted to the others. The next configuration takes, in every dimension, the one of
+ * several candidates drawn from l(x) that maximizes l(x) / g(x).
+ *
+ * Dimensions are modelled independently, in the unit coordinates of {@link SearchSpace},
+ * where the learning rate and widths are already on a log scale. Continuous dimensions use
+ * a Gaussian kernel per observation, reflected at 0 and 1. Choice dimensions use the count
+ * of each value plus one. Proposals use only the trials finished so far, so they can run
+ * while other trials are still training.
+ */
+public class TpeSearchStrategy implements SearchStrategy {
+    private static final double GAMMA = 0.25;          // Fraction of finished trials modelled as good
+    private static final int CANDIDATES = 24;          // Draws from l(x) per dimension
+    private static final double MIN_BANDWIDTH = 0.02;  // Kernel width floor in unit coordinates
+    private static final double MAX_BANDWIDTH = 0.5;
+
+    private final SearchSpace space;
+    private final int startupTrials;
+    private final Random random;
+    private final Map<HyperparameterConfig, double[]> proposedPoints = new IdentityHashMap<>();
+    private final List<Observation> observations = new ArrayList<>();
+
+    /**
+     * @param space         The ranges to search.
+     * @param startupTrials The number of finished trials needed before proposals stop being random.
+     * @param seed          The seed for sampling.
+     */
+    public TpeSearchStrategy(SearchSpace space, int startupTrials, long seed) {
+        if (startupTrials < 2) {
+            throw new IllegalArgumentException("TPE needs at least 2 startup trials: " + startupTrials);
+        }
+        this.space = space;
+        this.startupTrials = startupTrials;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public String getName() {
+        return "tpe";
+    }
+
+    @Override
+    public HyperparameterConfig propose() {
+        double[] point = observations.size() < startupTrials
+                ? RandomSearchStrategy.samplePoint(space, random)
+                : samplePoint();
+        HyperparameterConfig config = space.decode(point);
+        proposedPoints.put(config, point);
+        return config;
+    }
+
+    @Override
+    public void observe(HyperparameterConfig config, double score) {
+        double[] point = proposedPoints.remove(config);
+        if (point != null && !Double.isNaN(score)) {
+            observations.add(new Observation(point, score));
+        }
+    }
+
+    @Override
+    public int size() {
+        return -1;
+    }
+
+    private double[] samplePoint() {
+        List<Observation> sorted = new ArrayList<>(observations);
+        sorted.sort(Comparator.comparingDouble((Observation o) -> o.score).reversed());
+        int numGood = Math.max(1, (int) Math.ceil(GAMMA * sorted.size()));
+        List<Observation> good = sorted.subList(0, numGood);
+        List<Observation> bad = sorted.subList(numGood, sorted.size());
+
+        double[] point = new double[space.dimensions()];
+        for (int d = 0; d < point.length; d++) {
+            int choices = space.choices(d);
+            point[d] = choices > 0 ? sampleChoice(d, choices, good, bad) : sampleContinuous(d, good, bad);
+        }
+        return point;
+    }
+
+    private double sampleContinuous(int dimension, List<Observation> good, List<Observation> bad) {
+        double[] goodValues = values(good, dimension);
+        double[] badValues = values(bad, dimension);
+        double goodBandwidth = bandwidth(goodValues);
+        double badBandwidth = bandwidth(badValues);
+
+        double best = random.nextDouble();
+        double bestRatio = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < CANDIDATES; c++) {
+            // Draw from l(x): the uniform prior or a kernel around one of the good values
+            int component = random.nextInt(goodValues.length + 1);
+            double x = component == goodValues.length
+                    ? random.nextDouble()
+                    : reflect(goodValues[component] + goodBandwidth * random.nextGaussian());
+            double ratio = Math.log(density(x, goodValues, goodBandwidth)) - Math.log(density(x, badValues, badBandwidth));
+            if (ratio > bestRatio) {
+                bestRatio = ratio;
+                best = x;
+            }
+        }
+        return best;
+    }
+
+    private double sampleChoice(int dimension, int choices, List<Observation> good, List<Observation> bad) {
+        double[] goodWeights = choiceWeights(good, dimension, choices);
+        double[] badWeights = choiceWeights(bad, dimension, choices);
+
+        int best = 0;
+        double bestRatio = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < CANDIDATES; c++) {
+            int choice = drawChoice(goodWeights);
+            double ratio = Math.log(goodWeights[choice]) - Math.log(badWeights[choice]);
+            if (ratio > bestRatio) {
+                bestRatio = ratio;
+                best = choice;
+            }
+        }
+        return (best + 0.5) / choices; // The middle of the choice's interval
+    }
+
+    /**
+     * Normalized counts of each choice among the observations, each count starting at one.
+     */
+    private static double[] choiceWeights(List<Observation> observations, int dimension, int choices) {
+        double[] weights = new double[choices];
+        Arrays.fill(weights, 1);
+        for (Observation observation : observations) {
+            weights[Math.min(choices - 1, (int) (observation.point[dimension] * choices))]++;
+        }
+        double total = choices + observations.size();
+        for (int i = 0; i < choices; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    private int drawChoice(double[] weights) {
+        double u = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            u -= weights[i];
+            if (u < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * The Parzen density: an equal mixture of the uniform prior on [0, 1] and one reflected
+     * Gaussian kernel per value.
+     */
+    private static double density(double x, double[] values, double bandwidth) {
+        double sum = 1; // The prior
+        for (double value : values) {
+            sum += kernel(x, value, bandwidth) + kernel(x, -value, bandwidth) + kernel(x, 2 - value, bandwidth);
+        }
+        return sum / (values.length + 1);
+    }
+
+    private static double kernel(double x, double mean, double bandwidth) {
+        double z = (x - mean) / bandwidth;
+        return Math.exp(-0.5 * z * z) / (bandwidth * Math.sqrt(2 * Math.PI));
+    }
+
+    /**
+     * Scott's rule, bounded so a handful of identical values still leaves room to explore.
+     */
+    private static double bandwidth(double[] values) {
+        if (values.length < 2) {
+            return MAX_BANDWIDTH / 2;
+        }
+        double mean = 0;
+        for (double value : values) {
+            mean += value;
+        }
+        mean /= values.length;
+        double variance = 0;
+        for (double value : values) {
+            variance += (value - mean) * (value - mean);
+        }
+        double std = Math.sqrt(variance / (values.length - 1));
+        return Math.max(MIN_BANDWIDTH, Math.min(MAX_BANDWIDTH, 1.06 * std * Math.pow(values.length, -0.2)));
+    }
+
+    private static double reflect(double x) {
+        if (x < 0) {
+            x = -x;
+        }
+        if (x > 1) {
+            x = 2 - x;
+        }
+        return Math.max(0, Math.min(1, x));
+    }
+
+    private static double[] values(List<Observation> observations, int dimension) {
+        double[] values = new double[observations.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = observations.get(i).point[dimension];
+        }
+        return values;
+    }
+
+    private static class Observation {
+        private final double[] point;
+        private final double score;
+
+        private Observation(double[] point, double score) {
+            this.point = point;
+            this.score = score;
+        }
+    }
+}
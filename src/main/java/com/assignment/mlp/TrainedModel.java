@@ -0,0 +1,94 @@
+package com.assignment.mlp;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.common.primitives.Pair;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
+
+/**
+ * A trained network together with the normalizer fitted on its training data.
+ * Both are stored in the same model zip, so inference data is scaled exactly
+ * as the training data was instead of by statistics of the inference file.
+ */
+public class TrainedModel {
+    private final MultiLayerNetwork network;
+    private final DataNormalization normalizer;
+
+    public TrainedModel(MultiLayerNetwork network, DataNormalization normalizer) {
+        this.network = network;
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Writes the network and, if present, its normalizer to a model zip.
+     *
+     * @param modelFile   The destination zip file.
+     * @param saveUpdater Whether to include the updater state needed to continue training.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(File modelFile, boolean saveUpdater) throws IOException {
+        // writeModel(..., normalizer) fails with a closed-stream error in this DL4J release, so add it afterwards
+        network.save(modelFile, saveUpdater);
+        if (normalizer != null) {
+            ModelSerializer.addNormalizerToModel(modelFile, normalizer);
+        }
+    }
+
+    /**
+     * Restores a network and its normalizer from a model zip. Zips written before the
+     * normalizer was persisted load with a null normalizer.
+     *
+     * @param modelFile   The model zip file.
+     * @param loadUpdater Whether to restore the updater state.
+     * @return The restored model.
+     * @throws IOException If the file cannot be read.
+     */
+    public static TrainedModel load(File modelFile, boolean loadUpdater) throws IOException {
+        Pair<MultiLayerNetwork, ?> restored = ModelSerializer.restoreMultiLayerNetworkAndNormalizer(modelFile, loadUpdater);
+        Object normalizer = restored.getSecond(); // Typed as a raw Normalizer by ModelSerializer
+        if (normalizer != null && !(normalizer instanceof DataNormalization)) {
+            throw new IOException("Unsupported normalizer type in model file: " + normalizer.getClass().getName());
+        }
+        return new TrainedModel(restored.getFirst(), (DataNormalization) normalizer);
+    }
+
+    /**
+     * Converts the parameters and activations to FLOAT, FLOAT16 or BFLOAT16. The 16-bit types halve
+     * the size of the weights at some cost in accuracy; they are meant for inference, not training.
+     * The normalizer is kept as it is, since the network casts its input to its own type.
+     *
+     * @param dataType The type of the returned model.
+     * @return This model if it already has that type, otherwise a converted copy without updater state.
+     */
+    public TrainedModel withDataType(DataType dataType) {
+        // DOUBLE is left out on purpose: converted DOUBLE networks score batches of a few hundred
+        // rows incorrectly in this DL4J release, and it only adds memory traffic to these models
+        if (dataType != DataType.FLOAT && dataType != DataType.FLOAT16 && dataType != DataType.BFLOAT16) {
+            throw new IllegalArgumentException("Models can be converted to FLOAT, FLOAT16 or BFLOAT16, not " + dataType);
+        }
+        if (getDataType() == dataType) {
+            return this;
+        }
+        return new TrainedModel(network.convertDataType(dataType), normalizer);
+    }
+
+    public DataType getDataType() {
+        return network.params().dataType();
+    }
+
+    public MultiLayerNetwork getNetwork() {
+        return network;
+    }
+
+    public DataNormalization getNormalizer() {
+        return normalizer;
+    }
+
+    public boolean hasNormalizer() {
+        return normalizer != null;
+    }
+}
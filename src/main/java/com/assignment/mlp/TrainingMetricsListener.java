@@ -0,0 +1,192 @@
+package com.assignment.mlp;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.optimize.api.BaseTrainingListener;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Records the latency of every epoch and iteration of a network into the global metrics
+ * registry, split into the time spent waiting for the next batch and the time spent in
+ * the forward and backward pass. Use {@link #instrument} to attach it: the split needs the
+ * training data to be read through the returned iterator.
+ *
+ * Each listener serves one network trained on one thread, so its bookkeeping is unsynchronized;
+ * only the registry is shared.
+ */
+public class TrainingMetricsListener extends BaseTrainingListener {
+    // Last sampled workspace size per training thread, summed by the gauge
+    private static final Map<Long, Long> WORKSPACE_BYTES = new ConcurrentHashMap<>();
+
+    private final MetricsRegistry.Timer epochTimer;
+    private final MetricsRegistry.Timer iterationTimer;
+    private final MetricsRegistry.Timer dataLoadTimer;
+    private final MetricsRegistry.Timer computeTimer;
+    private final MetricsRegistry.Counter samples;
+    private final MetricsRegistry.Counter iterations;
+    private volatile double lastEpochSamplesPerSecond = 0;
+    private long epochStartNanos;
+    private long iterationStartNanos;
+    private long pendingLoadNanos = 0;
+    private long pendingSamples = 0;
+    private long epochSamples = 0;
+
+    private TrainingMetricsListener(MetricsRegistry registry) {
+        this.epochTimer = registry.timer("mlp_epoch_seconds", "Time per training epoch.");
+        this.iterationTimer = registry.timer("mlp_iteration_seconds", "Time per training iteration, including data loading.");
+        this.dataLoadTimer = registry.timer("mlp_data_load_seconds", "Time training waited for the next batch or an iterator reset.");
+        this.computeTimer = registry.timer("mlp_compute_seconds", "Time per iteration spent in the forward and backward pass.");
+        this.samples = registry.counter("mlp_training_samples_total", "Examples trained on.");
+        this.iterations = registry.counter("mlp_training_iterations_total", "Training iterations.");
+        // Re-registered by every listener; the gauge reads the most recently created one
+        registry.gauge("mlp_training_samples_per_second", "Examples per second in the last finished epoch.",
+                () -> lastEpochSamplesPerSecond);
+        registry.gauge("nd4j_workspace_bytes", "Memory held by ND4J workspaces of the training threads.",
+                () -> WORKSPACE_BYTES.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * Attaches the metrics listener to a network if the global registry is enabled.
+     *
+     * @param network The network about to be trained.
+     * @param data    Its training data.
+     * @return The iterator to train on: the data itself, or a wrapper that times every batch.
+     */
+    public static DataSetIterator instrument(MultiLayerNetwork network, DataSetIterator data) {
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (!registry.isEnabled()) {
+            return data;
+        }
+        TrainingMetricsListener listener = new TrainingMetricsListener(registry);
+        network.addListeners(listener);
+        return listener.new TimedDataSetIterator(data);
+    }
+
+    @Override
+    public void onEpochStart(Model model) {
+        epochStartNanos = System.nanoTime();
+        iterationStartNanos = epochStartNanos;
+        epochSamples = 0;
+    }
+
+    @Override
+    public void iterationDone(Model model, int iteration, int epoch) {
+        long now = System.nanoTime();
+        long iterationNanos = now - iterationStartNanos;
+        iterationTimer.record(iterationNanos);
+        dataLoadTimer.record(pendingLoadNanos);
+        computeTimer.record(Math.max(0, iterationNanos - pendingLoadNanos));
+        samples.add(pendingSamples);
+        iterations.add(1);
+        epochSamples += pendingSamples;
+        pendingLoadNanos = 0;
+        pendingSamples = 0;
+        iterationStartNanos = now;
+    }
+
+    @Override
+    public void onEpochEnd(Model model) {
+        long epochNanos = System.nanoTime() - epochStartNanos;
+        epochTimer.record(epochNanos);
+        lastEpochSamplesPerSecond = epochNanos > 0 ? epochSamples * 1e9 / epochNanos : 0;
+
+        // Workspaces belong to the thread that trains, so they can only be measured from here
+        long workspaceBytes = 0;
+        List<MemoryWorkspace> workspaces = Nd4j.getWorkspaceManager().getAllWorkspacesForCurrentThread();
+        for (MemoryWorkspace workspace : workspaces) {
+            workspaceBytes += workspace.getCurrentSize();
+        }
+        WORKSPACE_BYTES.put(Thread.currentThread().getId(), workspaceBytes);
+    }
+
+    /**
+     * Times every call for data on the training thread. Asynchronous prefetching, if any,
+     * must happen beneath this iterator, so only the time training actually waits is counted.
+     */
+    private class TimedDataSetIterator implements DataSetIterator {
+        private final DataSetIterator delegate;
+
+        private TimedDataSetIterator(DataSetIterator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public DataSet next(int num) {
+            long start = System.nanoTime();
+            DataSet batch = delegate.next(num);
+            pendingLoadNanos += System.nanoTime() - start;
+            pendingSamples += batch.numExamples();
+            return batch;
+        }
+
+        @Override
+        public DataSet next() {
+            long start = System.nanoTime();
+            DataSet batch = delegate.next();
+            pendingLoadNanos += System.nanoTime() - start;
+            pendingSamples += batch.numExamples();
+            return batch;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public int inputColumns() {
+            return delegate.inputColumns();
+        }
+
+        @Override
+        public int totalOutcomes() {
+            return delegate.totalOutcomes();
+        }
+
+        @Override
+        public boolean resetSupported() {
+            return delegate.resetSupported();
+        }
+
+        @Override
+        public boolean asyncSupported() {
+            // Prefetching above this iterator would move the waiting off the training thread
+            return false;
+        }
+
+        @Override
+        public void reset() {
+            long start = System.nanoTime();
+            delegate.reset();
+            dataLoadTimer.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public int batch() {
+            return delegate.batch();
+        }
+
+        @Override
+        public void setPreProcessor(DataSetPreProcessor preProcessor) {
+            delegate.setPreProcessor(preProcessor);
+        }
+
+        @Override
+        public DataSetPreProcessor getPreProcessor() {
+            return delegate.getPreProcessor();
+        }
+
+        @Override
+        public List<String> getLabels() {
+            return delegate.getLabels();
+        }
+    }
+}
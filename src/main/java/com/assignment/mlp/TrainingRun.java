@@ -0,0 +1,58 @@
+package com.assignment.mlp;
+
+import org.nd4j.evaluation.classification.Evaluation;
+
+/**
+ * A simple data class holding the outcome of a single model training run.
+ */
+public class TrainingRun {
+    private final TrainedModel trainedModel;
+    private final Evaluation validationEvaluation;
+    private final Evaluation testEvaluation;
+    private final long trainingExamples;
+    private final long loadMillis;
+    private final long trainingMillis;
+    private final long evaluationMillis;
+
+    public TrainingRun(TrainedModel trainedModel, Evaluation validationEvaluation, Evaluation testEvaluation,
+                       long trainingExamples, long loadMillis, long trainingMillis, long evaluationMillis) {
+        this.trainedModel = trainedModel;
+        this.validationEvaluation = validationEvaluation;
+        this.testEvaluation = testEvaluation;
+        this.trainingExamples = trainingExamples;
+        this.loadMillis = loadMillis;
+        this.trainingMillis = trainingMillis;
+        this.evaluationMillis = evaluationMillis;
+    }
+
+    public TrainedModel getTrainedModel() {
+        return trainedModel;
+    }
+
+    public Evaluation getValidationEvaluation() {
+        return validationEvaluation;
+    }
+
+    /**
+     * @return The test evaluation, or null if no test rows were held out.
+     */
+    public Evaluation getTestEvaluation() {
+        return testEvaluation;
+    }
+
+    public long getTrainingExamples() {
+        return trainingExamples;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    public long getTrainingMillis() {
+        return trainingMillis;
+    }
+
+    public long getEvaluationMillis() {
+        return evaluationMillis;
+    }
+}
@@ -0,0 +1,84 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.evaluation.classification.Evaluation;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+/**
+ * Trains the configurations of one trial group, which differ only in epochs, as a single run.
+ * The network is trained up to the longest schedule and evaluated after each requested
+ * number of epochs. The seed depends only on the schedule (see {@link TrialGroup#getSeed}),
+ * so each configuration gets the result a search would produce by training it alone.
+ */
+public class TrainingTask implements Callable<List<GridSearchResult>> {
+    private final TrialGroup group;
+    private final DataSplits dataSplits;
+    private final long baseSeed;
+
+    public TrainingTask(TrialGroup group, DataSplits dataSplits, long baseSeed) {
+        this.group = group;
+        this.dataSplits = dataSplits;
+        this.baseSeed = baseSeed;
+    }
+
+    public TrialGroup getGroup() {
+        return group;
+    }
+
+    @Override
+    public List<GridSearchResult> call() throws Exception {
+        List<HyperparameterConfig> configs = group.getConfigs();
+        int variants = configs.size();
+        HyperparameterConfig longest = configs.get(variants - 1);
+        long seed = group.getSeed(baseSeed);
+        double[] accuracySums = new double[variants];
+        double[] f1Sums = new double[variants];
+        long[] elapsedNanos = new long[variants];
+        long[] scoringNanos = new long[variants];
+        long scoredRows = 0;
+
+        // One model per fold (a single pair outside cross-validation); metrics are averaged
+        List<InMemoryDataSet[]> pairs = dataSplits.getTrainValidationPairs();
+        for (InMemoryDataSet[] pair : pairs) {
+            MultiLayerNetwork model = MultilayerPerceptron.buildNetwork(longest, pair[0].numFeatures(), seed);
+            DataSetIterator trainData = TrainingMetricsListener.instrument(model, pair[0].iterator(longest.getBatchSize()));
+
+            long trainingNanos = 0;
+            int next = 0;
+            for (int epoch = 1; epoch <= longest.getEpochs(); epoch++) {
+                long epochStart = System.nanoTime();
+                model.fit(trainData);
+                trainData.reset();
+                trainingNanos += System.nanoTime() - epochStart;
+
+                // Score each variant that ends here on held-out rows only
+                while (next < variants && configs.get(next).getEpochs() == epoch) {
+                    long scoringStart = System.nanoTime();
+                    Evaluation eval = model.evaluate(pair[1].iterator(longest.getBatchSize()));
+                    scoringNanos[next] += System.nanoTime() - scoringStart;
+                    elapsedNanos[next] += trainingNanos + System.nanoTime() - scoringStart;
+                    accuracySums[next] += eval.accuracy();
+                    f1Sums[next] += eval.f1();
+                    next++;
+                }
+            }
+            scoredRows += pair[1].numExamples();
+        }
+
+        int[] trials = group.getTrials();
+        List<GridSearchResult> results = new ArrayList<>(variants);
+        for (int i = 0; i < variants; i++) {
+            // Each variant reports the time it would have taken on its own
+            results.add(new GridSearchResult(
+                    trials[i], configs.get(i), accuracySums[i] / pairs.size(), f1Sums[i] / pairs.size(),
+                    elapsedNanos[i] / 1_000_000_000L,
+                    scoredRows > 0 ? scoringNanos[i] / 1000.0 / scoredRows : 0
+            ));
+        }
+        return results;
+    }
+}
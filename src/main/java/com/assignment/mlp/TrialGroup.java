@@ -0,0 +1,58 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Trials whose configurations differ only in epochs, trained together as one run. A single
+ * trial is a group of one. The group is the unit of work of a search, both on the local
+ * worker pool and when leased to a remote worker.
+ */
+public class TrialGroup {
+    private final List<HyperparameterConfig> configs; // In order of epochs
+    private final int[] trials;
+
+    /**
+     * @param configs The configurations; all must have the same schedule key.
+     * @param trials  The trial number of each configuration.
+     */
+    public TrialGroup(List<HyperparameterConfig> configs, int[] trials) {
+        if (configs.isEmpty() || configs.size() != trials.length) {
+            throw new IllegalArgumentException("Expected one trial number per configuration");
+        }
+        Integer[] order = new Integer[configs.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> configs.get(i).getEpochs()));
+        this.configs = new ArrayList<>(configs.size());
+        this.trials = new int[trials.length];
+        for (int i = 0; i < order.length; i++) {
+            this.configs.add(configs.get(order[i]));
+            this.trials[i] = trials[order[i]];
+        }
+    }
+
+    public List<HyperparameterConfig> getConfigs() {
+        return configs;
+    }
+
+    public int[] getTrials() {
+        return trials;
+    }
+
+    public int size() {
+        return configs.size();
+    }
+
+    /**
+     * @return The training seed: the base seed plus a hash of the schedule key. Every epoch variant
+     *         of a schedule gets it, however the variants are grouped, so a configuration trained in
+     *         a group, alone, or in what is left of its group after a resume starts from the same weights.
+     */
+    public long getSeed(long baseSeed) {
+        return baseSeed + configs.get(0).getScheduleKey().hashCode(); // String.hashCode is fixed by its specification
+    }
+}
@@ -0,0 +1,239 @@
+package com.assignment.mlp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A crash-safe, append-only record of search trials. Every record is a single tab-separated
+ * line that is forced to disk before the call returns, so after a crash the ledger shows
+ * exactly which trials finished.
+ *
+ * Record formats:
+ *   VERSION  format version, the first line
+ *   STARTED  hash  trial
+ *   DONE     hash  result CSV line, which starts with the trial number
+ *   FAILED   hash  error message
+ *
+ * Trials are identified by number, which a resumed search with the same settings reproduces.
+ * Only the state a running search needs is kept in memory: one bit per finished trial and the
+ * trials in flight. Result lines stay in the file and are read back by {@link #doneResults()},
+ * so a grid of tens of millions of trials costs a few megabytes of heap.
+ *
+ * Ledgers without a VERSION line were written before results had the Layers and Depth
+ * columns; resuming one converts it to the current format first.
+ */
+public class TrialLedger implements AutoCloseable {
+    public enum State { STARTED, DONE, FAILED }
+
+    private static final String VERSION_RECORD = "VERSION";
+    private static final int FORMAT_VERSION = 2;
+
+    private final Path ledgerFile;
+    private final FileChannel channel;
+    private final BitSet done = new BitSet(); // By trial number
+    private final Set<String> inFlight = new HashSet<>(); // Configuration hashes
+
+    /**
+     * Opens the ledger. When resuming, a torn final record is cut off first, so the next
+     * record starts on a line of its own, an older format is converted, and the existing
+     * records are read back; otherwise any previous ledger is discarded and a fresh one is started.
+     *
+     * @param ledgerFile The ledger file.
+     * @param resume     Whether to keep and load existing records.
+     * @throws IOException If the ledger cannot be read or opened, or was written in a newer format.
+     */
+    public TrialLedger(Path ledgerFile, boolean resume) throws IOException {
+        this.ledgerFile = ledgerFile;
+        if (resume && Files.exists(ledgerFile)) {
+            try (FileChannel existing = FileChannel.open(ledgerFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long validLength = completeLength(existing);
+                if (existing.size() > validLength) {
+                    existing.truncate(validLength);
+                    existing.force(false);
+                }
+            }
+            int version = readVersion(ledgerFile);
+            if (version > FORMAT_VERSION) {
+                throw new IOException(ledgerFile + " was written in ledger format " + version
+                        + ", newer than this version reads (" + FORMAT_VERSION + ")");
+            }
+            if (version < FORMAT_VERSION) {
+                upgrade(ledgerFile);
+            }
+            this.channel = FileChannel.open(ledgerFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            load();
+        } else {
+            this.channel = FileChannel.open(ledgerFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            writeLine(VERSION_RECORD + "\t" + FORMAT_VERSION);
+        }
+    }
+
+    /**
+     * @return The format version on the first line, or 1 for a ledger from before versions were recorded.
+     */
+    private static int readVersion(Path ledgerFile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(ledgerFile, StandardCharsets.UTF_8)) {
+            String firstLine = reader.readLine();
+            if (firstLine == null || !firstLine.startsWith(VERSION_RECORD + "\t")) {
+                return 1;
+            }
+            try {
+                return Integer.parseInt(firstLine.substring(VERSION_RECORD.length() + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid version record in " + ledgerFile + ": " + firstLine);
+            }
+        }
+    }
+
+    /**
+     * Rewrites a version 1 ledger in the current format. Its results have three fixed width
+     * columns where the current ones have Layers and Depth, so the F1 score would otherwise be
+     * read from the accuracy column. The new file replaces the old one in a single rename.
+     */
+    private static void upgrade(Path ledgerFile) throws IOException {
+        Path converted = ledgerFile.resolveSibling(ledgerFile.getFileName() + ".upgrade");
+        try (BufferedReader reader = Files.newBufferedReader(ledgerFile, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(converted, StandardCharsets.UTF_8)) {
+            writer.write(VERSION_RECORD + "\t" + FORMAT_VERSION + "\n");
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split("\t", 3);
+                if (fields.length == 3 && fields[0].equals(State.DONE.name())) {
+                    line = fields[0] + "\t" + fields[1] + "\t" + GridSearchResult.upgradeCsvLine(fields[2]);
+                }
+                writer.write(line + "\n");
+            }
+        }
+        try (FileChannel written = FileChannel.open(converted, StandardOpenOption.WRITE)) {
+            written.force(true);
+        }
+        Files.move(converted, ledgerFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return The length in bytes of the complete records, up to and including the last newline.
+     */
+    private static long completeLength(FileChannel channel) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(4096);
+        for (long end = channel.size(); end > 0; ) {
+            long start = Math.max(0, end - block.capacity());
+            block.clear().limit((int) (end - start));
+            while (block.hasRemaining() && channel.read(block, start + block.position()) >= 0) {
+                // Keep reading until the block is full
+            }
+            for (int i = block.position() - 1; i >= 0; i--) {
+                if (block.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(ledgerFile, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split("\t", 3);
+                if (fields.length < 3) {
+                    continue;
+                }
+                try {
+                    switch (State.valueOf(fields[0])) {
+                        case STARTED -> {
+                            int trial = Integer.parseInt(fields[2]);
+                            // A finished trial stays finished even if it was later started again
+                            if (!done.get(trial)) {
+                                inFlight.add(fields[1]);
+                            }
+                        }
+                        case DONE -> {
+                            done.set(GridSearchResult.parseTrial(fields[2]));
+                            inFlight.remove(fields[1]);
+                        }
+                        case FAILED -> inFlight.remove(fields[1]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Not a record of this ledger; NumberFormatException is one too
+                }
+            }
+        }
+    }
+
+    public synchronized void recordStarted(HyperparameterConfig config, int trial) throws IOException {
+        append(State.STARTED, config.getConfigHash(), Integer.toString(trial));
+        if (!done.get(trial)) {
+            inFlight.add(config.getConfigHash());
+        }
+    }
+
+    public synchronized void recordDone(GridSearchResult result) throws IOException {
+        String hash = result.getConfig().getConfigHash();
+        append(State.DONE, hash, result.toCSVString());
+        done.set(result.getTrial());
+        inFlight.remove(hash);
+    }
+
+    public synchronized void recordFailed(HyperparameterConfig config, String message) throws IOException {
+        append(State.FAILED, config.getConfigHash(), String.valueOf(message).replace('\t', ' ').replace('\n', ' '));
+        inFlight.remove(config.getConfigHash());
+    }
+
+    public synchronized boolean isDone(int trial) {
+        return done.get(trial);
+    }
+
+    /**
+     * Reads back the result CSV line of every finished trial, in the order they finished. A
+     * trial reported twice, as by a worker whose lease had expired, appears twice.
+     *
+     * @return The lines, read lazily from the ledger file; close the stream when done.
+     * @throws IOException If the ledger cannot be read.
+     */
+    public synchronized Stream<String> doneResults() throws IOException {
+        return Files.lines(ledgerFile, StandardCharsets.UTF_8)
+                .map(line -> line.split("\t", 3))
+                .filter(fields -> fields.length == 3 && fields[0].equals(State.DONE.name()))
+                .map(fields -> fields[2]);
+    }
+
+    /**
+     * @return The number of trials that were started but neither finished nor failed.
+     */
+    public synchronized int countInFlight() {
+        return inFlight.size();
+    }
+
+    public synchronized int countDone() {
+        return done.cardinality();
+    }
+
+    private void append(State state, String hash, String payload) throws IOException {
+        writeLine(state + "\t" + hash + "\t" + payload);
+    }
+
+    private void writeLine(String line) throws IOException {
+        ByteBuffer record = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        channel.force(false); // fsync the record before reporting it as written
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.assignment.mlp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Turns the proposals of a {@link SearchStrategy} into training runs one at a time, so a
+ * search holds only the runs in flight however large the strategy's list is. Trials already
+ * done in the ledger are skipped. A strategy without a limit is adaptive, so the scores of its
+ * skipped trials are reported to it as if they had just finished, and it resumes with what it
+ * had learned; a fixed list is proposed whatever the scores, so they are not read back. For a
+ * fixed-list strategy, consecutive configurations that differ only in epochs are gathered
+ * into one {@link TrialGroup}; this needs one proposal of look-ahead. Adaptive strategies are
+ * asked for a configuration only when a run is wanted.
+ */
+public class TrialSource {
+    private final SearchStrategy strategy;
+    private final int maxTrials;
+    private final TrialLedger ledger;
+    private final boolean grouping;
+    private final Map<Integer, Double> doneScores = new HashMap<>(); // Validation F1 by trial, for adaptive strategies
+    private HyperparameterConfig lookahead;
+    private int lookaheadTrial;
+    private int proposedCount = 1;
+    private boolean exhausted = false;
+
+    /**
+     * @param firstConfig The configuration the strategy has just proposed, which the source starts with.
+     * @param maxTrials   The most configurations to draw, counting the first (0 for no limit).
+     * @throws IOException If the scores of finished trials cannot be read from the ledger.
+     */
+    public TrialSource(SearchStrategy strategy, HyperparameterConfig firstConfig, int maxTrials, TrialLedger ledger)
+            throws IOException {
+        this.strategy = strategy;
+        this.maxTrials = maxTrials;
+        this.ledger = ledger;
+        this.grouping = strategy.size() >= 0;
+        if (!grouping && ledger.countDone() > 0) {
+            // Bounded by the trial or time budget, unlike the size of a grid
+            try (Stream<String> results = ledger.doneResults()) {
+                results.forEach(line -> doneScores.putIfAbsent(GridSearchResult.parseTrial(line),
+                        GridSearchResult.parseF1Score(line)));
+            }
+        }
+        int trial = trialNumber();
+        if (!skipIfDone(firstConfig, trial)) {
+            lookahead = firstConfig;
+            lookaheadTrial = trial;
+        }
+    }
+
+    /**
+     * @return The next training run, or null once the strategy or the trial budget is exhausted.
+     */
+    public TrialGroup next() {
+        if (lookahead == null && !advance()) {
+            return null;
+        }
+        List<HyperparameterConfig> configs = new ArrayList<>();
+        List<Integer> trials = new ArrayList<>();
+        String scheduleKey = lookahead.getScheduleKey();
+        do {
+            configs.add(lookahead);
+            trials.add(lookaheadTrial);
+            lookahead = null;
+        } while (grouping && advance() && lookahead.getScheduleKey().equals(scheduleKey));
+        return new TrialGroup(configs, trials.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Draws the next configuration not yet done into the look-ahead.
+     *
+     * @return False if there is none.
+     */
+    private boolean advance() {
+        while (!exhausted) {
+            HyperparameterConfig config = maxTrials > 0 && proposedCount >= maxTrials ? null : strategy.propose();
+            if (config == null) {
+                exhausted = true;
+            } else {
+                proposedCount++;
+                int trial = trialNumber();
+                if (!skipIfDone(config, trial)) {
+                    lookahead = config;
+                    lookaheadTrial = trial;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the trial finished before the resume; if so, an adaptive strategy has been told its score.
+     */
+    private boolean skipIfDone(HyperparameterConfig config, int trial) {
+        if (!ledger.isDone(trial)) {
+            return false;
+        }
+        if (!grouping) {
+            strategy.observe(config, doneScores.getOrDefault(trial, Double.NaN));
+        }
+        return true;
+    }
+
+    private int trialNumber() {
+        int trial = strategy.getLastTrial();
+        return trial > 0 ? trial : proposedCount;
+    }
+
+    /**
+     * @return Whether every run has been handed out.
+     */
+    public boolean isExhausted() {
+        return exhausted && lookahead == null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.assignment.mlp;
 
+import java.util.List;
+
 import org.deeplearning4j.nn.weights.WeightInit;
 import org.nd4j.linalg.activations.Activation;
 
@@ -9,7 +11,7 @@ public class UserInput {
     private double learningRate;
     private int batchSize;
     private int epochs;
-    private int[] neuronsPerLayer;
+    private List<LayerSpec> layers;
     private Activation activation;
     private WeightInit weightInit;
 
@@ -23,12 +25,17 @@ public class UserInput {
 
     public UserInput(String dataPath, long seed, int batchSize, double learningRate, int epochs,
             int[] neuronsPerLayer, Activation activation, WeightInit weightInit) {
+        this(dataPath, seed, batchSize, learningRate, epochs, LayerSpec.widths(neuronsPerLayer), activation, weightInit);
+    }
+
+    public UserInput(String dataPath, long seed, int batchSize, double learningRate, int epochs,
+            List<LayerSpec> layers, Activation activation, WeightInit weightInit) {
         this.dataPath = dataPath;
         this.seed = seed;
         this.batchSize = batchSize;
         this.learningRate = learningRate;
         this.epochs = epochs;
-        this.neuronsPerLayer = neuronsPerLayer;
+        this.layers = layers;
         this.activation = activation;
         this.weightInit = weightInit;
     }
@@ -74,11 +81,22 @@ public class UserInput {
     }
 
     public int[] getNeuronsPerLayer() {
-        return neuronsPerLayer;
+        return layers.stream().mapToInt(LayerSpec::getWidth).toArray();
     }
 
     public void setNeuronsPerLayer(int[] neuronsPerLayer) {
-        this.neuronsPerLayer = neuronsPerLayer;
+        this.layers = LayerSpec.widths(neuronsPerLayer);
+    }
+
+    /**
+     * @return The hidden layers, in order from the input side.
+     */
+    public List<LayerSpec> getLayers() {
+        return layers;
+    }
+
+    public void setLayers(List<LayerSpec> layers) {
+        this.layers = layers;
     }
 
     public Activation getActivation() {
@@ -1,6 +1,7 @@
 package com.assignment.mlp;
 
 import java.io.IOException;
+import java.util.Locale;
 
 public class UtilityFunctions {
 
@@ -24,4 +25,26 @@ public class UtilityFunctions {
             // System.err.println("Error clearing console: " + e.getMessage());
         }
     }
+
+    /**
+     * Appends a value with four decimals, exactly as {@code String.format(Locale.ROOT, "%.4f", value)}
+     * would, but without a Formatter per row. Rounding the scaled value agrees with the Formatter
+     * except within a hair of a tie, where the two can round differently; those values, like NaN,
+     * infinities, negative and very large values, are passed to the Formatter.
+     */
+    public static void appendFourDecimals(StringBuilder out, double value) {
+        double scaled = value * 10_000;
+        if (!(value > 0 || Double.doubleToRawLongBits(value) == 0) || scaled >= 1e9
+                || Math.abs(scaled - Math.floor(scaled) - 0.5) < 1e-6) {
+            out.append(String.format(Locale.ROOT, "%.4f", value));
+            return;
+        }
+        long rounded = (long) Math.floor(scaled + 0.5);
+        out.append(rounded / 10_000).append('.');
+        long fraction = rounded % 10_000;
+        if (fraction < 1000) out.append('0');
+        if (fraction < 100) out.append('0');
+        if (fraction < 10) out.append('0');
+        out.append(fraction);
+    }
 }
\ No newline at end of file
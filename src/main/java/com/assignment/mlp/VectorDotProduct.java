@@ -0,0 +1,34 @@
+package com.assignment.mlp;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link DotProduct} on the JDK Vector API, using the widest float vectors the CPU has.
+ * Products are accumulated lane by lane with fused multiply-adds and summed once at the end,
+ * so results can differ from the plain loop in the last bits. Only load this class through
+ * {@link DotProduct#fastest()}: it fails to initialize when the incubator module is absent.
+ */
+final class VectorDotProduct implements DotProduct {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public float dot(float[] weights, int offset, float[] input, int length) {
+        if (length < SPECIES.length()) {
+            return SCALAR.dot(weights, offset, input, length); // Such as the raw features, too few to fill a vector
+        }
+        FloatVector sums = FloatVector.zero(SPECIES);
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            FloatVector w = FloatVector.fromArray(SPECIES, weights, offset + i);
+            sums = w.fma(FloatVector.fromArray(SPECIES, input, i), sums);
+        }
+        float sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) { // Tail shorter than one vector
+            sum += weights[offset + i] * input[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,199 @@
+package com.assignment.mlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Describes how the available cores are split between concurrent training trials
+ * and the native (OpenMP/BLAS) threads each trial's ND4J operations may use.
+ * Keeping workers x threadsPerWorker within the core count avoids the N x N
+ * oversubscription that occurs when every trial spins up a full native pool.
+ */
+public class WorkerLayout {
+    private static final long CALIBRATION_MILLIS_PER_LAYOUT = 2000; // Time budget for measuring each candidate layout
+
+    public enum Strategy {
+        SINGLE_THREADED, // One trial per core, each restricted to one native thread
+        MULTI_THREADED,  // A few trials, each using several native threads
+        AUTO             // Pick the layout with the best measured throughput
+    }
+
+    private final Strategy strategy;
+    private final int workers;
+    private final int threadsPerWorker;
+
+    public WorkerLayout(Strategy strategy, int workers, int threadsPerWorker) {
+        if (workers < 1 || threadsPerWorker < 1) {
+            throw new IllegalArgumentException("Workers and threads per worker must be at least 1");
+        }
+        this.strategy = strategy;
+        this.workers = workers;
+        this.threadsPerWorker = threadsPerWorker;
+    }
+
+    public static WorkerLayout singleThreaded(int cores) {
+        return new WorkerLayout(Strategy.SINGLE_THREADED, Math.max(1, cores), 1);
+    }
+
+    public static WorkerLayout multiThreaded(int cores) {
+        // Split the cores roughly evenly between the number of trials and the threads per trial
+        int threads = Math.max(1, (int) Math.round(Math.sqrt(cores)));
+        return new WorkerLayout(Strategy.MULTI_THREADED, Math.max(1, cores / threads), threads);
+    }
+
+    /**
+     * Resolves a strategy into a concrete layout. AUTO runs a short calibration
+     * that trains the sample configuration under each candidate layout.
+     *
+     * @param strategy  The requested strategy.
+     * @param cores     The number of cores available to the search.
+     * @param dataSet   Data used for calibration runs.
+     * @param sample    A representative configuration from the search space.
+     * @param seed      The random seed for calibration models.
+     * @return The chosen layout.
+     */
+    public static WorkerLayout resolve(Strategy strategy, int cores, InMemoryDataSet dataSet,
+                                       HyperparameterConfig sample, long seed) throws InterruptedException {
+        return switch (strategy) {
+            case SINGLE_THREADED -> singleThreaded(cores);
+            case MULTI_THREADED -> multiThreaded(cores);
+            case AUTO -> calibrate(cores, dataSet, sample, seed);
+        };
+    }
+
+    /**
+     * Measures training throughput (examples per second across all workers) for every
+     * power-of-two thread count per worker and returns the fastest layout.
+     */
+    private static WorkerLayout calibrate(int cores, InMemoryDataSet dataSet, HyperparameterConfig sample,
+                                          long seed) throws InterruptedException {
+        List<WorkerLayout> candidates = new ArrayList<>();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            candidates.add(new WorkerLayout(Strategy.AUTO, Math.max(1, cores / threads), threads));
+        }
+
+        System.out.println("Calibrating worker layout over " + candidates.size() + " candidates...");
+        measureThroughput(candidates.get(0), dataSet, sample, seed); // Warm-up so JIT compilation does not penalise the first candidate
+        WorkerLayout best = candidates.get(0);
+        double bestThroughput = -1;
+        for (WorkerLayout candidate : candidates) {
+            double throughput = measureThroughput(candidate, dataSet, sample, seed);
+            System.out.printf(Locale.US, "  %s -> %.1f examples/sec%n", candidate, throughput);
+            if (throughput > bestThroughput) {
+                bestThroughput = throughput;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static double measureThroughput(WorkerLayout layout, InMemoryDataSet dataSet, HyperparameterConfig sample,
+                                            long seed) throws InterruptedException {
+        ThreadLimits previousLimits = layout.apply();
+        ExecutorService pool = Executors.newFixedThreadPool(layout.workers);
+        try {
+            long deadline = System.currentTimeMillis() + CALIBRATION_MILLIS_PER_LAYOUT;
+            long startTime = System.nanoTime();
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int w = 0; w < layout.workers; w++) {
+                long workerSeed = seed + w;
+                futures.add(pool.submit(() -> {
+                    MultiLayerNetwork model = MultilayerPerceptron.buildNetwork(sample, dataSet.numFeatures(), workerSeed);
+                    DataSetIterator iterator = dataSet.iterator(sample.getBatchSize());
+                    long examples = 0;
+                    while (System.currentTimeMillis() < deadline) {
+                        if (!iterator.hasNext()) {
+                            iterator.reset();
+                        }
+                        DataSet batch = iterator.next();
+                        model.fit(batch);
+                        examples += batch.numExamples();
+                    }
+                    return examples;
+                }));
+            }
+
+            long totalExamples = 0;
+            for (Future<Long> future : futures) {
+                try {
+                    totalExamples += future.get();
+                } catch (ExecutionException e) {
+                    System.err.println("Calibration run failed for " + layout + ": " + e.getCause().getMessage());
+                    return 0;
+                }
+            }
+            double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+            return elapsedSeconds > 0 ? totalExamples / elapsedSeconds : 0;
+        } finally {
+            pool.shutdownNow();
+            previousLimits.close();
+        }
+    }
+
+    /**
+     * Restricts ND4J's native thread pools to this layout's threads per worker.
+     * libnd4j keeps these limits process-wide, so applying them once before the
+     * workers start caps every worker's OpenMP and BLAS parallelism.
+     *
+     * @return The limits in force before, to be closed once the workers are done so
+     *         later work in the same process gets its threads back.
+     */
+    public ThreadLimits apply() {
+        ThreadLimits previous = new ThreadLimits();
+        ThreadLimits.set(threadsPerWorker, threadsPerWorker, threadsPerWorker);
+        return previous;
+    }
+
+    /**
+     * A snapshot of ND4J's process-wide thread limits. Closing it puts them back.
+     */
+    public static class ThreadLimits implements AutoCloseable {
+        private final int maxThreads;
+        private final int maxMasterThreads;
+        private final int blasThreads;
+
+        private ThreadLimits() {
+            this.maxThreads = Nd4j.getEnvironment().maxThreads();
+            this.maxMasterThreads = Nd4j.getEnvironment().maxMasterThreads();
+            this.blasThreads = Nd4j.factory().blas().getMaxThreads();
+        }
+
+        private static void set(int maxThreads, int maxMasterThreads, int blasThreads) {
+            Nd4j.getEnvironment().setMaxThreads(maxThreads);
+            Nd4j.getEnvironment().setMaxMasterThreads(maxMasterThreads);
+            Nd4j.factory().blas().setMaxThreads(blasThreads);
+        }
+
+        @Override
+        public void close() {
+            set(maxThreads, maxMasterThreads, blasThreads);
+        }
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getThreadsPerWorker() {
+        return threadsPerWorker;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d worker(s) x %d native thread(s) [%s]", workers, threadsPerWorker, strategy);
+    }
+}
@@ -0,0 +1,97 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+
+public class BinaryDataFileTest {
+    private static final int ROWS = 250;
+    private static final int ROW_GROUP_ROWS = 64;
+
+    private static Path writeCsv(Path dir) throws Exception {
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder("a,b,c,d,e,label\n");
+        for (int i = 0; i < ROWS; i++) {
+            for (int column = 0; column < 5; column++) {
+                csv.append((float) (column * 10 + random.nextGaussian() * (column + 1))).append(',');
+            }
+            csv.append(i % 2).append('\n');
+        }
+        Path file = dir.resolve("data.csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static BinaryDataFile convertAndOpen(Path dir) throws Exception {
+        Path binary = dir.resolve("data" + BinaryDataFile.EXTENSION);
+        assertEquals(ROWS, BinaryDataFile.convert(writeCsv(dir).toString(), binary.toString(), ROW_GROUP_ROWS));
+        return BinaryDataFile.open(binary.toString());
+    }
+
+    @Test
+    public void iteratingTheMappedFileGivesTheRowsOfTheCsv(@TempDir Path dir) throws Exception {
+        BinaryDataFile file = convertAndOpen(dir);
+        assertEquals(ROWS, file.numRows());
+        assertEquals(5, file.numFeatures());
+        assertEquals(4, file.numRowGroups()); // 64 + 64 + 64 + 58
+
+        DataSet csv = DataLoader.readRaw(dir.resolve("data.csv").toString());
+        float[][] expectedFeatures = csv.getFeatures().toFloatMatrix();
+        float[][] expectedLabels = csv.getLabels().toFloatMatrix();
+        BinaryDataSetIterator iterator = file.iterator(50);
+        int row = 0;
+        while (iterator.hasNext()) {
+            DataSet batch = iterator.next();
+            float[][] features = batch.getFeatures().toFloatMatrix();
+            float[][] labels = batch.getLabels().toFloatMatrix();
+            for (int i = 0; i < features.length; i++, row++) {
+                assertArrayEquals(expectedFeatures[row], features[i]);
+                assertArrayEquals(expectedLabels[row], labels[i]);
+            }
+        }
+        assertEquals(ROWS, row);
+        assertEquals(csv.getFeatures(), file.readAllRaw().getFeatures());
+
+        // The header keeps the statistics of the whole file
+        NormalizerStandardize wholeFile = new NormalizerStandardize();
+        wholeFile.fit(csv);
+        assertArrayEquals(wholeFile.getMean().toFloatVector(), file.getNormalizer().getMean().toFloatVector(), 1e-4f);
+        assertArrayEquals(wholeFile.getStd().toFloatVector(), file.getNormalizer().getStd().toFloatVector(), 1e-4f);
+    }
+
+    @Test
+    public void aNormalizerFittedOnSomeRowGroupsUsesOnlyTheirRows(@TempDir Path dir) throws Exception {
+        BinaryDataFile file = convertAndOpen(dir);
+        int[] groups = {3, 1};
+        BinaryDataSetIterator iterator = file.iterator(16, groups, new Random(527));
+        assertEquals(ROW_GROUP_ROWS + (ROWS - 3 * ROW_GROUP_ROWS), iterator.numExamples());
+
+        DataSet csv = DataLoader.readRaw(dir.resolve("data.csv").toString());
+        DataSet subset = DataSet.merge(List.of(
+                csv.getRange(ROW_GROUP_ROWS, 2 * ROW_GROUP_ROWS), csv.getRange(3 * ROW_GROUP_ROWS, ROWS)));
+        NormalizerStandardize expected = new NormalizerStandardize();
+        expected.fit(subset);
+        NormalizerStandardize fitted = file.fitNormalizer(groups);
+        assertArrayEquals(expected.getMean().toFloatVector(), fitted.getMean().toFloatVector(), 1e-4f);
+        assertArrayEquals(expected.getStd().toFloatVector(), fitted.getStd().toFloatVector(), 1e-4f);
+
+        // Batches of the fitted iterator are standardized copies; the mapped rows stay raw
+        iterator.setPreProcessor(fitted);
+        int rows = 0;
+        while (iterator.hasNext()) {
+            rows += iterator.next().numExamples();
+        }
+        assertEquals(iterator.numExamples(), rows);
+        assertArrayEquals(csv.getFeatures().getRow(ROW_GROUP_ROWS).toFloatVector(), file.groupFeatures(1).getRow(0).toFloatVector());
+    }
+}
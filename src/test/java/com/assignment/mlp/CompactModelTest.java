@@ -0,0 +1,69 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+public class CompactModelTest {
+    private static final int FEATURES = 5;
+    private static final int ROWS = 256;
+
+    private static DataSet rawData() {
+        Nd4j.getRandom().setSeed(3);
+        INDArray x = Nd4j.randn(DataType.FLOAT, ROWS, FEATURES).muli(4).addi(10);
+        INDArray y = Nd4j.rand(DataType.FLOAT, ROWS, 1).gt(0.5).castTo(DataType.FLOAT);
+        return new DataSet(x, y);
+    }
+
+    /**
+     * Scores every row with DL4J on normalized features and with the compact model on raw ones.
+     */
+    private static void assertSameScores(MultiLayerNetwork network, NormalizerStandardize normalizer, DataSet raw,
+                                         CompactModel compactModel, double tolerance) {
+        INDArray normalized = raw.getFeatures().dup();
+        normalizer.transform(normalized);
+        float[] expected = network.output(normalized).castTo(DataType.FLOAT).toFloatVector();
+        float[][] rows = raw.getFeatures().toFloatMatrix();
+        CompactScorer scorer = compactModel.newScorer(false);
+        for (int r = 0; r < rows.length; r++) {
+            assertEquals(expected[r], scorer.score(rows[r]), tolerance, "Row " + r);
+        }
+    }
+
+    @Test
+    public void compactModelScoresLikeTheTrainedNetwork(@TempDir Path dir) throws Exception {
+        DataSet raw = rawData();
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(raw);
+        DataSet normalized = raw.copy();
+        normalizer.transform(normalized);
+
+        // Batch normalization and dropout are folded or dropped by the export, so cover both
+        MultiLayerNetwork network = MultilayerPerceptron.buildNetwork(527, FEATURES, 0.01,
+                LayerSpec.parseList("32:bn,16:d0.2,8:tanh"), Activation.RELU, WeightInit.XAVIER);
+        for (int epoch = 0; epoch < 5; epoch++) {
+            network.fit(new InMemoryDataSet(normalized.getFeatures(), normalized.getLabels(), normalizer).iterator(32));
+        }
+
+        CompactModel compactModel = CompactModelExporter.export(network, normalizer);
+        assertSameScores(network, normalizer, raw, compactModel, 1e-4);
+
+        File file = dir.resolve("model" + CompactModel.EXTENSION).toFile();
+        compactModel.save(file, false);
+        assertSameScores(network, normalizer, raw, CompactModel.load(file), 1e-4);
+        compactModel.save(file, true);
+        assertSameScores(network, normalizer, raw, CompactModel.load(file), 0.05); // int8 weights
+    }
+}
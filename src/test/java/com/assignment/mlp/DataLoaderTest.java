@@ -0,0 +1,52 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+public class DataLoaderTest {
+
+    private static Path writeCsv(Path dir, int rows) throws Exception {
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder("a,b,c,d,e,label\n");
+        for (int i = 0; i < rows; i++) {
+            for (int column = 0; column < 5; column++) {
+                csv.append(column * 10 + random.nextGaussian() * (column + 1)).append(',');
+            }
+            csv.append(i % 2).append('\n');
+        }
+        Path file = dir.resolve("data.csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void everyFoldIsNormalizedWithItsOwnTrainingStatistics(@TempDir Path dir) throws Exception {
+        Path file = writeCsv(dir, 300);
+        DataSplits splits = DataLoader.loadSplits(file.toString(), new SplitConfig(0.2, 0.1, 3, true, 527));
+
+        assertEquals(3, splits.numFolds());
+        INDArray previousMean = null;
+        for (InMemoryDataSet[] pair : splits.getTrainValidationPairs()) {
+            // Standardized with its own statistics, each training partition has zero mean per column
+            INDArray trainMean = pair[0].getFeatures().mean(0);
+            for (int column = 0; column < trainMean.length(); column++) {
+                assertEquals(0, trainMean.getDouble(column), 1e-4);
+            }
+            INDArray fittedMean = pair[0].getNormalizer().getMean();
+            if (previousMean != null) {
+                assertNotEquals(previousMean, fittedMean);
+            }
+            assertEquals(fittedMean, pair[1].getNormalizer().getMean());
+            previousMean = fittedMean;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+public class DataParallelTrainerTest {
+
+    private static InMemoryDataSet randomData(int rows, int features) {
+        Nd4j.getRandom().setSeed(11);
+        INDArray x = Nd4j.randn(DataType.FLOAT, rows, features);
+        INDArray y = Nd4j.rand(DataType.FLOAT, rows, 1).gt(0.5).castTo(DataType.FLOAT);
+        return new InMemoryDataSet(x, y, null);
+    }
+
+    private static MultiLayerNetwork network(int features) {
+        return MultilayerPerceptron.buildNetwork(527, features, 0.01, LayerSpec.widths(16, 8), Activation.RELU, WeightInit.XAVIER);
+    }
+
+    @Test
+    public void oneReplicaTrainsExactlyLikePlainTraining() throws Exception {
+        InMemoryDataSet data = randomData(200, 5);
+        MultiLayerNetwork plain = network(5);
+        MultiLayerNetwork parallel = network(5);
+        assertEquals(plain.params(), parallel.params());
+
+        for (int epoch = 0; epoch < 2; epoch++) {
+            plain.fit(data.iterator(32));
+        }
+        try (DataParallelTrainer trainer = new DataParallelTrainer(parallel, 1, 3)) {
+            for (int epoch = 0; epoch < 2; epoch++) {
+                trainer.fit(data.iterator(32));
+            }
+        }
+
+        assertEquals(plain.params(), parallel.params());
+        assertEquals(plain.getIterationCount(), parallel.getIterationCount());
+        assertEquals(2, parallel.getEpochCount());
+    }
+
+    @Test
+    public void severalReplicasAreRepeatableForTheSameSeed() throws Exception {
+        InMemoryDataSet data = randomData(200, 5);
+        MultiLayerNetwork first = network(5);
+        MultiLayerNetwork second = network(5);
+        INDArray initial = first.params().dup();
+        for (MultiLayerNetwork master : new MultiLayerNetwork[]{first, second}) {
+            try (DataParallelTrainer trainer = new DataParallelTrainer(master, 2, 2)) {
+                for (int epoch = 0; epoch < 2; epoch++) {
+                    trainer.fit(data.iterator(32));
+                }
+            }
+        }
+        assertNotEquals(initial, first.params());
+        assertEquals(first.params(), second.params());
+    }
+
+    @Test
+    public void theIterationCountAdvancesOncePerBatchOfTheLargestShare() throws Exception {
+        // 5 batches over 2 replicas fitting 2 each: a full round of 4, then one batch for replica 0 alone
+        InMemoryDataSet data = randomData(160, 5);
+        MultiLayerNetwork master = network(5);
+        try (DataParallelTrainer trainer = new DataParallelTrainer(master, 2, 2)) {
+            trainer.fit(data.iterator(32));
+            assertEquals(3, master.getIterationCount());
+            trainer.fit(data.iterator(32));
+        }
+        assertEquals(6, master.getIterationCount());
+        assertEquals(2, master.getEpochCount());
+    }
+}
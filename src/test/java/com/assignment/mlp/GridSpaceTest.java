@@ -0,0 +1,102 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+
+public class GridSpaceTest {
+    private static final double[] LEARNING_RATES = {0.01, 0.001};
+    private static final int[] BATCH_SIZES = {32, 64};
+    private static final List<List<LayerSpec>> SHAPES = List.of(LayerSpec.widths(16), LayerSpec.widths(32, 16));
+    private static final List<Activation> ACTIVATIONS = List.of(Activation.RELU, Activation.TANH);
+    private static final List<WeightInit> WEIGHT_INITS = List.of(WeightInit.XAVIER, WeightInit.RELU);
+    private static final int[] EPOCHS = {5, 10, 20};
+
+    private static GridSpace grid() {
+        return new GridSpace(LEARNING_RATES, BATCH_SIZES, SHAPES, ACTIVATIONS, WEIGHT_INITS, EPOCHS);
+    }
+
+    private static List<Long> acceptedIndices(GridSpace space) {
+        List<Long> indices = new ArrayList<>();
+        for (long index = space.nextAccepted(space.getStart()); index >= 0; index = space.nextAccepted(index + 1)) {
+            indices.add(index);
+        }
+        return indices;
+    }
+
+    @Test
+    public void decodingMatchesTheNestedLoopOrder() {
+        List<String> expected = new ArrayList<>();
+        for (double learningRate : LEARNING_RATES) {
+            for (int batchSize : BATCH_SIZES) {
+                for (List<LayerSpec> shape : SHAPES) {
+                    for (Activation activation : ACTIVATIONS) {
+                        for (WeightInit weightInit : WEIGHT_INITS) {
+                            for (int epochs : EPOCHS) {
+                                expected.add(new HyperparameterConfig(learningRate, batchSize, epochs, shape,
+                                        activation, weightInit).getStableKey());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        GridSpace space = grid();
+        assertEquals(expected.size(), space.size());
+        List<String> decoded = new ArrayList<>();
+        List<String> iterated = new ArrayList<>();
+        for (long index = 0; index < space.size(); index++) {
+            decoded.add(space.get(index).getStableKey());
+        }
+        space.forEach(config -> iterated.add(config.getStableKey()));
+        assertEquals(expected, decoded);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void widthSequencesGoFromShallowToDeepWithTheFirstLayerMostSignificant() {
+        List<List<LayerSpec>> shapes = GridSpace.widthSequences(new int[]{8, 16}, 1, 2);
+        List<String> formatted = new ArrayList<>();
+        shapes.forEach(shape -> formatted.add(LayerSpec.format(shape)));
+        assertEquals(List.of("8", "16", "8/8", "8/16", "16/8", "16/16"), formatted);
+    }
+
+    @Test
+    public void nextAcceptedSkipsFilteredConfigurations() {
+        GridSpace space = new GridSpace(new double[]{0.001}, new int[]{32}, GridSpace.widthSequences(new int[]{8, 16}, 2, 2),
+                List.of(Activation.RELU), List.of(WeightInit.XAVIER), new int[]{10})
+                .filter(GridSpace.nonIncreasingWidths());
+        // Shapes 8,8 16,8 and 16,16 pass; 8,16 grows
+        assertEquals(0, space.nextAccepted(0));
+        assertEquals(2, space.nextAccepted(1));
+        assertEquals(List.of(0L, 2L, 3L), acceptedIndices(space));
+        assertEquals(-1, space.nextAccepted(4));
+        assertTrue(space.accepts(space.get(3)));
+    }
+
+    @Test
+    public void sevenShardsOfAFilteredGridCoverItExactlyOnce() {
+        GridSpace space = new GridSpace(LEARNING_RATES, BATCH_SIZES, GridSpace.widthSequences(new int[]{8, 16, 32}, 1, 3),
+                ACTIVATIONS, WEIGHT_INITS, EPOCHS).filter(GridSpace.nonIncreasingWidths());
+        int shards = 7;
+
+        List<Long> covered = new ArrayList<>();
+        long previousEnd = space.getStart();
+        for (int shard = 1; shard <= shards; shard++) {
+            GridSpace part = space.shard(shard, shards);
+            assertEquals(previousEnd, part.getStart());
+            assertEquals(0, part.getStart() % EPOCHS.length, "A shard boundary splits a group of epoch variants");
+            previousEnd = part.getEnd();
+            covered.addAll(acceptedIndices(part));
+        }
+        assertEquals(space.getEnd(), previousEnd);
+        assertEquals(acceptedIndices(space), covered);
+    }
+}
@@ -0,0 +1,78 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+public class InferenceServerTest {
+    private static final int FEATURES = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static TrainedModel model(boolean withNormalizer) {
+        Nd4j.getRandom().setSeed(3);
+        INDArray x = Nd4j.randn(DataType.FLOAT, 64, FEATURES);
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(new DataSet(x, Nd4j.zeros(DataType.FLOAT, 64, 1)));
+        return new TrainedModel(MultilayerPerceptron.buildNetwork(527, FEATURES, 0.001, LayerSpec.widths(8),
+                Activation.RELU, WeightInit.XAVIER), withNormalizer ? normalizer : null);
+    }
+
+    private static HttpResponse<String> send(HttpClient client, InferenceServer server, String path, String body)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .timeout(TIMEOUT);
+        request = body != null ? request.POST(HttpRequest.BodyPublishers.ofString(body)) : request.GET();
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void predictionsOverLocalhostMatchTheModel() throws Exception {
+        TrainedModel model = model(true);
+        float[][] rows = {{0.1f, -1.2f, 0.3f, 2.0f, -0.5f}, {1.5f, 0.2f, -0.7f, 0.0f, 0.9f}};
+        double[] expected = new ModelPool(model(true), 1).predict(rows);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+        try (InferenceServer server = new InferenceServer(model, 2, 0, 16, 1000, false)) {
+            assertEquals("ok\n", send(client, server, "/health", null).body());
+
+            HttpResponse<String> response = send(client, server, "/predict",
+                    "0.1,-1.2,0.3,2.0,-0.5\n1.5, 0.2, -0.7, 0.0, 0.9\n");
+            assertEquals(200, response.statusCode());
+            String[] lines = response.body().split("\n");
+            assertEquals(2, lines.length);
+            for (int i = 0; i < lines.length; i++) {
+                String[] fields = lines[i].split(",");
+                assertEquals(expected[i] > 0.5 ? "1" : "0", fields[0]);
+                assertEquals(expected[i], Double.parseDouble(fields[1]), 1e-4);
+            }
+
+            assertEquals(400, send(client, server, "/predict", "1,2,3\n").statusCode());
+            assertEquals(400, send(client, server, "/predict", "1,2,x,4,5\n").statusCode());
+            assertEquals(405, send(client, server, "/predict", null).statusCode());
+
+            Map<String, Object> stats = server.getStats();
+            assertTrue((double) stats.get("averageBatchSize") >= 1.0);
+        }
+    }
+
+    @Test
+    public void aModelWithoutANormalizerIsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> new InferenceServer(model(false), 1, 0, 16, 1000, false));
+    }
+}
@@ -0,0 +1,54 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+
+public class LayerSpecTest {
+
+    @Test
+    public void parsingReadsEveryLayerOption() {
+        List<LayerSpec> layers = LayerSpec.parseList(" 128:RELU:bn , 64:d0.2/32");
+        assertEquals(3, layers.size());
+
+        LayerSpec first = layers.get(0);
+        assertEquals(128, first.getWidth());
+        assertEquals(Activation.RELU, first.getActivation(Activation.TANH));
+        assertTrue(first.isBatchNorm());
+        assertEquals(0, first.getDropout());
+
+        LayerSpec second = layers.get(1);
+        assertEquals(Activation.TANH, second.getActivation(Activation.TANH)); // No activation of its own
+        assertEquals(0.2, second.getDropout());
+        assertFalse(second.isBatchNorm());
+
+        assertEquals(32, layers.get(2).getWidth());
+    }
+
+    @Test
+    public void formattedLayersParseBackToTheSameLayers() {
+        for (String text : List.of("256/128/64", "128:relu:bn/64:d0.2/32", "16:tanh:d0.5:bn", "8")) {
+            String formatted = LayerSpec.format(LayerSpec.parseList(text));
+            assertEquals(text, formatted);
+            assertEquals(formatted, LayerSpec.format(LayerSpec.parseList(formatted)));
+        }
+        // Commas are accepted on input, and options are written in a fixed order
+        assertEquals("64:swish:d0.1:bn/32", LayerSpec.format(LayerSpec.parseList("64:bn:d0.1:swish,32")));
+        assertEquals("256/128/64", LayerSpec.format(LayerSpec.widths(256, 128, 64)));
+    }
+
+    @Test
+    public void invalidLayersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> LayerSpec.parseList(" , "));
+        assertThrows(IllegalArgumentException.class, () -> LayerSpec.parse("wide"));
+        assertThrows(IllegalArgumentException.class, () -> LayerSpec.parse("0"));
+        assertThrows(IllegalArgumentException.class, () -> LayerSpec.parse("32:d1.0"));
+        assertThrows(IllegalArgumentException.class, () -> LayerSpec.parse("32:sparkle"));
+    }
+}
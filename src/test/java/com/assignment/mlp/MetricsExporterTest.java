@@ -0,0 +1,66 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MetricsExporterTest {
+
+    @Test
+    public void theRegistryIsServedOverLocalhostWhileEnabled() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("mlp_rows_total", "Rows seen.").add(3);
+        try (MetricsExporter exporter = new MetricsExporter(registry, 0, null, 0)) {
+            assertTrue(registry.isEnabled());
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + exporter.getPort() + "/metrics"))
+                            .timeout(Duration.ofSeconds(10)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+            assertTrue(response.body().contains("\nmlp_rows_total 3\n"));
+            // The JVM gauges are registered as the exporter starts
+            assertTrue(response.body().contains("# TYPE jvm_heap_used_bytes gauge"));
+        }
+        assertFalse(registry.isEnabled());
+    }
+
+    @Test
+    public void closingAppendsAFinalCsvSampleUnderOneHeader(@TempDir Path dir) throws Exception {
+        File csvFile = dir.resolve("metrics.csv").toFile();
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Counter rows = registry.counter("mlp_rows_total", "Rows seen.");
+        // An hour between samples, so only the explicit and the closing samples are written
+        try (MetricsExporter exporter = new MetricsExporter(registry, -1, csvFile, 3600)) {
+            assertEquals(-1, exporter.getPort());
+            rows.add(1);
+            exporter.appendCsv();
+            rows.add(1);
+        }
+        // A second run appends to the same file
+        try (MetricsExporter exporter = new MetricsExporter(registry, -1, csvFile, 3600)) {
+            rows.add(1);
+        }
+
+        List<String> lines = Files.readAllLines(csvFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals("timestamp,metric,value", lines.get(0));
+        assertEquals(1, lines.stream().filter(line -> line.startsWith("timestamp")).count());
+        List<String> rowSamples = lines.stream().filter(line -> line.contains(",mlp_rows_total,"))
+                .map(line -> line.substring(line.lastIndexOf(',') + 1)).toList();
+        assertEquals(List.of("1", "2", "3"), rowSamples);
+    }
+}
@@ -0,0 +1,74 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void timersAndCountersAccumulateUnderOneName() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Timer timer = registry.timer("mlp_step_seconds", "Time per step.");
+        assertSame(timer, registry.timer("mlp_step_seconds", "Ignored once the timer exists."));
+        timer.record(1_000_000_000L);
+        timer.record(3_000_000_000L);
+        MetricsRegistry.Counter counter = registry.counter("mlp_rows_total", "Rows seen.");
+        counter.add(5);
+        registry.counter("mlp_rows_total", "Rows seen.").add(2);
+        registry.gauge("mlp_replicas", "Replicas.", () -> 4);
+
+        Map<String, Double> snapshot = registry.snapshot();
+        assertEquals(List.of("mlp_step_seconds_count", "mlp_step_seconds_sum", "mlp_step_seconds_max", "mlp_rows_total",
+                "mlp_replicas"), List.copyOf(snapshot.keySet()));
+        assertEquals(2.0, snapshot.get("mlp_step_seconds_count"));
+        assertEquals(4.0, snapshot.get("mlp_step_seconds_sum"));
+        assertEquals(3.0, snapshot.get("mlp_step_seconds_max"));
+        assertEquals(7.0, snapshot.get("mlp_rows_total"));
+        assertEquals(4.0, snapshot.get("mlp_replicas"));
+
+        registry.remove("mlp_replicas");
+        assertFalse(registry.snapshot().containsKey("mlp_replicas"));
+    }
+
+    @Test
+    public void prometheusTextDeclaresEverySeries() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.timer("mlp_step_seconds", "Time per step.").record(500_000_000L);
+        registry.counter("mlp_rows_total", "Rows seen.").add(3);
+        registry.gauge("mlp_gc_total", "Collections.", () -> 2);
+        registry.gauge("mlp_ratio", "A ratio.", () -> 0.125);
+
+        assertEquals(String.join("\n",
+                "# HELP mlp_step_seconds Time per step.",
+                "# TYPE mlp_step_seconds summary",
+                "mlp_step_seconds_count 1",
+                "mlp_step_seconds_sum 0.500000",
+                "# HELP mlp_step_seconds_max Longest time per step.",
+                "# TYPE mlp_step_seconds_max gauge",
+                "mlp_step_seconds_max 0.500000",
+                "# HELP mlp_rows_total Rows seen.",
+                "# TYPE mlp_rows_total counter",
+                "mlp_rows_total 3",
+                "# HELP mlp_gc_total Collections.",
+                "# TYPE mlp_gc_total counter",
+                "mlp_gc_total 2",
+                "# HELP mlp_ratio A ratio.",
+                "# TYPE mlp_ratio gauge",
+                "mlp_ratio 0.125000",
+                ""), registry.toPrometheus());
+    }
+
+    @Test
+    public void wholeNumbersAreFormattedWithoutADecimalPoint() {
+        assertEquals("42", MetricsRegistry.format(42));
+        assertEquals("-3", MetricsRegistry.format(-3));
+        assertEquals("0.333333", MetricsRegistry.format(1 / 3.0));
+        assertEquals("1.00000e+15", MetricsRegistry.format(1e15));
+    }
+}
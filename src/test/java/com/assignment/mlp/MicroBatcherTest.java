@@ -0,0 +1,84 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+public class MicroBatcherTest {
+    private static final int FEATURES = 5;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private static TrainedModel model() {
+        Nd4j.getRandom().setSeed(3);
+        INDArray x = Nd4j.randn(DataType.FLOAT, 64, FEATURES);
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(new DataSet(x, Nd4j.zeros(DataType.FLOAT, 64, 1)));
+        return new TrainedModel(MultilayerPerceptron.buildNetwork(527, FEATURES, 0.001, LayerSpec.widths(8),
+                Activation.RELU, WeightInit.XAVIER), normalizer);
+    }
+
+    private static float[][] rows(int count) {
+        return Nd4j.rand(DataType.FLOAT, count, FEATURES).toFloatMatrix();
+    }
+
+    @Test
+    public void queuedRowsAreScoredTogetherUpToTheMaxBatchSize() throws Exception {
+        ModelPool pool = new ModelPool(model(), 1);
+        float[][] rows = rows(8);
+        double[] expected = pool.predict(rows);
+
+        // A long wait, so only a full batch ends one early
+        try (MicroBatcher batcher = new MicroBatcher(pool, 4, TimeUnit.SECONDS.toMicros(TIMEOUT_SECONDS))) {
+            List<CompletableFuture<Double>> results = new ArrayList<>();
+            for (float[] row : rows) {
+                results.add(batcher.submit(row));
+            }
+            for (int i = 0; i < rows.length; i++) {
+                assertEquals(expected[i], results.get(i).get(TIMEOUT_SECONDS, TimeUnit.SECONDS), 1e-6);
+            }
+            assertEquals(4.0, batcher.getAverageBatchSize());
+        }
+    }
+
+    @Test
+    public void aLoneRowIsScoredOnceTheMaxWaitHasPassed() throws Exception {
+        long maxWaitMillis = 50;
+        try (MicroBatcher batcher = new MicroBatcher(new ModelPool(model(), 1), 100, TimeUnit.MILLISECONDS.toMicros(maxWaitMillis))) {
+            long start = System.nanoTime();
+            batcher.submit(rows(1)[0]).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis >= maxWaitMillis, "Scored after " + elapsedMillis + " ms");
+            assertEquals(1.0, batcher.getAverageBatchSize());
+        }
+    }
+
+    @Test
+    public void rowsSubmittedAfterCloseFail() throws Exception {
+        MicroBatcher batcher = new MicroBatcher(new ModelPool(model(), 2), 4, 0);
+        CompletableFuture<Double> beforeClose = batcher.submit(rows(1)[0]);
+        batcher.close();
+
+        // Rows queued before close are still scored
+        assertTrue(beforeClose.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) > 0);
+        CompletableFuture<Double> afterClose = batcher.submit(rows(1)[0]);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> afterClose.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertThrows(IllegalArgumentException.class, () -> batcher.submit(new float[FEATURES + 1]));
+    }
+}
@@ -0,0 +1,88 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+
+public class ModelCacheTest {
+    private static final int FEATURES = 5;
+
+    private static File saveModel(Path dir, String name, long seed) throws Exception {
+        MultiLayerNetwork network = MultilayerPerceptron.buildNetwork(seed, FEATURES, 0.001, new int[]{8},
+                Activation.RELU, WeightInit.XAVIER);
+        File file = dir.resolve(name).toFile();
+        new TrainedModel(network, null).save(file, false);
+        return file;
+    }
+
+    private static long modelBytes(Path dir) throws Exception {
+        ModelCache probe = new ModelCache(Long.MAX_VALUE);
+        probe.get(saveModel(dir, "probe.zip", 1));
+        return probe.getCachedBytes();
+    }
+
+    @Test
+    public void anUnchangedFileIsServedFromTheCache(@TempDir Path dir) throws Exception {
+        File file = saveModel(dir, "model.zip", 1);
+        ModelCache cache = new ModelCache(Long.MAX_VALUE);
+        TrainedModel first = cache.get(file);
+        assertSame(first, cache.get(file));
+        assertSame(first, cache.get(new File(dir.toFile(), "./model.zip"))); // Same canonical path
+
+        // A new modification time alone does not reload identical content
+        assertTrue(file.setLastModified(file.lastModified() + 10_000));
+        assertSame(first, cache.get(file));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void aFileOverwrittenWithAnotherModelIsLoadedAgain(@TempDir Path dir) throws Exception {
+        File file = saveModel(dir, "model.zip", 1);
+        ModelCache cache = new ModelCache(Long.MAX_VALUE);
+        TrainedModel first = cache.get(file);
+        long lastModified = file.lastModified();
+
+        saveModel(dir, "model.zip", 2);
+        assertTrue(file.setLastModified(lastModified + 10_000));
+        TrainedModel second = cache.get(file);
+        assertNotSame(first, second);
+        assertNotEquals(first.getNetwork().params(), second.getNetwork().params());
+        assertEquals(2, cache.getMisses());
+        // The replaced model no longer counts towards the bound
+        assertEquals(1, cache.size());
+        assertEquals(modelBytes(dir), cache.getCachedBytes());
+    }
+
+    @Test
+    public void theLeastRecentlyUsedModelIsEvictedBeyondTheBound(@TempDir Path dir) throws Exception {
+        long bytes = modelBytes(dir);
+        File a = saveModel(dir, "a.zip", 1);
+        File b = saveModel(dir, "b.zip", 2);
+        File c = saveModel(dir, "c.zip", 3);
+        ModelCache cache = new ModelCache(2 * bytes);
+
+        TrainedModel modelA = cache.get(a);
+        cache.get(b);
+        assertSame(modelA, cache.get(a)); // Now b is the least recently used
+        cache.get(c);
+        assertEquals(2, cache.size());
+        assertEquals(2 * bytes, cache.getCachedBytes());
+
+        assertSame(modelA, cache.get(a));
+        long misses = cache.getMisses();
+        cache.get(b);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+}
@@ -0,0 +1,95 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+public class ModelPoolTest {
+    private static final int FEATURES = 5;
+    private static final int REPLICAS = 3;
+
+    private static TrainedModel model() {
+        Nd4j.getRandom().setSeed(3);
+        INDArray x = Nd4j.randn(DataType.FLOAT, 64, FEATURES);
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(new DataSet(x, Nd4j.zeros(DataType.FLOAT, 64, 1)));
+        return new TrainedModel(MultilayerPerceptron.buildNetwork(527, FEATURES, 0.001, LayerSpec.widths(16, 8),
+                Activation.RELU, WeightInit.XAVIER), normalizer);
+    }
+
+    /**
+     * Runs many predictions from more threads than there are replicas, so every replica is used.
+     */
+    private static List<double[]> predictConcurrently(ModelPool pool, float[][] rows, int calls) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(2 * REPLICAS);
+        try {
+            List<Future<double[]>> futures = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                futures.add(callers.submit(() -> pool.predict(rows)));
+            }
+            List<double[]> results = new ArrayList<>();
+            for (Future<double[]> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentPredictionsMatchTheLoadedNetwork() throws Exception {
+        TrainedModel model = model();
+        float[][] rows = Nd4j.randn(DataType.FLOAT, 32, FEATURES).toFloatMatrix();
+        INDArray normalized = Nd4j.create(rows);
+        model.getNormalizer().transform(normalized);
+        double[] expected = model.getNetwork().output(normalized).toDoubleVector();
+
+        ModelPool pool = new ModelPool(model, REPLICAS);
+        assertEquals(REPLICAS, pool.size());
+        assertEquals(FEATURES, pool.getNumFeatures());
+        for (double[] result : predictConcurrently(pool, rows, 60)) {
+            assertArrayEquals(expected, result, 1e-6);
+        }
+    }
+
+    @Test
+    public void everyReplicaSharesTheLoadedParameters() throws Exception {
+        TrainedModel model = model();
+        MultiLayerNetwork network = model.getNetwork();
+        ModelPool pool = new ModelPool(model, REPLICAS);
+
+        // Zeroing the loaded weights in place is seen by every replica: each one now outputs sigmoid(0)
+        network.params().assign(0);
+        float[][] rows = Nd4j.randn(DataType.FLOAT, 8, FEATURES).toFloatMatrix();
+        double[] half = new double[rows.length];
+        Arrays.fill(half, 0.5);
+        for (double[] result : predictConcurrently(pool, rows, 30)) {
+            assertArrayEquals(half, result, 1e-6);
+        }
+    }
+
+    @Test
+    public void rowsOfTheWrongWidthAreRejected() {
+        ModelPool pool = new ModelPool(model(), 1);
+        assertThrows(IllegalArgumentException.class, () -> pool.predict(new float[][]{new float[FEATURES - 1]}));
+        assertThrows(IllegalArgumentException.class, () -> new ModelPool(model(), 0));
+    }
+}
@@ -0,0 +1,79 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+
+public class ResultWriterTest {
+    private static final String OLD_HEADER =
+            "Trial,LearningRate,BatchSize,Epochs,L1Neurons,L2Neurons,L3Neurons,Activation,WeightInit,Accuracy,F1Score,TrainingTime";
+
+    private static GridSearchResult result(int trial) {
+        HyperparameterConfig config = new HyperparameterConfig(0.001, 32, 10, LayerSpec.widths(32, 16),
+                Activation.RELU, WeightInit.XAVIER);
+        return new GridSearchResult(trial, config, 0.9, 0.85, 3, 1.5);
+    }
+
+    @Test
+    public void theHeaderIsWrittenOnceAndLaterRunsAppend(@TempDir Path dir) throws Exception {
+        File resultsFile = dir.resolve("grid_search_results.csv").toFile();
+        // A queue of 2 makes submit block while the writer thread catches up
+        try (ResultWriter writer = new ResultWriter(resultsFile, 2)) {
+            for (int trial = 1; trial <= 50; trial++) {
+                writer.submit(result(trial));
+            }
+        }
+        try (ResultWriter writer = new ResultWriter(resultsFile, 2)) {
+            writer.submit(result(51));
+        }
+
+        List<String> lines = Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(52, lines.size());
+        assertEquals(GridSearchResult.CSV_HEADER, lines.get(0));
+        for (int trial = 1; trial <= 51; trial++) {
+            assertEquals(result(trial).toCSVString(), lines.get(trial));
+        }
+    }
+
+    @Test
+    public void restoreMissingAppendsOnlyTheTrialsNotInTheFile(@TempDir Path dir) throws Exception {
+        File resultsFile = dir.resolve("grid_search_results.csv").toFile();
+        try (ResultWriter writer = new ResultWriter(resultsFile, 16)) {
+            writer.submit(result(1));
+            writer.submit(result(3));
+        }
+        try (ResultWriter writer = new ResultWriter(resultsFile, 16)) {
+            Stream<String> done = Stream.of(result(1), result(2), result(3), result(4)).map(GridSearchResult::toCSVString);
+            assertEquals(2, writer.restoreMissing(done));
+            writer.submit(result(5));
+        }
+        assertEquals(List.of(GridSearchResult.CSV_HEADER, result(1).toCSVString(), result(3).toCSVString(),
+                        result(2).toCSVString(), result(4).toCSVString(), result(5).toCSVString()),
+                Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void aFileWithAnotherHeaderIsMovedAsideInsteadOfAppendedTo(@TempDir Path dir) throws Exception {
+        File resultsFile = dir.resolve("grid_search_results.csv").toFile();
+        List<String> oldRows = List.of(OLD_HEADER, "5,0.0005,128,150,256,128,64,RELU,XAVIER,0.8447,0.8553,26");
+        Files.write(resultsFile.toPath(), oldRows, StandardCharsets.UTF_8);
+        Files.write(dir.resolve("grid_search_results.1.csv"), List.of("taken"), StandardCharsets.UTF_8);
+
+        try (ResultWriter writer = new ResultWriter(resultsFile, 16)) {
+            writer.submit(result(1));
+        }
+        assertEquals(List.of(GridSearchResult.CSV_HEADER, result(1).toCSVString()),
+                Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8));
+        assertEquals(oldRows, Files.readAllLines(dir.resolve("grid_search_results.2.csv"), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+public class RunningMomentsTest {
+
+    @Test
+    public void streamedStatisticsMatchABatchFitIncludingAConstantFeature() {
+        float[][] rows = new float[100][];
+        for (int r = 0; r < rows.length; r++) {
+            rows[r] = new float[]{r * 0.5f, (float) Math.sin(r), 7}; // The last feature never varies
+        }
+        RunningMoments moments = new RunningMoments(3);
+        for (float[] row : rows) {
+            moments.add(row);
+        }
+        NormalizerStandardize streamed = moments.toNormalizer();
+        INDArray features = Nd4j.create(rows);
+        NormalizerStandardize fitted = new NormalizerStandardize();
+        fitted.fit(new DataSet(features, Nd4j.zeros(DataType.FLOAT, rows.length, 1)));
+
+        assertArrayEquals(fitted.getMean().toFloatVector(), streamed.getMean().toFloatVector(), 1e-4f);
+        assertArrayEquals(fitted.getStd().toFloatVector(), streamed.getStd().toFloatVector(), 1e-4f);
+
+        INDArray normalized = features.dup();
+        streamed.transform(normalized);
+        for (float value : normalized.data().asFloat()) {
+            assertTrue(Float.isFinite(value));
+        }
+    }
+}
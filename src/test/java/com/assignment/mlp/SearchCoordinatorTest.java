@@ -0,0 +1,131 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+
+/**
+ * Drives a coordinator with hand-written worker messages, so no training runs.
+ */
+public class SearchCoordinatorTest {
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Starts a coordinator over two single-trial groups. Its files go to the temporary directory.
+     */
+    private static SearchCoordinator start(Path dir, long leaseTimeoutMillis, Thread[] runner) throws Exception {
+        GridSpace space = new GridSpace(new double[]{0.001}, new int[]{32, 64}, List.of(LayerSpec.widths(16)),
+                List.of(Activation.RELU), List.of(WeightInit.XAVIER), new int[]{10});
+        SearchCoordinator coordinator = new SearchCoordinator("127.0.0.1", 0, "data.csv", 527, SplitConfig.defaults(527),
+                new GridSearchStrategy(space, dir.resolve("test").toString()), 0, 0, false, leaseTimeoutMillis);
+        runner[0] = new Thread(() -> {
+            try {
+                coordinator.run();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner[0].start();
+        return coordinator;
+    }
+
+    private static SearchProtocol.Connection connect(SearchCoordinator coordinator, String name) throws Exception {
+        SearchProtocol.Connection connection = new SearchProtocol.Connection("127.0.0.1", coordinator.getPort(), TIMEOUT_MILLIS);
+        Map<String, Object> hello = SearchProtocol.message("hello");
+        hello.put("worker", name);
+        connection.request(hello);
+        return connection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Number> trials(Map<String, Object> lease) {
+        return (List<Number>) lease.get("trials");
+    }
+
+    private static void report(SearchProtocol.Connection connection, Map<String, Object> lease) throws Exception {
+        TrialGroup group = SearchProtocol.decodeGroup(lease);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < group.size(); i++) {
+            GridSearchResult result = new GridSearchResult(group.getTrials()[i], group.getConfigs().get(i), 0.9, 0.85, 3, 1.5);
+            results.add(SearchProtocol.encodeResult(result));
+        }
+        Map<String, Object> message = SearchProtocol.message("result");
+        message.put("lease", lease.get("lease"));
+        message.put("results", results);
+        connection.request(message);
+    }
+
+    /**
+     * Finishes every remaining lease with one worker and returns the result rows.
+     */
+    private static List<String> finish(Path dir, SearchProtocol.Connection connection, Thread runner) throws Exception {
+        Map<String, Object> reply;
+        while (!"done".equals((reply = connection.request(SearchProtocol.message("lease"))).get("type"))) {
+            if ("lease".equals(reply.get("type"))) {
+                report(connection, reply);
+            } else {
+                Thread.sleep(100);
+            }
+        }
+        runner.join(TIMEOUT_MILLIS);
+        List<String> lines = Files.readAllLines(dir.resolve("test_search_results.csv"), StandardCharsets.UTF_8);
+        return lines.subList(1, lines.size());
+    }
+
+    @Test
+    public void theLeaseOfAWorkerThatDisconnectsGoesToTheNextWorker(@TempDir Path dir) throws Exception {
+        Thread[] runner = new Thread[1];
+        try (SearchCoordinator coordinator = start(dir, 60_000, runner)) {
+            Map<String, Object> lost;
+            try (SearchProtocol.Connection killed = connect(coordinator, "killed")) {
+                lost = killed.request(SearchProtocol.message("lease"));
+                assertEquals(List.of(1), trials(lost));
+            }
+
+            // The coordinator notices the closed socket asynchronously; until then trial 2 would be leased next
+            for (int attempt = 0; coordinator.countLeases() > 0 && attempt < 100; attempt++) {
+                Thread.sleep(100);
+            }
+            assertEquals(0, coordinator.countLeases());
+
+            try (SearchProtocol.Connection survivor = connect(coordinator, "survivor")) {
+                Map<String, Object> requeued = survivor.request(SearchProtocol.message("lease"));
+                assertEquals(List.of(1), trials(requeued));
+                report(survivor, requeued);
+                assertEquals(2, finish(dir, survivor, runner[0]).size());
+            }
+        }
+    }
+
+    @Test
+    public void anExpiredLeaseIsReassignedAndItsLateResultIgnored(@TempDir Path dir) throws Exception {
+        Thread[] runner = new Thread[1];
+        try (SearchCoordinator coordinator = start(dir, 1000, runner);
+             SearchProtocol.Connection silent = connect(coordinator, "silent");
+             SearchProtocol.Connection survivor = connect(coordinator, "survivor")) {
+            Map<String, Object> stale = silent.request(SearchProtocol.message("lease"));
+            assertEquals(List.of(1), trials(stale));
+
+            // No heartbeats: after the lease timeout the same trial is offered again, ahead of trial 2
+            Thread.sleep(2500);
+            Map<String, Object> requeued = survivor.request(SearchProtocol.message("lease"));
+            assertEquals(List.of(1), trials(requeued));
+            report(survivor, requeued);
+            report(silent, stale);
+
+            List<String> rows = finish(dir, survivor, runner[0]);
+            assertEquals(2, rows.size());
+            assertEquals(List.of("1", "2"), List.of(rows.get(0).split(",")[0], rows.get(1).split(",")[0]));
+        }
+    }
+}
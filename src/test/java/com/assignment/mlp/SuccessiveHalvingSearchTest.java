@@ -0,0 +1,77 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+
+public class SuccessiveHalvingSearchTest {
+    private static final int EPOCHS_COLUMN = 3;
+    private static final int F1_SCORE_COLUMN = 9;
+
+    private static Path writeCsv(Path dir) throws Exception {
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder("a,b,c,d,e,label\n");
+        for (int i = 0; i < 200; i++) {
+            int label = i % 2;
+            for (int column = 0; column < 5; column++) {
+                csv.append(label * (column + 1) + random.nextGaussian()).append(',');
+            }
+            csv.append(label).append('\n');
+        }
+        Path file = dir.resolve("data.csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void eachRungKeepsTheBestTrialsOfThePreviousOne(@TempDir Path dir) throws Exception {
+        GridSpace space = new GridSpace(new double[]{0.01, 0.001}, new int[]{32}, List.of(LayerSpec.widths(8)),
+                List.of(Activation.RELU, Activation.TANH), List.of(WeightInit.XAVIER), new int[]{4});
+        File resultsFile = dir.resolve("results.csv").toFile();
+        new SuccessiveHalvingSearch(writeCsv(dir).toString(), 527, WorkerLayout.Strategy.SINGLE_THREADED, 1, 2,
+                SplitConfig.defaults(527), space, resultsFile).execute();
+
+        // Rows are appended rung by rung; a rung is recognised by the epochs its trials have trained
+        Map<Integer, Map<Integer, Double>> rungs = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(GridSearchResult.CSV_HEADER, lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            rungs.computeIfAbsent(Integer.parseInt(fields[EPOCHS_COLUMN]), epochs -> new LinkedHashMap<>())
+                    .put(GridSearchResult.parseTrial(line), Double.parseDouble(fields[F1_SCORE_COLUMN]));
+        }
+
+        // 4 trials for 1 epoch, the best 2 for 2 epochs, then the lone survivor for its full 4 epochs
+        assertEquals(List.of(1, 2, 4), new ArrayList<>(rungs.keySet()));
+        assertEquals(4, rungs.get(1).size());
+        assertEquals(2, rungs.get(2).size());
+        assertEquals(1, rungs.get(4).size());
+        assertPromotedTheBest(rungs.get(1), rungs.get(2).keySet());
+        assertPromotedTheBest(rungs.get(2), rungs.get(4).keySet());
+    }
+
+    private static void assertPromotedTheBest(Map<Integer, Double> rung, Set<Integer> promoted) {
+        assertTrue(rung.keySet().containsAll(promoted), "Promoted " + promoted + " without running them in " + rung);
+        double worstPromoted = promoted.stream().mapToDouble(rung::get).min().orElseThrow();
+        rung.forEach((trial, f1) -> {
+            if (!promoted.contains(trial)) {
+                assertTrue(f1 <= worstPromoted, "Trial " + trial + " was eliminated ahead of a worse one in " + rung);
+            }
+        });
+    }
+}
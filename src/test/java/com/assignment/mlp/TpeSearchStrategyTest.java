@@ -0,0 +1,62 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+
+public class TpeSearchStrategyTest {
+
+    private static SearchSpace space() {
+        return new SearchSpace(1e-4, 1e-2, 16, 256, 1, 3, new int[]{32, 64, 128}, new int[]{10, 20},
+                List.of(Activation.RELU, Activation.TANH), List.of(WeightInit.XAVIER));
+    }
+
+    @Test
+    public void startupTrialsAreTheRandomSearchsProposals() {
+        TpeSearchStrategy tpe = new TpeSearchStrategy(space(), 5, 42);
+        RandomSearchStrategy random = new RandomSearchStrategy(space(), 42);
+        for (int i = 0; i < 5; i++) {
+            HyperparameterConfig config = tpe.propose();
+            assertEquals(random.propose().getStableKey(), config.getStableKey());
+            tpe.observe(config, 0.5);
+        }
+    }
+
+    @Test
+    public void proposalsConcentrateWhereTheGoodTrialsWere() {
+        TpeSearchStrategy tpe = new TpeSearchStrategy(space(), 10, 42);
+        // Only batch size 32 scores well
+        for (int i = 0; i < 40; i++) {
+            HyperparameterConfig config = tpe.propose();
+            tpe.observe(config, config.getBatchSize() == 32 ? 0.9 : 0.5);
+        }
+
+        int good = 0;
+        int proposals = 60;
+        for (int i = 0; i < proposals; i++) {
+            HyperparameterConfig config = tpe.propose();
+            if (config.getBatchSize() == 32) {
+                good++;
+            }
+        }
+        // Random proposals would pick it one time in three
+        assertTrue(good > proposals / 2, good + " of " + proposals + " proposals were in the good region");
+    }
+
+    @Test
+    public void failedTrialsAreNotModelled() {
+        TpeSearchStrategy failing = new TpeSearchStrategy(space(), 3, 7);
+        TpeSearchStrategy fresh = new TpeSearchStrategy(space(), 3, 7);
+        // Failures never count towards the startup trials, so both keep proposing at random
+        for (int i = 0; i < 5; i++) {
+            HyperparameterConfig config = failing.propose();
+            assertEquals(fresh.propose().getStableKey(), config.getStableKey());
+            failing.observe(config, Double.NaN);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+
+public class TrialGroupTest {
+    private static final long BASE_SEED = 527;
+
+    private static HyperparameterConfig config(int batchSize, int epochs) {
+        return new HyperparameterConfig(0.001, batchSize, epochs, LayerSpec.widths(16), Activation.RELU, WeightInit.XAVIER);
+    }
+
+    @Test
+    public void variantsAreOrderedByEpochs() {
+        TrialGroup group = new TrialGroup(List.of(config(32, 20), config(32, 5), config(32, 10)), new int[]{3, 1, 2});
+        assertArrayEquals(new int[]{1, 2, 3}, group.getTrials());
+        assertEquals(20, group.getConfigs().get(2).getEpochs());
+    }
+
+    @Test
+    public void theSeedDependsOnTheScheduleNotOnWhichVariantsRemain() {
+        long full = new TrialGroup(List.of(config(32, 5), config(32, 10), config(32, 20)), new int[]{1, 2, 3}).getSeed(BASE_SEED);
+        // After a resume only the last variant is left, under a different smallest trial number
+        long resumed = new TrialGroup(List.of(config(32, 20)), new int[]{3}).getSeed(BASE_SEED);
+        long alone = new TrialGroup(List.of(config(32, 10)), new int[]{2}).getSeed(BASE_SEED);
+        assertEquals(full, resumed);
+        assertEquals(full, alone);
+
+        long otherSchedule = new TrialGroup(List.of(config(64, 5)), new int[]{4}).getSeed(BASE_SEED);
+        assertNotEquals(full, otherSchedule);
+        assertEquals(full + 1, new TrialGroup(List.of(config(32, 5)), new int[]{1}).getSeed(BASE_SEED + 1));
+    }
+}
@@ -0,0 +1,142 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+
+public class TrialLedgerTest {
+
+    private static HyperparameterConfig config(int batchSize) {
+        return new HyperparameterConfig(0.001, batchSize, 10, LayerSpec.widths(32, 16), Activation.RELU, WeightInit.XAVIER);
+    }
+
+    private static GridSearchResult result(int trial, HyperparameterConfig config) {
+        return new GridSearchResult(trial, config, 0.9, 0.85, 3, 1.5);
+    }
+
+    @Test
+    public void tornFinalRecordIsCutOffBeforeTheNextAppend(@TempDir Path dir) throws Exception {
+        Path ledgerFile = dir.resolve("ledger.log");
+        HyperparameterConfig first = config(32);
+        HyperparameterConfig second = config(64);
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, false)) {
+            ledger.recordStarted(first, 1);
+            ledger.recordDone(result(1, first));
+        }
+        // A crash in the middle of writing the next record
+        Files.write(ledgerFile, ("DONE\t" + second.getConfigHash() + "\t2,0.0").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, true)) {
+            assertTrue(ledger.isDone(1));
+            assertFalse(ledger.isDone(2));
+            ledger.recordStarted(second, 2);
+            ledger.recordDone(result(2, second));
+        }
+
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, true)) {
+            assertTrue(ledger.isDone(1));
+            assertTrue(ledger.isDone(2));
+            assertEquals(0, ledger.countInFlight());
+        }
+        List<String> lines = Files.readAllLines(ledgerFile, StandardCharsets.UTF_8);
+        assertEquals(5, lines.size());
+        assertEquals("VERSION\t2", lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            assertTrue(line.matches("(STARTED|DONE)\t[0-9a-f]+\t.*"), line);
+        }
+    }
+
+    @Test
+    public void resumeRestoresResultRowsMissingFromTheResultsFile(@TempDir Path dir) throws Exception {
+        Path ledgerFile = dir.resolve("ledger.log");
+        File resultsFile = dir.resolve("results.csv").toFile();
+        HyperparameterConfig first = config(32);
+        HyperparameterConfig second = config(64);
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, false);
+             ResultWriter writer = new ResultWriter(resultsFile, 16)) {
+            ledger.recordDone(result(1, first));
+            writer.submit(result(1, first));
+            ledger.recordDone(result(2, second)); // The process dies before this row is written
+        }
+
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, true);
+             ResultWriter writer = new ResultWriter(resultsFile, 16)) {
+            try (Stream<String> done = ledger.doneResults()) {
+                assertEquals(1, writer.restoreMissing(done));
+            }
+            try (Stream<String> done = ledger.doneResults()) {
+                assertEquals(0, writer.restoreMissing(done));
+            }
+        }
+        assertEquals(List.of(GridSearchResult.CSV_HEADER, result(1, first).toCSVString(), result(2, second).toCSVString()),
+                Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void onlyTrialsStartedButNotFinishedCountAsInFlight(@TempDir Path dir) throws Exception {
+        Path ledgerFile = dir.resolve("ledger.log");
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, false)) {
+            for (int trial = 1; trial <= 3; trial++) {
+                ledger.recordStarted(config(16 * trial), trial);
+            }
+            ledger.recordDone(result(1, config(16)));
+            ledger.recordFailed(config(32), "out of memory");
+            assertEquals(1, ledger.countInFlight());
+        }
+
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, true)) {
+            assertEquals(1, ledger.countDone());
+            assertEquals(1, ledger.countInFlight());
+            assertTrue(ledger.isDone(1));
+            assertFalse(ledger.isDone(2));
+            assertFalse(ledger.isDone(3));
+        }
+    }
+
+    @Test
+    public void aLedgerFromBeforeTheLayersColumnIsConvertedOnResume(@TempDir Path dir) throws Exception {
+        Path ledgerFile = dir.resolve("ledger.log");
+        HyperparameterConfig old = new HyperparameterConfig(0.0005, 128, 150, LayerSpec.widths(256, 128, 64),
+                Activation.RELU, WeightInit.XAVIER);
+        HyperparameterConfig recent = config(32);
+        // Version 1 had no VERSION line; a ledger started after the Layers column was added has new rows already
+        Files.write(ledgerFile, List.of(
+                "STARTED\t" + old.getConfigHash() + "\t5",
+                "DONE\t" + old.getConfigHash() + "\t5,0.0005,128,150,256,128,64,RELU,XAVIER,0.8447,0.8553,26",
+                "DONE\t" + recent.getConfigHash() + "\t" + result(6, recent).toCSVString()), StandardCharsets.UTF_8);
+
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, true);
+             Stream<String> done = ledger.doneResults()) {
+            assertTrue(ledger.isDone(5));
+            assertEquals(0, ledger.countInFlight());
+            List<String> results = done.toList();
+            assertEquals(List.of("5,0.0005,128,150,256/128/64,3,RELU,XAVIER,0.8447,0.8553,26,NaN",
+                    result(6, recent).toCSVString()), results);
+            assertEquals(0.8553, GridSearchResult.parseF1Score(results.get(0)));
+        }
+        assertEquals("VERSION\t2", Files.readAllLines(ledgerFile, StandardCharsets.UTF_8).get(0));
+    }
+
+    @Test
+    public void aLedgerInANewerFormatIsRejected(@TempDir Path dir) throws Exception {
+        Path ledgerFile = dir.resolve("ledger.log");
+        Files.write(ledgerFile, List.of("VERSION\t3"), StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> new TrialLedger(ledgerFile, true));
+    }
+}
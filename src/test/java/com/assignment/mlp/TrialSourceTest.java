@@ -0,0 +1,105 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+
+public class TrialSourceTest {
+
+    // Two batch sizes, each with three epoch variants: trials 1-3 and 4-6
+    private static GridSearchStrategy strategy() {
+        return new GridSearchStrategy(new GridSpace(new double[]{0.001}, new int[]{32, 64}, List.of(LayerSpec.widths(16)),
+                List.of(Activation.RELU), List.of(WeightInit.XAVIER), new int[]{5, 10, 20}), "test");
+    }
+
+    private static List<TrialGroup> drain(TrialSource source) {
+        List<TrialGroup> groups = new ArrayList<>();
+        for (TrialGroup group = source.next(); group != null; group = source.next()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    @Test
+    public void epochVariantsOfTheGridAreGroupedIntoOneRun(@TempDir Path dir) throws Exception {
+        GridSearchStrategy strategy = strategy();
+        try (TrialLedger ledger = new TrialLedger(dir.resolve("ledger.log"), false)) {
+            TrialSource source = new TrialSource(strategy, strategy.propose(), 0, ledger);
+            assertFalse(source.isExhausted());
+            List<TrialGroup> groups = drain(source);
+
+            assertEquals(2, groups.size());
+            assertArrayEquals(new int[]{1, 2, 3}, groups.get(0).getTrials());
+            assertArrayEquals(new int[]{4, 5, 6}, groups.get(1).getTrials());
+            assertEquals(20, groups.get(1).getConfigs().get(2).getEpochs());
+            assertEquals(64, groups.get(1).getConfigs().get(0).getBatchSize());
+            assertTrue(source.isExhausted());
+        }
+    }
+
+    @Test
+    public void trialsDoneBeforeAResumeAreSkippedAndKeepTheirNumbers(@TempDir Path dir) throws Exception {
+        Path ledgerFile = dir.resolve("ledger.log");
+        GridSearchStrategy first = strategy();
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, false)) {
+            HyperparameterConfig config = first.propose();
+            ledger.recordDone(new GridSearchResult(1, config, 0.9, 0.85, 3, 1.5));
+            config = first.propose();
+            ledger.recordDone(new GridSearchResult(2, config, 0.9, 0.85, 3, 1.5));
+        }
+
+        GridSearchStrategy resumed = strategy();
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, true)) {
+            List<TrialGroup> groups = drain(new TrialSource(resumed, resumed.propose(), 0, ledger));
+            assertEquals(2, groups.size());
+            assertArrayEquals(new int[]{3}, groups.get(0).getTrials());
+            assertArrayEquals(new int[]{4, 5, 6}, groups.get(1).getTrials());
+        }
+    }
+
+    @Test
+    public void aResumedTpeSearchLearnsFromTheTrialsItSkips(@TempDir Path dir) throws Exception {
+        SearchSpace space = SearchSpace.defaults();
+        Path ledgerFile = dir.resolve("ledger.log");
+        TpeSearchStrategy first = new TpeSearchStrategy(space, 2, 42);
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, false)) {
+            for (int trial = 1; trial <= 4; trial++) {
+                HyperparameterConfig config = first.propose();
+                double score = config.getBatchSize() == 32 ? 0.9 : 0.5;
+                ledger.recordDone(new GridSearchResult(trial, config, score, score, 3, 1.5));
+                first.observe(config, score);
+            }
+        }
+        HyperparameterConfig expected = first.propose();
+
+        TpeSearchStrategy resumed = new TpeSearchStrategy(space, 2, 42);
+        try (TrialLedger ledger = new TrialLedger(ledgerFile, true)) {
+            TrialGroup group = new TrialSource(resumed, resumed.propose(), 0, ledger).next();
+            assertArrayEquals(new int[]{5}, group.getTrials());
+            assertEquals(expected.getStableKey(), group.getConfigs().get(0).getStableKey());
+        }
+    }
+
+    @Test
+    public void theTrialBudgetCountsTheFirstConfiguration(@TempDir Path dir) throws Exception {
+        GridSearchStrategy strategy = strategy();
+        try (TrialLedger ledger = new TrialLedger(dir.resolve("ledger.log"), false)) {
+            TrialSource source = new TrialSource(strategy, strategy.propose(), 4, ledger);
+            List<TrialGroup> groups = drain(source);
+            assertEquals(2, groups.size());
+            assertArrayEquals(new int[]{4}, groups.get(1).getTrials());
+            assertNull(source.next());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class UtilityFunctionsTest {
+
+    private static void assertFormattedLikeFormatter(double value) {
+        StringBuilder out = new StringBuilder();
+        UtilityFunctions.appendFourDecimals(out, value);
+        assertEquals(String.format(Locale.ROOT, "%.4f", value), out.toString(), "For " + value);
+    }
+
+    @Test
+    public void fourDecimalsMatchTheFormatterOnEdgeCases() {
+        for (double value : new double[]{0, -0.0, 1, 0.5, 0.00005, 0.00015, 0.12345, 0.99995, 0.999949999, 1e-9,
+                -0.00001, -0.12345, 2.5, 123456.78905, 1e20, Double.MIN_VALUE, Double.MAX_VALUE,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertFormattedLikeFormatter(value);
+        }
+    }
+
+    @Test
+    public void fourDecimalsMatchTheFormatterOnProbabilities() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            assertFormattedLikeFormatter(random.nextDouble());
+            assertFormattedLikeFormatter(random.nextFloat()); // Scorers return floats
+            assertFormattedLikeFormatter(random.nextInt(20_001) / 20_000.0); // Ties
+        }
+    }
+}
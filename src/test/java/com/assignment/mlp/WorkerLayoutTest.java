@@ -0,0 +1,56 @@
+package com.assignment.mlp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.factory.Nd4j;
+
+public class WorkerLayoutTest {
+
+    private static void assertLayout(WorkerLayout.Strategy strategy, int workers, int threads, WorkerLayout layout) {
+        assertEquals(strategy, layout.getStrategy());
+        assertEquals(workers, layout.getWorkers());
+        assertEquals(threads, layout.getThreadsPerWorker());
+    }
+
+    @Test
+    public void fixedStrategiesSplitTheCoresWithoutCalibrating() throws Exception {
+        // No calibration runs, so no data or sample configuration is needed
+        assertLayout(WorkerLayout.Strategy.SINGLE_THREADED, 16, 1,
+                WorkerLayout.resolve(WorkerLayout.Strategy.SINGLE_THREADED, 16, null, null, 527));
+        assertLayout(WorkerLayout.Strategy.MULTI_THREADED, 4, 4,
+                WorkerLayout.resolve(WorkerLayout.Strategy.MULTI_THREADED, 16, null, null, 527));
+        assertLayout(WorkerLayout.Strategy.MULTI_THREADED, 2, 3, WorkerLayout.multiThreaded(8));
+        assertLayout(WorkerLayout.Strategy.SINGLE_THREADED, 1, 1, WorkerLayout.singleThreaded(0));
+    }
+
+    @Test
+    public void autoPicksOneOfTheCandidateLayouts() throws Exception {
+        Nd4j.getRandom().setSeed(11);
+        InMemoryDataSet data = new InMemoryDataSet(Nd4j.randn(DataType.FLOAT, 64, 5),
+                Nd4j.rand(DataType.FLOAT, 64, 1).gt(0.5).castTo(DataType.FLOAT), null);
+        HyperparameterConfig sample = new HyperparameterConfig(0.001, 32, 1, LayerSpec.widths(8), Activation.RELU,
+                WeightInit.XAVIER);
+        // With one core the only candidate is one worker with one thread
+        assertLayout(WorkerLayout.Strategy.AUTO, 1, 1, WorkerLayout.resolve(WorkerLayout.Strategy.AUTO, 1, data, sample, 527));
+    }
+
+    @Test
+    public void closingTheAppliedLimitsRestoresThePreviousOnes() {
+        int maxThreads = Nd4j.getEnvironment().maxThreads();
+        int maxMasterThreads = Nd4j.getEnvironment().maxMasterThreads();
+        int blasThreads = Nd4j.factory().blas().getMaxThreads();
+
+        // libnd4j caps the limits at the core count, so only lowering them is visible on every machine
+        try (WorkerLayout.ThreadLimits previous = WorkerLayout.singleThreaded(4).apply()) {
+            assertEquals(1, Nd4j.getEnvironment().maxThreads());
+            assertEquals(1, Nd4j.getEnvironment().maxMasterThreads());
+        }
+        assertEquals(maxThreads, Nd4j.getEnvironment().maxThreads());
+        assertEquals(maxMasterThreads, Nd4j.getEnvironment().maxMasterThreads());
+        assertEquals(blasThreads, Nd4j.factory().blas().getMaxThreads());
+    }
+}